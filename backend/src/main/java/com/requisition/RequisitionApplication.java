@@ -2,8 +2,10 @@ package com.requisition;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RequisitionApplication {
     public static void main(String[] args) {
         SpringApplication.run(RequisitionApplication.class, args);
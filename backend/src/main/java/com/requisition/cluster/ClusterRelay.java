@@ -0,0 +1,107 @@
+package com.requisition.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Makes the per-node simple broker behave like one broker across the cluster.
+ *
+ * Installed as an interceptor on the broker channel: every application message
+ * for a relayed destination is delivered locally as usual and also published to
+ * the {@link RelayTransport}. Messages arriving from other nodes are sent into
+ * the local broker channel marked as relayed, so they are never published again.
+ * A node ignores its own messages when they come back from the transport.
+ */
+public class ClusterRelay implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterRelay.class);
+
+    public static final String RELAYED_HEADER = "x-cluster-relayed";
+
+    private final String nodeId;
+    private final RelayTransport transport;
+    private final List<String> destinationPrefixes;
+    private volatile MessageChannel brokerChannel;
+
+    public ClusterRelay(String nodeId, RelayTransport transport, String... destinationPrefixes) {
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.destinationPrefixes = List.of(destinationPrefixes);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Starts delivering messages from other nodes into {@code brokerChannel}.
+     */
+    public void start(MessageChannel brokerChannel) {
+        this.brokerChannel = brokerChannel;
+        transport.subscribe(this::deliver);
+        log.info("Cluster relay started on node {} for {}", nodeId, destinationPrefixes);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        SimpMessageType type = accessor.getMessageType();
+
+        if (destination == null || destinationPrefixes.stream().noneMatch(destination::startsWith)
+                || (type != null && type != SimpMessageType.MESSAGE)
+                || accessor.getHeader(RELAYED_HEADER) != null) {
+            return message;
+        }
+
+        byte[] payload = payloadBytes(message.getPayload());
+        if (payload == null) {
+            log.debug("Not relaying {}: unsupported payload {}", destination, message.getPayload().getClass());
+            return message;
+        }
+        MimeType contentType = accessor.getContentType();
+        try {
+            transport.publish(new RelayEnvelope(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, payload));
+        } catch (RuntimeException e) {
+            // Local subscribers still get the message; remote nodes miss this one
+            log.warn("Could not relay message for {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    // A "/user/..." message is resolved to local sessions by each node's user destination handler
+    void deliver(RelayEnvelope envelope) {
+        if (nodeId.equals(envelope.getOriginNodeId()) || brokerChannel == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.getDestination());
+        if (envelope.getContentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.getContentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, envelope.getOriginNodeId());
+        accessor.setLeaveMutable(true);
+        brokerChannel.send(MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders()));
+    }
+
+    private byte[] payloadBytes(Object payload) {
+        if (payload instanceof byte[] bytes) {
+            return bytes;
+        }
+        if (payload instanceof String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+}
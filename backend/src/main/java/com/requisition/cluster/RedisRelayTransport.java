@@ -0,0 +1,72 @@
+package com.requisition.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relays envelopes over a Redis pub/sub channel. Publishing happens on a single
+ * background thread, which keeps per-node ordering and keeps Redis latency out
+ * of the request that produced the message.
+ */
+public class RedisRelayTransport implements RelayTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisRelayTransport.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final ThreadPoolExecutor publisher;
+
+    public RedisRelayTransport(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+            ObjectMapper objectMapper, String channel, int queueCapacity) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.publisher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cluster-relay-publisher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, pool) -> log.warn("Cluster relay queue full, dropping message"));
+    }
+
+    @Override
+    public void publish(RelayEnvelope envelope) {
+        publisher.execute(() -> {
+            try {
+                redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(envelope));
+            } catch (Exception e) {
+                log.warn("Could not publish to Redis channel {}: {}", channel, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<RelayEnvelope> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(message.getBody(), RelayEnvelope.class));
+            } catch (IOException e) {
+                log.warn("Ignoring malformed relay message on {}: {}", channel, e.getMessage());
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    public void shutdown() {
+        publisher.shutdown();
+    }
+}
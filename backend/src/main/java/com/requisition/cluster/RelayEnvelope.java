@@ -0,0 +1,14 @@
+package com.requisition.cluster;
+
+import lombok.*;
+
+// A broker message as it travels between nodes
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelayEnvelope {
+    private String originNodeId;
+    private String destination;
+    private String contentType;
+    private byte[] payload;
+}
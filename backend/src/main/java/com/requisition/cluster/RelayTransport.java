@@ -0,0 +1,14 @@
+package com.requisition.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out channel between backend nodes. Every published envelope is delivered
+ * to every subscribed node, including the publisher itself.
+ */
+public interface RelayTransport {
+
+    void publish(RelayEnvelope envelope);
+
+    void subscribe(Consumer<RelayEnvelope> listener);
+}
@@ -0,0 +1,60 @@
+package com.requisition.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.cluster.ClusterRelay;
+import com.requisition.cluster.RedisRelayTransport;
+import com.requisition.cluster.RelayTransport;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.MessageChannel;
+
+import java.util.UUID;
+
+/**
+ * Relays /topic/org.* and /user/* broker messages between backend nodes over Redis, so a
+ * broadcast on one node reaches clients connected to any node. Off by default;
+ * enable with {@code app.cluster.relay.enabled=true} when running more than one
+ * instance.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cluster.relay.enabled", havingValue = "true")
+public class ClusterRelayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer clusterRelayListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisRelayTransport redisRelayTransport(StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer clusterRelayListenerContainer,
+            ObjectMapper objectMapper,
+            @Value("${app.cluster.relay.channel:stomp-relay}") String channel,
+            @Value("${app.cluster.relay.queue-capacity:10000}") int queueCapacity) {
+        return new RedisRelayTransport(redisTemplate, clusterRelayListenerContainer, objectMapper, channel,
+                queueCapacity);
+    }
+
+    @Bean
+    public ClusterRelay clusterRelay(RelayTransport relayTransport,
+            @Value("${app.cluster.node-id:}") String nodeId) {
+        return new ClusterRelay(nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId, relayTransport,
+                StompDestinations.ORG_TOPIC_PREFIX, "/user/");
+    }
+
+    // The broker channel only exists once the WebSocket configuration is done
+    @Bean
+    public SmartInitializingSingleton clusterRelayStarter(ClusterRelay clusterRelay,
+            @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        return () -> clusterRelay.start(brokerChannel);
+    }
+}
@@ -1,6 +1,7 @@
 package com.requisition.config;
 
 import com.requisition.dto.ApiResponse;
+import com.requisition.exception.ConflictException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,6 +13,13 @@ import java.time.LocalDateTime;
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiResponse<Object>> handleConflict(ConflictException ex) {
+        return new ResponseEntity<>(
+                new ApiResponse<>(false, ex.getMessage(), null, LocalDateTime.now()),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ApiResponse<Object>> handleRuntimeException(RuntimeException ex) {
         String message = ex.getMessage();
@@ -21,6 +29,8 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             status = HttpStatus.NOT_FOUND;
         } else if (message.contains("Invalid credentials") || message.contains("User already exists")) {
             status = HttpStatus.BAD_REQUEST; // or 401/409 depending on context
+        } else if (message.contains("not supported")) {
+            status = HttpStatus.BAD_REQUEST;
         }
 
         return new ResponseEntity<>(
@@ -0,0 +1,60 @@
+package com.requisition.config;
+
+/**
+ * STOMP destinations requisition events are sent to. Each audience gets its
+ * own destination so a session only receives the events it acts on.
+ */
+public final class StompDestinations {
+
+    public static final String ORG_TOPIC_PREFIX = "/topic/org.";
+
+    // Resolved per user through the "/user" prefix
+    public static final String USER_REQUISITIONS = "/queue/requisitions";
+
+    private StompDestinations() {
+    }
+
+    /** Every change in the organization; admins only. */
+    public static String requisitions(Long organizationId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/requisitions";
+    }
+
+    /** Changes to one requisition, for open detail views. */
+    public static String requisition(Long organizationId, Long requisitionId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/requisition." + requisitionId;
+    }
+
+    /** Submitted requisitions and approval decisions; managers. */
+    public static String pendingApproval(Long organizationId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/pending-approval";
+    }
+
+    /** Approved requisitions and payment updates; accountants. */
+    public static String awaitingPayment(Long organizationId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/awaiting-payment";
+    }
+
+    /** Whether messages sent to {@code destination} are requisition change events. */
+    public static boolean carriesRequisitionChanges(String destination) {
+        if (destination == null) {
+            return false;
+        }
+        if (destination.equals("/user" + USER_REQUISITIONS)) {
+            return true;
+        }
+        return destination.startsWith(ORG_TOPIC_PREFIX)
+                && (destination.endsWith("/requisitions")
+                        || destination.contains("/requisition.")
+                        || destination.endsWith("/pending-approval")
+                        || destination.endsWith("/awaiting-payment"));
+    }
+
+    /** Dashboard counter deltas and snapshots. */
+    public static String stats(Long organizationId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/stats";
+    }
+
+    public static String attachments(Long organizationId) {
+        return ORG_TOPIC_PREFIX + organizationId + "/requisitions/attachments";
+    }
+}
@@ -0,0 +1,40 @@
+package com.requisition.controller;
+
+import com.requisition.dto.ApiResponse;
+import com.requisition.dto.BootstrapDTO;
+import com.requisition.security.JwtUtil;
+import com.requisition.service.BootstrapService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/bootstrap")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BootstrapController {
+
+    @Autowired
+    private BootstrapService bootstrapService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<BootstrapDTO>> bootstrap(
+            @RequestParam(required = false) Integer cardsPerType,
+            HttpServletRequest httpRequest) {
+        Long userId = extractUserId(httpRequest);
+        BootstrapDTO bootstrap = bootstrapService.load(userId, cardsPerType);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Bootstrap data retrieved", bootstrap));
+    }
+
+    private Long extractUserId(HttpServletRequest request) {
+        String auth = request.getHeader("Authorization");
+        if (auth != null && auth.startsWith("Bearer ")) {
+            String token = auth.substring(7);
+            return jwtUtil.extractUserId(token);
+        }
+        throw new RuntimeException("Unauthorized");
+    }
+}
@@ -4,13 +4,18 @@ import com.requisition.dto.*;
 import com.requisition.entity.User;
 import com.requisition.service.*;
 import com.requisition.security.JwtUtil;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
 import com.requisition.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/dashboard")
@@ -27,12 +32,23 @@ public class DashboardController {
     private JwtUtil jwtUtil;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private ConditionalGetTracker conditionalGetTracker;
 
     // Get stats for a requisition type
     @GetMapping("/stats/{typeId}")
     public ResponseEntity<ApiResponse<DashboardStatsDTO>> getStats(@PathVariable Long typeId,
-            HttpServletRequest request) {
+            HttpServletRequest request, WebRequest webRequest) {
         Long userId = extractUserId(request);
+        Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+        if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "dashboard.stats",
+                "stats-" + typeId + "-" + changeSeq)) {
+            return null;
+        }
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -45,8 +61,13 @@ public class DashboardController {
     @GetMapping("/requisitions/{typeId}")
     public ResponseEntity<ApiResponse<List<RequisitionCardDTO>>> getRequisitionsByType(
             @PathVariable Long typeId,
-            HttpServletRequest request) {
+            HttpServletRequest request, WebRequest webRequest) {
         Long userId = extractUserId(request);
+        Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+        if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "dashboard.requisitions",
+                "cards-" + typeId + "-" + changeSeq)) {
+            return null;
+        }
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -55,11 +76,38 @@ public class DashboardController {
                 new ApiResponse<>(true, "Requisitions retrieved", requisitions));
     }
 
+    // ?fields=id,requestId,status returns only those fields per requisition
+    @GetMapping(value = "/requisitions/{typeId}", params = "fields")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getRequisitionFieldsByType(
+            @PathVariable Long typeId,
+            @RequestParam String fields,
+            HttpServletRequest request, WebRequest webRequest) {
+        List<String> fieldList = RequisitionProjections.parseFields(fields);
+        Long userId = extractUserId(request);
+        Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+        if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "dashboard.requisitions",
+                "cards-" + typeId + "-" + changeSeq + "-" + Integer.toHexString(fieldList.hashCode()))) {
+            return null;
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<Map<String, Object>> requisitions = dashboardService.getRequisitionFieldsByType(user.getOrganization(),
+                typeId, fieldList);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Requisitions retrieved", requisitions));
+    }
+
     // Get detail
     @GetMapping("/requisitions/{id}/detail")
     public ResponseEntity<ApiResponse<RequisitionDetailDTO>> getRequisitionDetail(@PathVariable Long id,
-            HttpServletRequest request) {
+            HttpServletRequest request, WebRequest webRequest) {
         Long userId = extractUserId(request);
+        Optional<Long> version = requisitionRepository.findVersionForUser(id, userId);
+        if (version.isPresent() && conditionalGetTracker.notModified(webRequest, "dashboard.detail",
+                "detail-" + id + "-v" + version.get())) {
+            return null;
+        }
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
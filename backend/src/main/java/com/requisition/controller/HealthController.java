@@ -1,20 +1,98 @@
 package com.requisition.controller;
 
 import com.requisition.dto.ApiResponse;
+import com.requisition.dto.ConditionalGetStatsDTO;
+import com.requisition.dto.ListQueryStatsDTO;
+import com.requisition.dto.UploadGcReportDTO;
+import com.requisition.dto.WebSocketStatsDTO;
+import com.requisition.entity.User;
+import com.requisition.repository.UserRepository;
+import com.requisition.security.JwtUtil;
+import com.requisition.service.ConditionalGetTracker;
+import com.requisition.service.ListQueryMetrics;
+import com.requisition.service.UploadGarbageCollector;
+import com.requisition.websocket.SessionBackpressure;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/health")
 @CrossOrigin(origins = "*")
 public class HealthController {
 
+    @Autowired
+    private UploadGarbageCollector uploadGarbageCollector;
+
+    @Autowired
+    private SessionBackpressure sessionBackpressure;
+
+    @Autowired
+    private ConditionalGetTracker conditionalGetTracker;
+
+    @Autowired
+    private ListQueryMetrics listQueryMetrics;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     @GetMapping
     public ResponseEntity<ApiResponse<String>> checkHealth() {
         return ResponseEntity.ok(
                 new ApiResponse<>(true, "Service is healthy", "UP", java.time.LocalDateTime.now()));
     }
+
+    @GetMapping("/uploads-gc")
+    public ResponseEntity<ApiResponse<UploadGcReportDTO>> uploadGcReport(HttpServletRequest request) {
+        requireAdmin(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Last upload garbage collection", uploadGarbageCollector.getLastReport(),
+                        java.time.LocalDateTime.now()));
+    }
+
+    @GetMapping("/websocket")
+    public ResponseEntity<ApiResponse<WebSocketStatsDTO>> websocketStats(HttpServletRequest request) {
+        requireAdmin(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "WebSocket session backpressure", sessionBackpressure.getStats(),
+                        java.time.LocalDateTime.now()));
+    }
+
+    @GetMapping("/conditional-get")
+    public ResponseEntity<ApiResponse<Map<String, ConditionalGetStatsDTO>>> conditionalGetStats(HttpServletRequest request) {
+        requireAdmin(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Conditional GET hit ratio per endpoint", conditionalGetTracker.getStats(),
+                        java.time.LocalDateTime.now()));
+    }
+
+    @GetMapping("/list-queries")
+    public ResponseEntity<ApiResponse<Map<String, ListQueryStatsDTO>>> listQueryStats(HttpServletRequest request) {
+        requireAdmin(request);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Bytes read and allocation per row for list queries",
+                        listQueryMetrics.getStats(), java.time.LocalDateTime.now()));
+    }
+
+    // These reports are service-wide, not per organization
+    private void requireAdmin(HttpServletRequest request) {
+        String token = request.getHeader("Authorization");
+        if (token == null || !token.startsWith("Bearer ")) {
+            throw new RuntimeException("No valid token found");
+        }
+        User user = userRepository.findById(jwtUtil.extractUserId(token.substring(7)))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != User.UserRole.ADMIN) {
+            throw new RuntimeException("Only admins can view service reports");
+        }
+    }
 }
@@ -2,13 +2,18 @@ package com.requisition.controller;
 
 import com.requisition.dto.*;
 import com.requisition.service.*;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
 import com.requisition.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/requisitions")
@@ -18,6 +23,14 @@ public class RequisitionController {
         @Autowired
         private RequisitionService requisitionService;
         @Autowired
+        private BatchMutationService batchMutationService;
+        @Autowired
+        private ConditionalGetTracker conditionalGetTracker;
+        @Autowired
+        private RequisitionRepository requisitionRepository;
+        @Autowired
+        private OrganizationRepository organizationRepository;
+        @Autowired
         private JwtUtil jwtUtil;
 
         @PostMapping
@@ -32,18 +45,87 @@ public class RequisitionController {
         }
 
         @GetMapping
-        public ResponseEntity<ApiResponse<List<RequisitionDTO>>> getAll(HttpServletRequest httpRequest) {
+        public ResponseEntity<ApiResponse<List<RequisitionDTO>>> getAll(HttpServletRequest httpRequest,
+                        WebRequest webRequest) {
                 Long userId = extractUserId(httpRequest);
+                Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+                if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "requisitions.list",
+                                "reqs-" + changeSeq)) {
+                        return null;
+                }
                 List<RequisitionDTO> requisitions = requisitionService.getAllRequisitions(userId);
                 return ResponseEntity.ok(
                                 new ApiResponse<>(true, "Requisitions retrieved", requisitions,
                                                 java.time.LocalDateTime.now()));
         }
 
+        // Same body as GET /requisitions, written row by row from a database cursor for large organizations
+        @GetMapping("/stream")
+        public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> streamAll(
+                        HttpServletRequest httpRequest, WebRequest webRequest) {
+                Long userId = extractUserId(httpRequest);
+                Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+                if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "requisitions.list",
+                                "reqs-" + changeSeq)) {
+                        return null;
+                }
+                Long organizationId = requisitionListStreamer.resolveOrganizationId(userId);
+                return ResponseEntity.ok()
+                                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
+                                .body(out -> requisitionListStreamer.write(organizationId, out));
+        }
+
+        // ?fields=id,requestId,status returns only those fields per requisition
+        @GetMapping(params = "fields")
+        public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllFields(@RequestParam String fields,
+                        HttpServletRequest httpRequest, WebRequest webRequest) {
+                List<String> fieldList = RequisitionProjections.parseFields(fields);
+                Long userId = extractUserId(httpRequest);
+                Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+                if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "requisitions.list",
+                                "reqs-" + changeSeq + "-" + Integer.toHexString(fieldList.hashCode()))) {
+                        return null;
+                }
+                List<Map<String, Object>> requisitions = requisitionService.getAllRequisitionFields(userId, fieldList);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Requisitions retrieved", requisitions,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        // ?shape=normalized sends each referenced user once, in a users map next to the rows
+        @GetMapping(params = { "shape=normalized", "!fields" })
+        public ResponseEntity<ApiResponse<RequisitionListDTO>> getAllNormalized(HttpServletRequest httpRequest,
+                        WebRequest webRequest) {
+                Long userId = extractUserId(httpRequest);
+                Long changeSeq = organizationRepository.findChangeSeqForUser(userId);
+                if (changeSeq != null && conditionalGetTracker.notModified(webRequest, "requisitions.list",
+                                "reqs-" + changeSeq + "-normalized")) {
+                        return null;
+                }
+                RequisitionListDTO requisitions = requisitionService.getAllRequisitionsNormalized(userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Requisitions retrieved", requisitions,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        @GetMapping("/payload-sizes")
+        public ResponseEntity<ApiResponse<ListPayloadSizesDTO>> getPayloadSizes(HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                ListPayloadSizesDTO sizes = requisitionService.compareListPayloadSizes(userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "List payload sizes retrieved", sizes,
+                                                java.time.LocalDateTime.now()));
+        }
+
         @GetMapping("/{id}")
         public ResponseEntity<ApiResponse<RequisitionDTO>> getById(@PathVariable Long id,
-                        HttpServletRequest httpRequest) {
+                        HttpServletRequest httpRequest, WebRequest webRequest) {
                 Long userId = extractUserId(httpRequest);
+                Optional<Long> version = requisitionRepository.findVersionForUser(id, userId);
+                if (version.isPresent() && conditionalGetTracker.notModified(webRequest, "requisitions.get",
+                                "req-" + id + "-v" + version.get())) {
+                        return null;
+                }
                 RequisitionDTO requisition = requisitionService.getRequisitionById(id, userId);
                 return ResponseEntity.ok(
                                 new ApiResponse<>(true, "Requisition retrieved", requisition,
@@ -72,6 +154,19 @@ public class RequisitionController {
                                 new ApiResponse<>(true, "Requisition deleted", null, java.time.LocalDateTime.now()));
         }
 
+        // Offline replay: ordered operations applied all-or-nothing, deduplicated by operationId
+        @PostMapping("/batch")
+        public ResponseEntity<ApiResponse<BatchMutationResultDTO>> applyBatch(
+                        @RequestBody BatchMutationRequest request,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                BatchMutationResultDTO result = batchMutationService.apply(userId, request);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(result.isApplied(),
+                                                result.isApplied() ? "Batch applied" : "Batch rolled back", result,
+                                                java.time.LocalDateTime.now()));
+        }
+
         @DeleteMapping("/bulk")
         public ResponseEntity<ApiResponse<String>> deleteRequisitionsBulk(
                         @RequestBody List<Long> ids,
@@ -142,6 +237,132 @@ public class RequisitionController {
                                 new ApiResponse<>(true, "File uploaded", requisition, java.time.LocalDateTime.now()));
         }
 
+        // Multiple attachments per category; files in one request are stored in parallel
+        @PostMapping("/{id}/attachments")
+        public ResponseEntity<ApiResponse<List<AttachmentDTO>>> uploadAttachments(
+                        @PathVariable Long id,
+                        @RequestParam("files") List<MultipartFile> files,
+                        @RequestParam("category") String category, // item, bill, payment, material, vendor_payment
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                List<AttachmentDTO> attachments = attachmentService.uploadAttachments(id, userId, category, files);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Attachments uploaded", attachments,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        @GetMapping("/{id}/attachments")
+        public ResponseEntity<ApiResponse<PageResponse<AttachmentDTO>>> getAttachments(
+                        @PathVariable Long id,
+                        @RequestParam(required = false) String category,
+                        @RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                PageResponse<AttachmentDTO> attachments = attachmentService.getAttachments(id, userId, category, page,
+                                size);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Attachments retrieved", attachments,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        @DeleteMapping("/{id}/attachments/{attachmentId}")
+        public ResponseEntity<ApiResponse<String>> deleteAttachment(
+                        @PathVariable Long id,
+                        @PathVariable Long attachmentId,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                attachmentService.deleteAttachment(id, attachmentId, userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Attachment deleted", null, java.time.LocalDateTime.now()));
+        }
+
+        // Resumable uploads: open a session, PUT chunks at offsets, then complete
+        @PostMapping("/{id}/uploads")
+        public ResponseEntity<ApiResponse<UploadSessionDTO>> createUploadSession(
+                        @PathVariable Long id,
+                        @RequestBody CreateUploadSessionRequest request,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                UploadSessionDTO session = uploadSessionService.createSession(id, userId, request);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Upload session created", session,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        @GetMapping("/uploads/{sessionId}")
+        public ResponseEntity<ApiResponse<UploadSessionDTO>> getUploadSession(
+                        @PathVariable String sessionId,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                UploadSessionDTO session = uploadSessionService.getSession(sessionId, userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Upload session retrieved", session,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        @PutMapping(value = "/uploads/{sessionId}", consumes = "application/octet-stream")
+        public ResponseEntity<ApiResponse<UploadSessionDTO>> uploadChunk(
+                        @PathVariable String sessionId,
+                        @RequestParam("offset") long offset,
+                        HttpServletRequest httpRequest) throws java.io.IOException {
+                Long userId = extractUserId(httpRequest);
+                UploadSessionDTO session = uploadSessionService.appendChunk(sessionId, userId, offset,
+                                httpRequest.getInputStream());
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Chunk received", session, java.time.LocalDateTime.now()));
+        }
+
+        @PostMapping("/uploads/{sessionId}/complete")
+        public ResponseEntity<ApiResponse<RequisitionDTO>> completeUploadSession(
+                        @PathVariable String sessionId,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                RequisitionDTO requisition = uploadSessionService.completeSession(sessionId, userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "File uploaded", requisition, java.time.LocalDateTime.now()));
+        }
+
+        @DeleteMapping("/uploads/{sessionId}")
+        public ResponseEntity<ApiResponse<String>> abortUploadSession(
+                        @PathVariable String sessionId,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                uploadSessionService.abortSession(sessionId, userId);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Upload session cancelled", null,
+                                                java.time.LocalDateTime.now()));
+        }
+
+        // Direct uploads: presign a PUT to object storage, then record the stored object
+        @PostMapping("/{id}/uploads/presign")
+        public ResponseEntity<ApiResponse<DirectUploadDTO>> createDirectUpload(
+                        @PathVariable Long id,
+                        @RequestBody CreateUploadSessionRequest request,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                DirectUploadDTO upload = uploadSessionService.createDirectUpload(id, userId, request);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "Upload URL created", upload, java.time.LocalDateTime.now()));
+        }
+
+        @PostMapping("/{id}/uploads/presign/complete")
+        public ResponseEntity<ApiResponse<RequisitionDTO>> completeDirectUpload(
+                        @PathVariable Long id,
+                        @RequestBody CompleteDirectUploadRequest request,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                RequisitionDTO requisition = uploadSessionService.completeDirectUpload(id, userId, request);
+                return ResponseEntity.ok(
+                                new ApiResponse<>(true, "File uploaded", requisition, java.time.LocalDateTime.now()));
+        }
+
+        @Autowired
+        private UploadSessionService uploadSessionService;
+
+        @Autowired
+        private AttachmentService attachmentService;
+
         @Autowired
         private ExcelExportService excelExportService;
 
@@ -185,6 +406,27 @@ public class RequisitionController {
                                 .body(resource);
         }
 
+        // Bills, payment proofs etc. of many requisitions as one ZIP, streamed as it is built
+        @PostMapping("/export/attachments")
+        public ResponseEntity<org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody> exportAttachments(
+                        @RequestBody AttachmentBundleRequest request,
+                        HttpServletRequest httpRequest) {
+                Long userId = extractUserId(httpRequest);
+                AttachmentBundleService.BundleQuery query = attachmentBundleService.resolveQuery(userId, request);
+
+                return ResponseEntity.ok()
+                                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=requisition_attachments.zip")
+                                .contentType(org.springframework.http.MediaType.parseMediaType("application/zip"))
+                                .body(out -> attachmentBundleService.writeZip(query, out));
+        }
+
+        @Autowired
+        private AttachmentBundleService attachmentBundleService;
+
+        @Autowired
+        private RequisitionListStreamer requisitionListStreamer;
+
         private Long extractUserId(HttpServletRequest request) {
                 String auth = request.getHeader("Authorization");
                 if (auth != null && auth.startsWith("Bearer ")) {
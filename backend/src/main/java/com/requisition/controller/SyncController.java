@@ -0,0 +1,42 @@
+package com.requisition.controller;
+
+import com.requisition.dto.ApiResponse;
+import com.requisition.dto.SyncPageDTO;
+import com.requisition.security.JwtUtil;
+import com.requisition.service.SyncService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/sync")
+@CrossOrigin(origins = "http://localhost:3000")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // Changes since a cursor; since=0 asks for a reset, then follow cursor while hasMore
+    @GetMapping
+    public ResponseEntity<ApiResponse<SyncPageDTO>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "200") int limit,
+            HttpServletRequest request) {
+        Long userId = extractUserId(request);
+        SyncPageDTO page = syncService.getChanges(userId, since, limit);
+        return ResponseEntity.ok(
+                new ApiResponse<>(true, "Changes retrieved", page, java.time.LocalDateTime.now()));
+    }
+
+    private Long extractUserId(HttpServletRequest request) {
+        String auth = request.getHeader("Authorization");
+        if (auth != null && auth.startsWith("Bearer ")) {
+            String token = auth.substring(7);
+            return jwtUtil.extractUserId(token);
+        }
+        throw new RuntimeException("Unauthorized");
+    }
+}
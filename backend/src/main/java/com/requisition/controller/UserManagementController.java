@@ -1,9 +1,13 @@
 package com.requisition.controller;
 
 import com.requisition.dto.CreateUserRequest;
+import com.requisition.dto.PageResponse;
 import com.requisition.dto.UpdateUserRequest;
+import com.requisition.dto.UserImportResultDTO;
 import com.requisition.dto.UserDTO;
+import com.requisition.dto.UserSummaryDTO;
 import com.requisition.dto.ApiResponse;
+import com.requisition.service.UserImportService;
 import com.requisition.service.UserManagementService;
 import com.requisition.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,9 @@ public class UserManagementController {
     @Autowired
     private UserManagementService userManagementService;
 
+    @Autowired
+    private UserImportService userImportService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -33,6 +40,16 @@ public class UserManagementController {
         return ResponseEntity.ok(new ApiResponse<>(true, "User created successfully", newUser));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<UserImportResultDTO>> importUsers(
+            @RequestParam("file") org.springframework.web.multipart.MultipartFile file,
+            HttpServletRequest httpRequest) {
+        Long adminId = extractUserId(httpRequest);
+        UserImportResultDTO result = userImportService.importUsers(adminId, file);
+        return ResponseEntity.ok(new ApiResponse<>(true,
+                result.getCreated() + " of " + result.getTotal() + " users created", result));
+    }
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<UserDTO>>> getAllUsers(HttpServletRequest httpRequest) {
         Long adminId = extractUserId(httpRequest);
@@ -40,6 +57,25 @@ public class UserManagementController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Users retrieved", users));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<PageResponse<UserDTO>>> searchUsers(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "25") int size,
+            HttpServletRequest httpRequest) {
+        Long userId = extractUserId(httpRequest);
+        PageResponse<UserDTO> users = userManagementService.searchUsers(userId, q, role, page, size);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Users retrieved", users));
+    }
+
+    @GetMapping("/roster")
+    public ResponseEntity<ApiResponse<List<UserSummaryDTO>>> getRoster(HttpServletRequest httpRequest) {
+        Long userId = extractUserId(httpRequest);
+        List<UserSummaryDTO> roster = userManagementService.getRoster(userId);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Roster retrieved", roster));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserDTO>> updateUser(
             @PathVariable Long id,
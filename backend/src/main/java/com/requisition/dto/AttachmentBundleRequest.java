@@ -0,0 +1,18 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.time.LocalDate;
+import java.util.List;
+
+// Either explicit ids or a filter; an empty filter selects all requisitions of the organization
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentBundleRequest {
+    private List<Long> ids;
+    private Long requisitionTypeId;
+    private String status;
+    private LocalDate from; // created on or after
+    private LocalDate to; // created on or before
+    private List<String> categories; // e.g. BILL, PAYMENT; empty means all
+}
@@ -10,6 +10,8 @@ public class AttachmentDTO {
     private Long id;
     private String fileName;
     private String fileUrl;
+    private String thumbnailUrl; // null until generated or for non-image files
+    private Long fileSize;
     private String category;
     private LocalDateTime uploadedAt;
     private String uploadedByName;
@@ -0,0 +1,15 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+// Broadcast when attachments change, instead of the full requisition
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentUpdateDTO {
+    private Long requisitionId;
+    private long attachmentCount;
+    private List<AttachmentDTO> added;
+    private List<Long> removedIds;
+}
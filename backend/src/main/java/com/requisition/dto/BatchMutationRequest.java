@@ -0,0 +1,11 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMutationRequest {
+    private List<MutationOperation> operations; // applied in order
+}
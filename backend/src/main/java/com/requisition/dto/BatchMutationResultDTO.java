@@ -0,0 +1,13 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+// Either every new operation was applied or none was; results are in request order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMutationResultDTO {
+    private boolean applied;
+    private List<MutationResultDTO> results;
+}
@@ -0,0 +1,19 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+// Everything the app needs for its first screen; stats and cards are keyed by type id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootstrapDTO {
+    private UserDTO user;
+    private OrganizationDTO organization;
+    private List<RequisitionTypeDTO> types;
+    private Map<Long, DashboardStatsDTO> stats;
+    private Map<Long, List<RequisitionCardDTO>> cards;
+    private long pendingApprovalCount;
+    private long syncCursor; // read first, so delta sync from here misses nothing
+}
@@ -0,0 +1,11 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompleteDirectUploadRequest {
+    private String key;
+    private String type; // payment, material, bill, vendor_payment
+}
@@ -0,0 +1,12 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConditionalGetStatsDTO {
+    private long requests;
+    private long notModified; // answered 304 from If-None-Match
+    private double notModifiedRatio;
+}
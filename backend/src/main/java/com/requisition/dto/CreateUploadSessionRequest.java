@@ -0,0 +1,12 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateUploadSessionRequest {
+    private String fileName;
+    private String type; // payment, material, bill, vendor_payment
+    private Long totalSize; // optional; when set, finalize requires all bytes
+}
@@ -0,0 +1,21 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.Map;
+
+/**
+ * Pushed on /topic/org.{id}/stats. A DELTA carries only the counters that moved
+ * (e.g. approvedCount +1, pendingCount -1); a SNAPSHOT carries every counter of
+ * the type and replaces the client's values.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsUpdateDTO {
+    public static final String DELTA = "DELTA";
+    public static final String SNAPSHOT = "SNAPSHOT";
+
+    private String kind;
+    private Long typeId;
+    private Map<String, Long> counters;
+}
@@ -0,0 +1,14 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DirectUploadDTO {
+    private String key; // pass back to the complete call
+    private String uploadUrl; // presigned PUT URL on the storage backend
+    private String contentType; // must be sent as the PUT Content-Type
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,13 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListPayloadSizesDTO {
+    private int rows;
+    private int users; // distinct users the rows reference
+    private long embeddedBytes; // JSON of the default shape, users repeated per row
+    private long normalizedBytes; // JSON of shape=normalized
+}
@@ -0,0 +1,13 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListQueryStatsDTO {
+    private long calls;
+    private long rows;
+    private long estimatedBytesReadPerRow; // column bytes from the database, over sampled calls; 0 if none
+    private long allocatedBytesPerRow; // heap allocated while querying and mapping, 0 if unsupported
+}
@@ -0,0 +1,25 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+/**
+ * One queued client change. {@code operationId} is a client-generated UUID that
+ * makes the operation idempotent. A requisition created offline is identified by
+ * the client's {@code clientId}, which later operations in the same or a later
+ * batch can use instead of {@code requisitionId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationOperation {
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String SUBMIT = "SUBMIT";
+    public static final String DELETE = "DELETE";
+
+    private String operationId;
+    private String type; // CREATE, UPDATE, SUBMIT, DELETE
+    private String clientId;
+    private Long requisitionId;
+    private CreateRequisitionRequest data; // CREATE and UPDATE
+}
@@ -0,0 +1,22 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MutationResultDTO {
+    public static final String APPLIED = "APPLIED";
+    public static final String DUPLICATE = "DUPLICATE"; // applied by an earlier request
+    public static final String FAILED = "FAILED";
+    public static final String ROLLED_BACK = "ROLLED_BACK"; // valid, but another operation failed
+    public static final String SKIPPED = "SKIPPED"; // after the failed operation
+
+    private String operationId;
+    private String type;
+    private String clientId;
+    private Long requisitionId; // server id
+    private Long version;
+    private String status;
+    private String error;
+}
@@ -25,4 +25,5 @@ public class RequisitionCardDTO {
     private String siteAddress;
     private String vendorName;
     private String materialDescription;
+    private long attachmentCount;
 }
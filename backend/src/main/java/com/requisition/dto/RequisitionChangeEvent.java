@@ -0,0 +1,23 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.Map;
+
+/**
+ * Broadcast instead of the full RequisitionDTO. {@code version} increases with
+ * every committed change of the requisition; a client that sees a gap (or has
+ * never loaded the requisition) fetches GET /api/v1/requisitions/{id} instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequisitionChangeEvent {
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private Long requisitionId;
+    private Long version;
+    private String type;
+    private Map<String, Object> changes; // changed fields only; null values mean cleared
+}
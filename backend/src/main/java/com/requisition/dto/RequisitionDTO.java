@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class RequisitionDTO {
     private Long id;
+    private Long version; // matches RequisitionChangeEvent.version
     private String requestId;
     private String type;
     private String description;
@@ -35,6 +36,12 @@ public class RequisitionDTO {
     private String materialPhotoUrl;
     private String billPhotoUrl;
     private String vendorPaymentDetailsUrl;
+    // Downscaled JPEG previews; null until generated or for non-image uploads
+    private String paymentPhotoThumbnailUrl;
+    private String materialPhotoThumbnailUrl;
+    private String billPhotoThumbnailUrl;
+    private String vendorPaymentDetailsThumbnailUrl;
+    private long attachmentCount; // attachments are listed separately, paginated
     private String approvalNotes;
     private Boolean materialReceived;
     private String receiptNotes;
@@ -3,6 +3,7 @@ package com.requisition.dto;
 import lombok.*;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.math.BigDecimal;
 
 @Data
@@ -51,6 +52,9 @@ public class RequisitionDetailDTO {
     private LocalDateTime paidAt;
     private LocalDateTime dispatchedAt;
 
+    // Attachment counts by category; the files themselves are fetched page by page
+    private Map<String, Long> attachmentCounts;
+
     // Attachments grouped by category
     private List<AttachmentDTO> itemPhotos;
     private List<AttachmentDTO> billPhotos;
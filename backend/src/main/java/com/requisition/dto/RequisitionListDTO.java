@@ -0,0 +1,13 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequisitionListDTO {
+    private List<RequisitionRowDTO> rows;
+    private Map<Long, UserSummaryDTO> users; // every user the rows reference, once
+}
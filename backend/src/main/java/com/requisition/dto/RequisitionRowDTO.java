@@ -0,0 +1,19 @@
+package com.requisition.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.*;
+
+/**
+ * A requisition in the normalized list shape: users are referenced by id and
+ * looked up in the list's side-loaded {@code users} map.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+@JsonIgnoreProperties({ "createdBy", "createdByName", "approvedByName", "paidByName", "dispatchedByName" })
+public class RequisitionRowDTO extends RequisitionDTO {
+    private Long createdById;
+    private Long approvedById;
+    private Long paidById;
+    private Long dispatchedById;
+}
@@ -0,0 +1,12 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequisitionTypeDTO {
+    private Long id;
+    private String name;
+    private String description;
+}
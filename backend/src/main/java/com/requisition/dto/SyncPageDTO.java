@@ -0,0 +1,20 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of GET /api/v1/sync. Pass {@code cursor} as {@code since} on the next
+ * call. When {@code resetRequired} is set the log no longer reaches back to the
+ * client's cursor: reload everything, then continue from {@code cursor}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncPageDTO {
+    private long cursor;
+    private boolean hasMore;
+    private boolean resetRequired;
+    private List<RequisitionDTO> changed; // current state of requisitions created or updated since the cursor
+    private List<Long> deleted; // tombstones: requisition ids deleted since the cursor
+}
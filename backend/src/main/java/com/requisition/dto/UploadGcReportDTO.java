@@ -0,0 +1,17 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadGcReportDTO {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long scannedFiles;
+    private long quarantinedFiles; // newly found unreferenced files
+    private long restoredFiles; // quarantined files that were referenced again
+    private long deletedFiles;
+    private long reclaimedBytes;
+}
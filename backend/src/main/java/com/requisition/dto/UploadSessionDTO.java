@@ -0,0 +1,17 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String sessionId;
+    private Long requisitionId;
+    private String type;
+    private String fileName;
+    private Long offset; // bytes received so far; next chunk starts here
+    private Long totalSize;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+// Valid rows are created even when others fail; rows are in file order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private int total;
+    private int created;
+    private int failed;
+    private List<UserImportRowDTO> rows;
+}
@@ -0,0 +1,17 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRowDTO {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private int row; // data row in the file, 1 is the row after the header
+    private String email;
+    private String status;
+    private Long userId;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.requisition.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+    private Long id;
+    private String fullName;
+    private String role;
+    private String department;
+    private String profilePhotoUrl;
+    private Boolean isActive;
+}
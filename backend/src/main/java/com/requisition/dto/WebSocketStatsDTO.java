@@ -0,0 +1,16 @@
+package com.requisition.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketStatsDTO {
+    private int sessions;
+    private int laggingSessions;
+    private int parkedUpdates; // latest requisition changes held back for lagging sessions
+    private long droppedStaleMessages; // superseded by a newer change before delivery
+    private long rejectedMessages; // outbound pool queue full
+    private List<Integer> deepestQueues; // messages not yet written, for the ten deepest sessions
+}
@@ -0,0 +1,29 @@
+package com.requisition.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A direct upload key issued by UploadSessionService, consumed when the upload is completed
+@Entity
+@Table(name = "pending_uploads")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingUpload {
+    @Id
+    @Column(name = "upload_key")
+    private String key;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long requisitionId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
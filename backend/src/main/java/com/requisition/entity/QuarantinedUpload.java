@@ -0,0 +1,21 @@
+package com.requisition.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// An unreferenced upload waiting out the quarantine period before deletion
+@Entity
+@Table(name = "upload_quarantine")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuarantinedUpload {
+    @Id
+    private String fileName;
+
+    private Long fileSize;
+
+    @Column(nullable = false)
+    private LocalDateTime quarantinedAt = LocalDateTime.now();
+}
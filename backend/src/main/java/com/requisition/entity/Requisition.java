@@ -23,6 +23,10 @@ public class Requisition {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Bumped on every update; orders change events and guards concurrent edits
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "organization_id", nullable = false)
     private Organization organization;
@@ -14,7 +14,7 @@ public class RequisitionAttachment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requisition_id")
     private Requisition requisition;
 
@@ -23,9 +23,9 @@ public class RequisitionAttachment {
     private Long fileSize;
 
     @Enumerated(EnumType.STRING)
-    private AttachmentCategory category; // ITEM, BILL, PAYMENT
+    private AttachmentCategory category;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploaded_by")
     private User uploadedBy;
 
@@ -34,6 +34,8 @@ public class RequisitionAttachment {
     public enum AttachmentCategory {
         ITEM, // Item photos
         BILL, // Bill/invoice photos
-        PAYMENT // Payment proof photos
+        PAYMENT, // Payment proof photos
+        MATERIAL, // Material receipt photos
+        VENDOR_PAYMENT // Vendor bank/payment details
     }
 }
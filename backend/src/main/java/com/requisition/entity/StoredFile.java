@@ -0,0 +1,35 @@
+package com.requisition.entity;
+
+import lombok.*;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String fileName; // <sha256><ext>
+
+    @Column(length = 64)
+    private String contentHash; // null for direct-to-storage uploads
+
+    private Long fileSize;
+
+    @Column(nullable = false)
+    private Boolean hasRenditions = false; // thumbnail and web copies generated
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
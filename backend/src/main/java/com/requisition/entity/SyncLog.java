@@ -7,7 +7,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "sync_logs", indexes = {
         @Index(name = "idx_synced", columnList = "synced"),
-        @Index(name = "idx_created_at", columnList = "created_at DESC")
+        @Index(name = "idx_created_at", columnList = "created_at DESC"),
+        @Index(name = "idx_sync_logs_org_seq", columnList = "organization_id, seq", unique = true)
 })
 @Data
 @NoArgsConstructor
@@ -21,6 +22,12 @@ public class SyncLog {
     @JoinColumn(name = "user_id")
     private User user;
 
+    // Server change log entries; null for client-queued entries
+    @Column(name = "organization_id")
+    private Long organizationId;
+
+    private Long seq; // per organization, increases with every committed change
+
     private String entityType; // REQUISITION, APPROVAL
     private Long entityId;
 
@@ -0,0 +1,12 @@
+package com.requisition.exception;
+
+/**
+ * The request lost a race with another change (stale version, offset or key);
+ * answered with 409 so clients reload or retry.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
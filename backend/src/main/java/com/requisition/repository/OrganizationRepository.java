@@ -2,7 +2,11 @@ package com.requisition.repository;
 
 import com.requisition.entity.Organization;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -11,4 +15,22 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
     Optional<Organization> findByContactEmail(String contactEmail);
 
     Optional<Organization> findByName(String name);
+
+    // Change log counters; not mapped on the entity so saving an organization never resets them
+    @Query(value = "SELECT change_seq FROM organizations WHERE id = :id", nativeQuery = true)
+    Long findChangeSeq(@Param("id") Long id);
+
+    // List ETags: the change counter of the user's organization in one lookup
+    @Query(value = "SELECT o.change_seq FROM organizations o JOIN users u ON u.organization_id = o.id "
+            + "WHERE u.id = :userId", nativeQuery = true)
+    Long findChangeSeqForUser(@Param("userId") Long userId);
+
+    // User changes alter names embedded in list responses, so they move the counter too
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE organizations SET change_seq = change_seq + 1 WHERE id = :id", nativeQuery = true)
+    int bumpChangeSeq(@Param("id") Long id);
+
+    @Query(value = "SELECT sync_compacted_seq FROM organizations WHERE id = :id", nativeQuery = true)
+    Long findSyncCompactedSeq(@Param("id") Long id);
 }
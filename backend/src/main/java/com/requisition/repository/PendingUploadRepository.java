@@ -0,0 +1,27 @@
+package com.requisition.repository;
+
+import com.requisition.entity.PendingUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PendingUploadRepository extends JpaRepository<PendingUpload, String> {
+    // Consumes the key if it was issued to this user for this requisition and is still valid
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingUpload p WHERE p.key = :key AND p.userId = :userId "
+            + "AND p.requisitionId = :requisitionId AND p.expiresAt > :now")
+    int claim(@Param("key") String key, @Param("userId") Long userId, @Param("requisitionId") Long requisitionId,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingUpload p WHERE p.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,14 @@
+package com.requisition.repository;
+
+import com.requisition.entity.QuarantinedUpload;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuarantinedUploadRepository extends JpaRepository<QuarantinedUpload, String> {
+    List<QuarantinedUpload> findByQuarantinedAtBeforeOrderByFileName(LocalDateTime cutoff, Pageable pageable);
+}
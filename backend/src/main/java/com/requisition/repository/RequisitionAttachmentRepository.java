@@ -2,10 +2,17 @@ package com.requisition.repository;
 
 import com.requisition.entity.RequisitionAttachment;
 import com.requisition.entity.Requisition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RequisitionAttachmentRepository extends JpaRepository<RequisitionAttachment, Long> {
@@ -14,4 +21,32 @@ public interface RequisitionAttachmentRepository extends JpaRepository<Requisiti
             RequisitionAttachment.AttachmentCategory category);
 
     List<RequisitionAttachment> findByRequisition(Requisition requisition);
+
+    // Paginated listing; uploader is fetched in the same query for the DTO name
+    @EntityGraph(attributePaths = "uploadedBy")
+    Page<RequisitionAttachment> findByRequisitionId(Long requisitionId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "uploadedBy")
+    Page<RequisitionAttachment> findByRequisitionIdAndCategory(Long requisitionId,
+            RequisitionAttachment.AttachmentCategory category, Pageable pageable);
+
+    @Query("SELECT a FROM RequisitionAttachment a WHERE a.requisition.id IN :requisitionIds "
+            + "ORDER BY a.requisition.id, a.category, a.uploadedAt")
+    List<RequisitionAttachment> findByRequisitionIds(@Param("requisitionIds") Collection<Long> requisitionIds);
+
+    Optional<RequisitionAttachment> findByIdAndRequisitionId(Long id, Long requisitionId);
+
+    long countByRequisitionId(Long requisitionId);
+
+    // One grouped query for a whole list page instead of a count per row
+    @Query("SELECT a.requisition.id, COUNT(a) FROM RequisitionAttachment a "
+            + "WHERE a.requisition.id IN :requisitionIds GROUP BY a.requisition.id")
+    List<Object[]> countByRequisitionIds(@Param("requisitionIds") Collection<Long> requisitionIds);
+
+    @Query("SELECT a.category, COUNT(a) FROM RequisitionAttachment a "
+            + "WHERE a.requisition.id = :requisitionId GROUP BY a.category")
+    List<Object[]> countByCategory(@Param("requisitionId") Long requisitionId);
+
+    @Query("SELECT a.fileUrl FROM RequisitionAttachment a WHERE a.requisition.id = :requisitionId")
+    List<String> findFileUrlsByRequisitionId(@Param("requisitionId") Long requisitionId);
 }
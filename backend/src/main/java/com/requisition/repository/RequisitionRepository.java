@@ -4,15 +4,23 @@ import com.requisition.entity.Requisition;
 import com.requisition.entity.RequisitionType;
 import com.requisition.entity.User;
 import com.requisition.entity.Organization;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RequisitionRepository extends JpaRepository<Requisition, Long> {
+        int FETCH_SIZE = 200;
+
         // Find by type and status
         List<Requisition> findByTypeAndApprovalStatusOrderByCreatedAtDesc(
                         RequisitionType type,
@@ -31,6 +39,8 @@ public interface RequisitionRepository extends JpaRepository<Requisition, Long>
         List<Requisition> findByOrganizationAndTypeOrderByCreatedAtDesc(Organization organization,
                         RequisitionType type);
 
+        long countByOrganizationIdAndStatus(Long organizationId, Requisition.RequisitionStatus status);
+
         // Find by created user
         List<Requisition> findByCreatedByOrderByCreatedAtDesc(User user);
 
@@ -50,12 +60,75 @@ public interface RequisitionRepository extends JpaRepository<Requisition, Long>
 
         Long countByOrganizationAndType(Organization organization, RequisitionType type);
 
+        Long countByOrganizationAndTypeAndDispatchStatus(Organization organization, RequisitionType type,
+                        Requisition.DispatchStatus status);
+
+        // Every status combination per type in one pass, for dashboard snapshots
+        @Query("SELECT r.type.id, r.approvalStatus, r.paymentStatus, r.dispatchStatus, COUNT(r) FROM Requisition r "
+                        + "WHERE r.organization.id = :organizationId "
+                        + "GROUP BY r.type.id, r.approvalStatus, r.paymentStatus, r.dispatchStatus")
+        List<Object[]> countStatusCombinations(@Param("organizationId") Long organizationId);
+
         // Find by requestId
         Optional<Requisition> findByRequestId(String requestId);
 
+        // Cursors for the attachment bundle, read FETCH_SIZE rows at a time while the ZIP is written
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+        @Query("SELECT r FROM Requisition r WHERE r.organization.id = :organizationId AND r.id IN :ids "
+                        + "ORDER BY r.createdAt DESC, r.id DESC")
+        Stream<Requisition> streamForExportByIds(@Param("organizationId") Long organizationId,
+                        @Param("ids") List<Long> ids);
+
+        // Null type or status matches everything; the date range is always bounded
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+        @Query("SELECT r FROM Requisition r WHERE r.organization.id = :organizationId "
+                        + "AND (:typeId IS NULL OR r.type.id = :typeId) "
+                        + "AND (:status IS NULL OR r.status = :status) "
+                        + "AND r.createdAt >= :from AND r.createdAt < :to "
+                        + "ORDER BY r.createdAt DESC, r.id DESC")
+        Stream<Requisition> streamForExport(@Param("organizationId") Long organizationId,
+                        @Param("typeId") Long typeId,
+                        @Param("status") Requisition.RequisitionStatus status,
+                        @Param("from") java.time.LocalDateTime from,
+                        @Param("to") java.time.LocalDateTime to);
+
+        // Server-side cursor for streamed lists: rows arrive FETCH_SIZE at a time, users joined up front
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE))
+        @Query("SELECT r FROM Requisition r LEFT JOIN FETCH r.type LEFT JOIN FETCH r.createdBy "
+                        + "LEFT JOIN FETCH r.approvedBy LEFT JOIN FETCH r.paidBy LEFT JOIN FETCH r.dispatchedBy "
+                        + "WHERE r.organization.id = :organizationId ORDER BY r.createdAt DESC, r.id DESC")
+        Stream<Requisition> streamByOrganizationId(@Param("organizationId") Long organizationId);
+
         // Find by id and organization (safety for detail views)
         Optional<Requisition> findByIdAndOrganization(Long id, Organization organization);
 
+        boolean existsByIdAndOrganizationId(Long id, Long organizationId);
+
+        // Detail ETags: the version alone, scoped to the user's organization, without loading either entity
+        @Query("SELECT r.version FROM Requisition r, User u "
+                        + "WHERE r.id = :id AND u.id = :userId AND r.organization = u.organization")
+        Optional<Long> findVersionForUser(@Param("id") Long id, @Param("userId") Long userId);
+
+        // Attachments belong to the requisition: adding or removing one is a new version
+        @Modifying
+        @Query("UPDATE Requisition r SET r.version = r.version + 1 WHERE r.id = :id")
+        int incrementVersion(@Param("id") Long id);
+
+        // Requisitions showing any of the given upload URLs, as one of their photos or as an attachment
+        String REFERENCES_URLS = "(r.payment_photo_url IN (:urls) OR r.material_photo_url IN (:urls) "
+                        + "OR r.bill_photo_url IN (:urls) OR r.vendor_payment_details_url IN (:urls) "
+                        + "OR r.id IN (SELECT a.requisition_id FROM attachments a WHERE a.file_url IN (:urls)))";
+
+        @Query(value = "SELECT DISTINCT r.organization_id FROM requisitions r WHERE " + REFERENCES_URLS,
+                        nativeQuery = true)
+        List<Long> findOrganizationIdsReferencing(@Param("urls") Collection<String> urls);
+
+        // New renditions change the thumbnail URLs in these requisitions' responses
+        @Modifying
+        @Query(value = "UPDATE requisitions r SET version = r.version + 1 WHERE " + REFERENCES_URLS,
+                        nativeQuery = true)
+        int incrementVersionReferencing(@Param("urls") Collection<String> urls);
+
         // Get next request ID number (global - deprecated)
         @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(request_id, 5) AS INTEGER)), 0) + 1 FROM requisitions", nativeQuery = true)
         Integer getNextRequestIdNumber();
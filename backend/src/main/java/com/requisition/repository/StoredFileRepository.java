@@ -0,0 +1,72 @@
+package com.requisition.repository;
+
+import com.requisition.entity.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+        Optional<StoredFile> findByFileName(String fileName);
+
+        // Insert-or-touch in one statement so concurrent uploads of the same content never race on
+        // the unique file_name constraint; updated_at starts the collector's grace period again
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO stored_files (file_name, content_hash, file_size, created_at, updated_at) "
+                        + "VALUES (:fileName, :hash, :size, now(), now()) "
+                        + "ON CONFLICT (file_name) DO UPDATE SET updated_at = now()", nativeQuery = true)
+        int acquire(@Param("fileName") String fileName, @Param("hash") String hash, @Param("size") long size);
+
+        // Direct-to-storage uploads: the server never reads the bytes, so no hash
+        @Modifying
+        @Transactional
+        @Query(value = "INSERT INTO stored_files (file_name, content_hash, file_size, created_at, updated_at) "
+                        + "VALUES (:fileName, NULL, :size, now(), now()) "
+                        + "ON CONFLICT (file_name) DO UPDATE SET updated_at = now()", nativeQuery = true)
+        int acquireUnhashed(@Param("fileName") String fileName, @Param("size") long size);
+
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM stored_files WHERE file_name = :fileName", nativeQuery = true)
+        int deleteByFileName(@Param("fileName") String fileName);
+
+        // Claims a file for deletion unless it was acquired again since the cutoff
+        @Modifying
+        @Transactional
+        @Query(value = "DELETE FROM stored_files WHERE file_name = :fileName AND updated_at < :cutoff", nativeQuery = true)
+        int deleteIfNotAcquiredSince(@Param("fileName") String fileName, @Param("cutoff") LocalDateTime cutoff);
+
+        boolean existsByFileName(String fileName);
+
+        @Modifying
+        @Transactional
+        @Query(value = "UPDATE stored_files SET has_renditions = TRUE WHERE file_name = :fileName", nativeQuery = true)
+        int markRenditions(@Param("fileName") String fileName);
+
+        @Query(value = "SELECT file_name FROM stored_files WHERE file_name IN (:fileNames) AND has_renditions", nativeQuery = true)
+        List<String> findWithRenditions(@Param("fileNames") Collection<String> fileNames);
+
+        // Files acquired recently may be about to be referenced by an in-flight request
+        @Query(value = "SELECT file_name FROM stored_files WHERE file_name IN (:fileNames) AND updated_at > :since", nativeQuery = true)
+        List<String> findRecentlyAcquired(@Param("fileNames") Collection<String> fileNames,
+                        @Param("since") LocalDateTime since);
+
+        // Which of the given upload URLs are still referenced anywhere
+        @Query(value = "SELECT payment_photo_url FROM requisitions WHERE payment_photo_url IN (:urls) "
+                        + "UNION SELECT material_photo_url FROM requisitions WHERE material_photo_url IN (:urls) "
+                        + "UNION SELECT bill_photo_url FROM requisitions WHERE bill_photo_url IN (:urls) "
+                        + "UNION SELECT vendor_payment_details_url FROM requisitions WHERE vendor_payment_details_url IN (:urls) "
+                        + "UNION SELECT file_url FROM attachments WHERE file_url IN (:urls) "
+                        + "UNION SELECT profile_photo_url FROM users WHERE profile_photo_url IN (:urls) "
+                        + "UNION SELECT logo_url FROM organizations WHERE logo_url IN (:urls)", nativeQuery = true)
+        List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
+}
@@ -2,11 +2,42 @@ package com.requisition.repository;
 
 import com.requisition.entity.SyncLog;
 import com.requisition.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SyncLogRepository extends JpaRepository<SyncLog, Long> {
     List<SyncLog> findBySyncedFalseAndUserOrderByCreatedAtAsc(User user);
+
+    // Server change log, in commit order
+    List<SyncLog> findByOrganizationIdAndSeqGreaterThanOrderBySeqAsc(Long organizationId, Long seq,
+            Pageable pageable);
+
+    // Only the latest entry per entity matters to a syncing client
+    @Modifying
+    @Query(value = "DELETE FROM sync_logs s WHERE s.organization_id IS NOT NULL AND EXISTS ("
+            + "SELECT 1 FROM sync_logs n WHERE n.organization_id = s.organization_id "
+            + "AND n.entity_type = s.entity_type AND n.entity_id = s.entity_id AND n.seq > s.seq)",
+            nativeQuery = true)
+    int deleteSuperseded();
+
+    // Clients whose cursor is below the compacted sequence have to reload in full
+    @Modifying
+    @Query(value = "UPDATE organizations o SET sync_compacted_seq = expired.max_seq FROM ("
+            + "SELECT organization_id, MAX(seq) AS max_seq FROM sync_logs "
+            + "WHERE organization_id IS NOT NULL AND created_at < :cutoff GROUP BY organization_id) expired "
+            + "WHERE o.id = expired.organization_id AND expired.max_seq > o.sync_compacted_seq",
+            nativeQuery = true)
+    int advanceCompactedSeq(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query(value = "DELETE FROM sync_logs WHERE organization_id IS NOT NULL AND created_at < :cutoff",
+            nativeQuery = true)
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
 }
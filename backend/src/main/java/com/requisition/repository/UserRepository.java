@@ -1,11 +1,31 @@
 package com.requisition.repository;
 
 import com.requisition.entity.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    List<User> findByOrganizationIdOrderByFullNameAsc(Long organizationId);
+
+    // search is '' for no text filter, otherwise a lower-case LIKE pattern
+    @Query("SELECT u FROM User u WHERE u.organization.id = :organizationId "
+            + "AND (:role IS NULL OR u.role = :role) "
+            + "AND (:search = '' OR LOWER(u.fullName) LIKE :search OR LOWER(u.email) LIKE :search "
+            + "OR LOWER(u.department) LIKE :search)")
+    Page<User> searchInOrganization(@Param("organizationId") Long organizationId,
+            @Param("role") User.UserRole role, @Param("search") String search, Pageable pageable);
 }
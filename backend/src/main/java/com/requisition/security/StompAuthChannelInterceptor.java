@@ -0,0 +1,110 @@
+package com.requisition.security;
+
+import com.requisition.config.StompDestinations;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+/**
+ * Authenticates STOMP sessions with the same JWT the REST API uses (sent as an
+ * {@code Authorization: Bearer ...} header on CONNECT) and checks every
+ * SUBSCRIBE against the session user's organization and role.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor, message));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            Principal user = accessor.getUser();
+            if (!(user instanceof StompPrincipal principal)) {
+                throw new MessageDeliveryException(message, "Not authenticated");
+            }
+            if (!canSubscribe(principal, accessor.getDestination())) {
+                throw new MessageDeliveryException(message, "Not allowed to subscribe to " + accessor.getDestination());
+            }
+        }
+        return message;
+    }
+
+    private StompPrincipal authenticate(StompHeaderAccessor accessor, Message<?> message) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException(message, "Missing bearer token");
+        }
+        String token = authHeader.substring(7);
+        if (!jwtUtil.isTokenValid(token)) {
+            throw new MessageDeliveryException(message, "Invalid token");
+        }
+        User user = userRepository.findById(jwtUtil.extractUserId(token))
+                .orElseThrow(() -> new MessageDeliveryException(message, "User not found"));
+        return new StompPrincipal(user.getId(), user.getOrganization().getId(), user.getRole());
+    }
+
+    boolean canSubscribe(StompPrincipal principal, String destination) {
+        if (destination == null) {
+            return false;
+        }
+        // Resolved to this session's own queue by the user destination handler
+        if (destination.startsWith("/user/queue/")) {
+            return true;
+        }
+        if (!destination.startsWith(StompDestinations.ORG_TOPIC_PREFIX)) {
+            return false;
+        }
+        Long orgId = principal.getOrganizationId();
+        String orgPrefix = StompDestinations.ORG_TOPIC_PREFIX + orgId + "/";
+        if (!destination.startsWith(orgPrefix)) {
+            return false;
+        }
+        User.UserRole role = principal.getRole();
+        boolean admin = role == User.UserRole.ADMIN;
+
+        if (destination.equals(StompDestinations.requisitions(orgId))) {
+            return admin;
+        }
+        if (destination.equals(StompDestinations.pendingApproval(orgId))) {
+            return admin || role == User.UserRole.MANAGER;
+        }
+        if (destination.equals(StompDestinations.awaitingPayment(orgId))) {
+            return admin || role == User.UserRole.ACCOUNTANT;
+        }
+        String requisitionPrefix = orgPrefix + "requisition.";
+        if (destination.startsWith(requisitionPrefix)) {
+            try {
+                Long requisitionId = Long.valueOf(destination.substring(requisitionPrefix.length()));
+                return requisitionRepository.existsByIdAndOrganizationId(requisitionId, orgId);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        // Remaining organization topics are open to every member
+        return true;
+    }
+}
@@ -0,0 +1,24 @@
+package com.requisition.security;
+
+import com.requisition.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+/**
+ * User of an authenticated STOMP session. The name is the user id, which is
+ * what {@code convertAndSendToUser} is called with.
+ */
+@Getter
+@AllArgsConstructor
+public class StompPrincipal implements Principal {
+    private final Long userId;
+    private final Long organizationId;
+    private final User.UserRole role;
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+}
@@ -0,0 +1,302 @@
+package com.requisition.service;
+
+import com.requisition.dto.AttachmentBundleRequest;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.RequisitionAttachment;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionAttachmentRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import com.requisition.storage.StoredObject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds a ZIP of the files attached to a set of requisitions. The archive is
+ * written straight to the response while the requisitions are read from a
+ * database cursor: each file is streamed from storage once, and the manifest
+ * is spooled to a temporary file, so memory use does not grow with the bundle.
+ */
+@Service
+public class AttachmentBundleService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentBundleService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Already compressed; deflating them again costs CPU and saves nothing
+    private static final Set<String> STORED_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png");
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private RequisitionAttachmentRepository attachmentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Getter
+    @AllArgsConstructor
+    public static class BundleQuery {
+        private final Long organizationId;
+        private final List<Long> ids;
+        private final Long requisitionTypeId;
+        private final Requisition.RequisitionStatus status;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Set<String> categories;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BundleEntry {
+        private final Long requisitionId;
+        private final String requestId;
+        private final String category;
+        private final String fileName;
+        private final String fileUrl;
+    }
+
+    /**
+     * Validates the request on the request thread, so an unknown user or status
+     * is still an error response; the rows are read later while streaming.
+     */
+    public BundleQuery resolveQuery(Long userId, AttachmentBundleRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Requisition.RequisitionStatus status = null;
+        if (request.getStatus() != null && !request.getStatus().isBlank()) {
+            try {
+                status = Requisition.RequisitionStatus.valueOf(request.getStatus().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Status " + request.getStatus() + " is not supported");
+            }
+        }
+        LocalDateTime from = request.getFrom() != null ? request.getFrom().atStartOfDay()
+                : LocalDate.of(1970, 1, 1).atStartOfDay();
+        LocalDateTime to = request.getTo() != null ? request.getTo().plusDays(1).atStartOfDay()
+                : LocalDate.of(9999, 1, 1).atStartOfDay();
+        Set<String> categories = request.getCategories() == null ? Set.of()
+                : request.getCategories().stream()
+                        .map(c -> c.trim().toUpperCase(Locale.ROOT))
+                        .collect(Collectors.toSet());
+        List<Long> ids = request.getIds() != null && !request.getIds().isEmpty() ? request.getIds() : null;
+
+        return new BundleQuery(user.getOrganization().getId(), ids, request.getRequisitionTypeId(), status, from, to,
+                categories);
+    }
+
+    /**
+     * Writes the ZIP, ending with a {@code manifest.csv} that lists every file and
+     * whether it was found in storage.
+     */
+    public void writeZip(BundleQuery query, OutputStream out) throws IOException {
+        Path manifest = Files.createTempFile("bundle-manifest-", ".csv");
+        try {
+            ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            int files;
+            try (Writer manifestWriter = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+                manifestWriter.write("request_id,requisition_id,category,path,size_bytes,status\n");
+                TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+                transaction.setReadOnly(true);
+                try {
+                    files = transaction.execute(status -> writeRequisitions(query, zip, manifestWriter));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry("manifest.csv"));
+            Files.copy(manifest, zip);
+            zip.closeEntry();
+            zip.finish();
+            zip.flush();
+            log.debug("Wrote attachment bundle with {} files", files);
+        } finally {
+            Files.deleteIfExists(manifest);
+        }
+    }
+
+    private int writeRequisitions(BundleQuery query, ZipOutputStream zip, Writer manifest) {
+        int files = 0;
+        List<Requisition> chunk = new ArrayList<>(RequisitionRepository.FETCH_SIZE);
+        try (Stream<Requisition> requisitions = query.getIds() != null
+                ? requisitionRepository.streamForExportByIds(query.getOrganizationId(), query.getIds())
+                : requisitionRepository.streamForExport(query.getOrganizationId(), query.getRequisitionTypeId(),
+                        query.getStatus(), query.getFrom(), query.getTo())) {
+            Iterator<Requisition> cursor = requisitions.iterator();
+            while (cursor.hasNext()) {
+                chunk.add(cursor.next());
+                if (chunk.size() == RequisitionRepository.FETCH_SIZE) {
+                    files += writeChunk(chunk, query.getCategories(), zip, manifest);
+                }
+            }
+            files += writeChunk(chunk, query.getCategories(), zip, manifest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return files;
+    }
+
+    private int writeChunk(List<Requisition> chunk, Set<String> categories, ZipOutputStream zip, Writer manifest)
+            throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<RequisitionAttachment>> attachments = attachmentRepository
+                .findByRequisitionIds(chunk.stream().map(Requisition::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(a -> a.getRequisition().getId()));
+
+        int files = 0;
+        for (Requisition req : chunk) {
+            // Every requisition has its own folder, so names only need to be unique within it
+            Set<String> usedPaths = new HashSet<>();
+            for (BundleEntry entry : entriesOf(req, categories, attachments.getOrDefault(req.getId(), List.of()))) {
+                writeEntry(entry, uniquePath(usedPaths, entryPath(entry)), zip, manifest);
+                files++;
+            }
+        }
+        chunk.clear();
+        entityManager.clear(); // written rows must not pile up in the persistence context
+        return files;
+    }
+
+    private List<BundleEntry> entriesOf(Requisition req, Set<String> categories,
+            List<RequisitionAttachment> attachments) {
+        List<BundleEntry> entries = new ArrayList<>();
+        addEntry(entries, categories, req, "PAYMENT", req.getPaymentPhotoUrl());
+        addEntry(entries, categories, req, "MATERIAL", req.getMaterialPhotoUrl());
+        addEntry(entries, categories, req, "BILL", req.getBillPhotoUrl());
+        addEntry(entries, categories, req, "VENDOR_PAYMENT", req.getVendorPaymentDetailsUrl());
+        for (RequisitionAttachment attachment : attachments) {
+            String category = attachment.getCategory() != null ? attachment.getCategory().toString() : "OTHER";
+            if (categories.isEmpty() || categories.contains(category)) {
+                entries.add(new BundleEntry(req.getId(), req.getRequestId(), category,
+                        attachment.getFileName(), attachment.getFileUrl()));
+            }
+        }
+        return entries;
+    }
+
+    private void addEntry(List<BundleEntry> entries, Set<String> categories, Requisition req, String category,
+            String fileUrl) {
+        if (fileUrl == null || fileUrl.isBlank() || (!categories.isEmpty() && !categories.contains(category))) {
+            return;
+        }
+        entries.add(new BundleEntry(req.getId(), req.getRequestId(), category, null, fileUrl));
+    }
+
+    private void writeEntry(BundleEntry entry, String path, ZipOutputStream zip, Writer manifest)
+            throws IOException {
+        Optional<StoredObject> object = fileStorageService.statFile(entry.getFileUrl());
+        if (object.isEmpty()) {
+            appendManifestRow(manifest, entry, path, 0, "missing");
+            return;
+        }
+
+        ZipEntry zipEntry = new ZipEntry(path);
+        zipEntry.setTime(object.get().getLastModified().toEpochMilli());
+        // Deflate without compression rather than STORED: STORED needs the CRC up front,
+        // which would mean reading the file twice
+        zip.setLevel(STORED_EXTENSIONS.contains(extensionOf(path))
+                ? Deflater.NO_COMPRESSION
+                : Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(zipEntry);
+        try (InputStream in = fileStorageService.openFile(entry.getFileUrl())) {
+            in.transferTo(zip);
+        }
+        zip.closeEntry();
+        appendManifestRow(manifest, entry, path, object.get().getSize(), "included");
+    }
+
+    private String entryPath(BundleEntry entry) {
+        String storedName = entry.getFileUrl().substring(entry.getFileUrl().lastIndexOf('/') + 1);
+        String name = entry.getFileName() != null && !entry.getFileName().isBlank() ? entry.getFileName() : storedName;
+        String folder = entry.getRequestId() != null ? entry.getRequestId() : "requisition-" + entry.getRequisitionId();
+        return sanitize(folder) + "/" + entry.getCategory().toLowerCase(Locale.ROOT) + "/" + sanitize(name);
+    }
+
+    private String uniquePath(Set<String> usedPaths, String path) {
+        String candidate = path;
+        int i = 1;
+        while (!usedPaths.add(candidate)) {
+            int dot = path.lastIndexOf('.');
+            candidate = dot > path.lastIndexOf('/')
+                    ? path.substring(0, dot) + " (" + i + ")" + path.substring(dot)
+                    : path + " (" + i + ")";
+            i++;
+        }
+        return candidate;
+    }
+
+    // Request ids contain slashes (ORB/25/P00001); keep every entry one folder deep
+    private String sanitize(String name) {
+        return name.replaceAll("[\\\\/:*?\"<>|]", "-");
+    }
+
+    private String extensionOf(String path) {
+        int i = path.lastIndexOf('.');
+        return i > path.lastIndexOf('/') ? path.substring(i).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private void appendManifestRow(Writer manifest, BundleEntry entry, String path, long size, String status)
+            throws IOException {
+        manifest.append(csv(entry.getRequestId())).append(',')
+                .append(String.valueOf(entry.getRequisitionId())).append(',')
+                .append(entry.getCategory()).append(',')
+                .append(csv(path)).append(',')
+                .append(String.valueOf(size)).append(',')
+                .append(status).append('\n');
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,229 @@
+package com.requisition.service;
+
+import com.requisition.dto.AttachmentDTO;
+import com.requisition.dto.AttachmentUpdateDTO;
+import com.requisition.dto.PageResponse;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.RequisitionAttachment;
+import com.requisition.entity.SyncLog;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionAttachmentRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Multiple files per requisition and category, stored as attachments rather than
+ * in the single URL columns on the requisition row. Listing is paginated and
+ * list views only carry counts.
+ */
+@Service
+@Transactional
+public class AttachmentService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private RequisitionAttachmentRepository attachmentRepository;
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FileStorageService fileStorageService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SyncLogService syncLogService;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private TaskExecutor uploadExecutor;
+
+    @Value("${app.uploads.attachments.max-batch:20}")
+    private int maxBatch;
+
+    public List<AttachmentDTO> uploadAttachments(Long requisitionId, Long userId, String category,
+            List<MultipartFile> files) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Requisition req = requisitionRepository.findByIdAndOrganization(requisitionId, user.getOrganization())
+                .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        RequisitionAttachment.AttachmentCategory attachmentCategory = parseCategory(category);
+
+        if (files == null || files.isEmpty()) {
+            throw new RuntimeException("No files to upload");
+        }
+        if (files.size() > maxBatch) {
+            throw new RuntimeException("Too many files: at most " + maxBatch + " per upload");
+        }
+
+        List<String> storedNames = storeAll(files);
+
+        List<RequisitionAttachment> attachments = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            RequisitionAttachment attachment = new RequisitionAttachment();
+            attachment.setRequisition(req);
+            attachment.setFileName(org.springframework.util.StringUtils.cleanPath(file.getOriginalFilename()));
+            attachment.setFileUrl("/uploads/" + storedNames.get(i));
+            attachment.setFileSize(file.getSize());
+            attachment.setCategory(attachmentCategory);
+            attachment.setUploadedBy(user);
+            attachment.setUploadedAt(LocalDateTime.now());
+            attachments.add(attachment);
+        }
+        attachmentRepository.saveAll(attachments);
+
+        List<AttachmentDTO> added = convertToDTOs(attachments);
+        recordChange(req, user);
+        notifyChanged(req, added, List.of());
+        return added;
+    }
+
+    /**
+     * Stores the files concurrently on the upload executor. If any file fails,
+     * the ones already stored are left to the upload collector, which removes
+     * files nothing refers to.
+     */
+    private List<String> storeAll(List<MultipartFile> files) {
+        List<CompletableFuture<String>> futures = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> fileStorageService.storeFile(file), uploadExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponse<AttachmentDTO> getAttachments(Long requisitionId, Long userId, String category,
+            int page, int size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        requisitionRepository.findByIdAndOrganization(requisitionId, user.getOrganization())
+                .orElseThrow(() -> new RuntimeException("Requisition not found"));
+
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(Sort.Direction.DESC, "uploadedAt").and(Sort.by(Sort.Direction.DESC, "id")));
+        Page<RequisitionAttachment> attachments = category == null || category.isBlank()
+                ? attachmentRepository.findByRequisitionId(requisitionId, pageable)
+                : attachmentRepository.findByRequisitionIdAndCategory(requisitionId, parseCategory(category),
+                        pageable);
+        Map<String, String> thumbnails = thumbnails(attachments.getContent());
+        return PageResponse.of(attachments.map(attachment -> convertToDTO(attachment, thumbnails)));
+    }
+
+    public void deleteAttachment(Long requisitionId, Long attachmentId, Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Requisition req = requisitionRepository.findByIdAndOrganization(requisitionId, user.getOrganization())
+                .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        RequisitionAttachment attachment = attachmentRepository.findByIdAndRequisitionId(attachmentId, requisitionId)
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+
+        boolean isUploader = attachment.getUploadedBy() != null && attachment.getUploadedBy().getId().equals(userId);
+        if (!isUploader && user.getRole() != User.UserRole.ADMIN) {
+            throw new RuntimeException("Unauthorized to delete this attachment");
+        }
+
+        attachmentRepository.delete(attachment);
+        recordChange(req, user);
+        notifyChanged(req, List.of(), List.of(attachmentId));
+    }
+
+    /**
+     * Attachment counts for a page of requisitions, keyed by requisition id.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countByRequisitionIds(Collection<Long> requisitionIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (requisitionIds.isEmpty()) {
+            return counts;
+        }
+        for (Object[] row : attachmentRepository.countByRequisitionIds(requisitionIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByCategory(Long requisitionId) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : attachmentRepository.countByCategory(requisitionId)) {
+            counts.put(row[0] != null ? row[0].toString() : "UNCATEGORIZED", (Long) row[1]);
+        }
+        return counts;
+    }
+
+    // New requisition version and change log entry, so ETags and delta sync see the new attachment count
+    private void recordChange(Requisition req, User user) {
+        requisitionRepository.incrementVersion(req.getId());
+        syncLogService.record(req, SyncLog.SyncOperation.UPDATE,
+                Map.of("attachmentCount", attachmentRepository.countByRequisitionId(req.getId())), user);
+    }
+
+    private void notifyChanged(Requisition req, List<AttachmentDTO> added, List<Long> removedIds) {
+        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
+        if (orgId != null) {
+            AttachmentUpdateDTO update = new AttachmentUpdateDTO(req.getId(),
+                    attachmentRepository.countByRequisitionId(req.getId()), added, removedIds);
+            eventPublisher.publishEvent(new AttachmentsChangedEvent(orgId, update));
+        }
+    }
+
+    private RequisitionAttachment.AttachmentCategory parseCategory(String category) {
+        try {
+            // Accept the upload type names used by the single-file endpoint too
+            return RequisitionAttachment.AttachmentCategory.valueOf(category.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Invalid attachment category: " + category);
+        }
+    }
+
+    private List<AttachmentDTO> convertToDTOs(List<RequisitionAttachment> attachments) {
+        Map<String, String> thumbnails = thumbnails(attachments);
+        return attachments.stream().map(attachment -> convertToDTO(attachment, thumbnails)).toList();
+    }
+
+    private Map<String, String> thumbnails(List<RequisitionAttachment> attachments) {
+        return fileStorageService.renditionUrls(attachments.stream().map(RequisitionAttachment::getFileUrl).toList(),
+                FileStorageService.Rendition.THUMBNAIL);
+    }
+
+    private AttachmentDTO convertToDTO(RequisitionAttachment attachment, Map<String, String> thumbnails) {
+        return new AttachmentDTO(
+                attachment.getId(),
+                attachment.getFileName(),
+                attachment.getFileUrl(),
+                attachment.getFileUrl() != null ? thumbnails.get(attachment.getFileUrl()) : null,
+                attachment.getFileSize(),
+                attachment.getCategory() != null ? attachment.getCategory().toString() : null,
+                attachment.getUploadedAt(),
+                attachment.getUploadedBy() != null ? attachment.getUploadedBy().getFullName() : null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.requisition.service;
+
+import com.requisition.dto.AttachmentUpdateDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link AttachmentService} inside the transaction that added or
+ * removed attachments; broadcast to clients only after that transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class AttachmentsChangedEvent {
+    private final Long organizationId;
+    private final AttachmentUpdateDTO update;
+}
@@ -0,0 +1,315 @@
+package com.requisition.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.dto.BatchMutationRequest;
+import com.requisition.dto.BatchMutationResultDTO;
+import com.requisition.dto.MutationOperation;
+import com.requisition.dto.MutationResultDTO;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.entity.IdempotencyKey;
+import com.requisition.exception.ConflictException;
+import com.requisition.repository.IdempotencyKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a client's queued offline changes in one transaction. Operations
+ * already applied by an earlier request (a retry after a lost response) are
+ * answered from the idempotency table instead of being applied again. The
+ * server id of a requisition created offline is kept per user under its client
+ * id, so operations in later batches can still refer to it by that id.
+ */
+@Service
+public class BatchMutationService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchMutationService.class);
+
+    public static final int MAX_OPERATIONS = 500;
+
+    private static final Set<String> TYPES = Set.of(MutationOperation.CREATE, MutationOperation.UPDATE,
+            MutationOperation.SUBMIT, MutationOperation.DELETE);
+
+    @Autowired
+    private RequisitionService requisitionService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.sync.idempotency-ttl:P7D}")
+    private Duration idempotencyTtl;
+
+    private static class BatchFailedException extends RuntimeException {
+        private final List<MutationResultDTO> results;
+
+        BatchFailedException(List<MutationResultDTO> results) {
+            super("Batch rolled back");
+            this.results = results;
+        }
+    }
+
+    public BatchMutationResultDTO apply(Long userId, BatchMutationRequest request) {
+        List<MutationOperation> operations = request.getOperations() != null ? request.getOperations() : List.of();
+        validate(operations);
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            List<MutationResultDTO> results = transaction.execute(status -> applyAll(userId, operations));
+            return new BatchMutationResultDTO(true, results);
+        } catch (BatchFailedException e) {
+            return new BatchMutationResultDTO(false, e.results);
+        } catch (DataIntegrityViolationException e) {
+            // The same operation ids committed concurrently; the retry will see them as duplicates
+            throw new ConflictException("Batch conflict: operations are already being applied");
+        }
+    }
+
+    private List<MutationResultDTO> applyAll(Long userId, List<MutationOperation> operations) {
+        Map<String, MutationResultDTO> previous = findApplied(userId, operations);
+
+        // Requisitions created offline, by client id: from earlier batches, then from this one
+        Map<String, Long> serverIds = findServerIds(userId, operations);
+        List<MutationResultDTO> results = new ArrayList<>();
+        List<MutationResultDTO> applied = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            MutationOperation op = operations.get(i);
+            MutationResultDTO earlier = previous.get(op.getOperationId());
+            if (earlier != null) {
+                earlier.setStatus(MutationResultDTO.DUPLICATE);
+                remember(serverIds, earlier);
+                results.add(earlier);
+                continue;
+            }
+            try {
+                MutationResultDTO result = applyOne(userId, op, serverIds);
+                remember(serverIds, result);
+                results.add(result);
+                applied.add(result);
+            } catch (RuntimeException e) {
+                throw new BatchFailedException(failedResults(operations, results, i, e));
+            }
+        }
+
+        storeApplied(userId, applied);
+        storeServerIds(userId, applied);
+        return results;
+    }
+
+    private MutationResultDTO applyOne(Long userId, MutationOperation op, Map<String, Long> serverIds) {
+        MutationResultDTO result = new MutationResultDTO(op.getOperationId(), op.getType(), op.getClientId(), null,
+                null, MutationResultDTO.APPLIED, null);
+        if (MutationOperation.CREATE.equals(op.getType())) {
+            RequisitionDTO created = requisitionService.createRequisition(userId, op.getData());
+            result.setRequisitionId(created.getId());
+            result.setVersion(created.getVersion());
+            return result;
+        }
+
+        Long id = resolveId(op, serverIds);
+        result.setRequisitionId(id);
+        switch (op.getType()) {
+            case MutationOperation.UPDATE -> result.setVersion(
+                    requisitionService.updateRequisition(id, userId, op.getData()).getVersion());
+            case MutationOperation.SUBMIT -> requisitionService.submitRequisition(id, userId);
+            case MutationOperation.DELETE -> requisitionService.deleteRequisition(id, userId);
+            default -> throw new RuntimeException("Operation type not supported: " + op.getType());
+        }
+        return result;
+    }
+
+    private Long resolveId(MutationOperation op, Map<String, Long> serverIds) {
+        if (op.getRequisitionId() != null) {
+            return op.getRequisitionId();
+        }
+        Long id = op.getClientId() != null ? serverIds.get(op.getClientId()) : null;
+        if (id == null) {
+            throw new RuntimeException("Requisition not found for client id " + op.getClientId());
+        }
+        return id;
+    }
+
+    private Map<String, Long> findServerIds(Long userId, List<MutationOperation> operations) {
+        List<String> clientIds = operations.stream()
+                .filter(op -> !MutationOperation.CREATE.equals(op.getType()))
+                .filter(op -> op.getRequisitionId() == null && op.getClientId() != null)
+                .map(MutationOperation::getClientId)
+                .distinct()
+                .toList();
+        Map<String, Long> serverIds = new HashMap<>();
+        if (clientIds.isEmpty()) {
+            return serverIds;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(clientIds.size(), "?"));
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        args.addAll(clientIds);
+        jdbcTemplate.query("SELECT client_id, requisition_id FROM client_requisition_ids WHERE user_id = ? "
+                + "AND client_id IN (" + placeholders + ")", (ResultSet rs) -> {
+                    serverIds.put(rs.getString("client_id"), rs.getLong("requisition_id"));
+                }, args.toArray());
+        return serverIds;
+    }
+
+    // Committed with the creates, so a later batch sees the mapping exactly when it sees the requisition
+    private void storeServerIds(Long userId, List<MutationResultDTO> applied) {
+        List<Object[]> rows = new ArrayList<>();
+        for (MutationResultDTO result : applied) {
+            if (MutationOperation.CREATE.equals(result.getType()) && result.getClientId() != null) {
+                rows.add(new Object[] { userId, result.getClientId(), result.getRequisitionId() });
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO client_requisition_ids (user_id, client_id, requisition_id) "
+                + "VALUES (?, ?, ?) ON CONFLICT (user_id, client_id) DO UPDATE "
+                + "SET requisition_id = EXCLUDED.requisition_id", rows);
+    }
+
+    private void remember(Map<String, Long> serverIds, MutationResultDTO result) {
+        if (result.getClientId() != null && result.getRequisitionId() != null) {
+            serverIds.put(result.getClientId(), result.getRequisitionId());
+        }
+    }
+
+    private List<MutationResultDTO> failedResults(List<MutationOperation> operations,
+            List<MutationResultDTO> done, int failedIndex, RuntimeException error) {
+        List<MutationResultDTO> results = new ArrayList<>();
+        for (MutationResultDTO result : done) {
+            if (MutationResultDTO.APPLIED.equals(result.getStatus())) {
+                results.add(new MutationResultDTO(result.getOperationId(), result.getType(), result.getClientId(),
+                        null, null, MutationResultDTO.ROLLED_BACK, null));
+            } else {
+                results.add(result);
+            }
+        }
+        MutationOperation failed = operations.get(failedIndex);
+        results.add(new MutationResultDTO(failed.getOperationId(), failed.getType(), failed.getClientId(),
+                failed.getRequisitionId(), null, MutationResultDTO.FAILED, error.getMessage()));
+        for (MutationOperation op : operations.subList(failedIndex + 1, operations.size())) {
+            results.add(new MutationResultDTO(op.getOperationId(), op.getType(), op.getClientId(),
+                    op.getRequisitionId(), null, MutationResultDTO.SKIPPED, null));
+        }
+        return results;
+    }
+
+    private Map<String, MutationResultDTO> findApplied(Long userId, List<MutationOperation> operations) {
+        List<String> keys = operations.stream().map(op -> key(userId, op.getOperationId())).toList();
+        Map<String, MutationResultDTO> applied = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (IdempotencyKey key : idempotencyKeyRepository.findAllById(keys)) {
+            if (key.getExpiresAt().isAfter(now)) {
+                MutationResultDTO result = read(key.getResult());
+                if (result != null) {
+                    applied.put(result.getOperationId(), result);
+                }
+            }
+        }
+        return applied;
+    }
+
+    // One JDBC batch for all keys, committed with the operations themselves
+    private void storeApplied(Long userId, List<MutationResultDTO> applied) {
+        if (applied.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        Timestamp expiresAt = Timestamp.valueOf(now.plus(idempotencyTtl));
+        List<Object[]> rows = new ArrayList<>();
+        for (MutationResultDTO result : applied) {
+            rows.add(new Object[] { key(userId, result.getOperationId()), userId, write(result), createdAt,
+                    expiresAt });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO idempotency_keys (idempotency_key, user_id, result, created_at, "
+                + "expires_at) VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void validate(List<MutationOperation> operations) {
+        if (operations.isEmpty()) {
+            throw new RuntimeException("Empty batch not supported");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new RuntimeException("Batches over " + MAX_OPERATIONS + " operations are not supported");
+        }
+        Set<String> seen = new HashSet<>();
+        for (MutationOperation op : operations) {
+            if (op.getOperationId() == null || op.getOperationId().isBlank() || op.getOperationId().length() > 64) {
+                throw new RuntimeException("Operation without a valid operationId not supported");
+            }
+            if (op.getClientId() != null && (op.getClientId().isBlank() || op.getClientId().length() > 64)) {
+                throw new RuntimeException("Operation with an invalid clientId not supported");
+            }
+            if (!seen.add(op.getOperationId())) {
+                throw new RuntimeException("Repeated operationId in one batch not supported: " + op.getOperationId());
+            }
+            if (op.getType() == null || !TYPES.contains(op.getType())) {
+                throw new RuntimeException("Operation type not supported: " + op.getType());
+            }
+            boolean needsData = MutationOperation.CREATE.equals(op.getType())
+                    || MutationOperation.UPDATE.equals(op.getType());
+            if (needsData && op.getData() == null) {
+                throw new RuntimeException(op.getType() + " without data not supported");
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.compaction-interval-ms:3600000}",
+            fixedDelayString = "${app.sync.compaction-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private String key(Long userId, String operationId) {
+        return userId + ":" + operationId;
+    }
+
+    private String write(MutationResultDTO result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not store operation result", e);
+        }
+    }
+
+    private MutationResultDTO read(String json) {
+        try {
+            return objectMapper.readValue(json, MutationResultDTO.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
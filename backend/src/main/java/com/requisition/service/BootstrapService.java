@@ -0,0 +1,124 @@
+package com.requisition.service;
+
+import com.requisition.dto.BootstrapDTO;
+import com.requisition.dto.DashboardStatsDTO;
+import com.requisition.dto.OrganizationDTO;
+import com.requisition.dto.RequisitionCardDTO;
+import com.requisition.dto.RequisitionTypeDTO;
+import com.requisition.dto.UserDTO;
+import com.requisition.entity.Organization;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.RequisitionType;
+import com.requisition.entity.User;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.RequisitionTypeRepository;
+import com.requisition.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the app's first screen in one request: the caller, their
+ * organization, the requisition types with stats and the newest cards for each,
+ * and the number of requisitions waiting for approval. The user is loaded once;
+ * the remaining reads run in parallel, each in its own read-only transaction.
+ */
+@Service
+public class BootstrapService {
+
+    public static final int MAX_CARDS_PER_TYPE = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private RequisitionTypeRepository typeRepository;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("bootstrapExecutor")
+    private TaskExecutor bootstrapExecutor;
+
+    @Value("${app.bootstrap.cards-per-type:20}")
+    private int defaultCardsPerType;
+
+    public BootstrapDTO load(Long userId, Integer cardsPerType) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Organization organization = user.getOrganization();
+        Long orgId = organization.getId();
+        int limit = Math.min(Math.max(cardsPerType != null ? cardsPerType : defaultCardsPerType, 1),
+                MAX_CARDS_PER_TYPE);
+
+        long cursor = organizationRepository.findChangeSeq(orgId);
+        List<RequisitionType> types = typeRepository.findAll(Sort.by("id"));
+        List<Long> typeIds = types.stream().map(RequisitionType::getId).toList();
+
+        CompletableFuture<OrganizationDTO> org = read(() -> organizationService.getOrganizationDetails(orgId));
+        CompletableFuture<Map<Long, DashboardStatsDTO>> stats = read(
+                () -> dashboardService.getDashboardStatsByType(orgId, typeIds));
+        CompletableFuture<Long> pendingApproval = read(() -> requisitionRepository
+                .countByOrganizationIdAndStatus(orgId, Requisition.RequisitionStatus.SUBMITTED));
+        Map<Long, CompletableFuture<List<RequisitionCardDTO>>> cards = new LinkedHashMap<>();
+        for (Long typeId : typeIds) {
+            cards.put(typeId, read(() -> dashboardService.getRequisitionsByType(organization, typeId, limit)));
+        }
+
+        List<CompletableFuture<?>> all = new ArrayList<>(List.of(org, stats, pendingApproval));
+        all.addAll(cards.values());
+        try {
+            CompletableFuture.allOf(all.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        Map<Long, List<RequisitionCardDTO>> cardsByType = new LinkedHashMap<>();
+        cards.forEach((typeId, future) -> cardsByType.put(typeId, future.join()));
+        return new BootstrapDTO(convertToDTO(user), org.join(),
+                types.stream().map(type -> new RequisitionTypeDTO(type.getId(), type.getName(), type.getDescription()))
+                        .toList(),
+                stats.join(), cardsByType, pendingApproval.join(), cursor);
+    }
+
+    private <T> CompletableFuture<T> read(Supplier<T> query) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return CompletableFuture.supplyAsync(() -> transaction.execute(status -> query.get()), bootstrapExecutor);
+    }
+
+    private UserDTO convertToDTO(User user) {
+        return new UserDTO(
+                user.getId(),
+                user.getEmail(),
+                user.getFullName(),
+                user.getRole().toString(),
+                user.getDesignation(),
+                user.getDepartment(),
+                user.getProfilePhotoUrl(),
+                user.getOrganization().getId(),
+                user.getOrganization().getName(),
+                user.isActive());
+    }
+}
@@ -0,0 +1,53 @@
+package com.requisition.service;
+
+import com.requisition.dto.ConditionalGetStatsDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers conditional GETs from a cheaply computed ETag and counts, per
+ * endpoint, how many requests it saved from loading and mapping entities.
+ */
+@Component
+public class ConditionalGetTracker {
+
+    private static class Counters {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong notModified = new AtomicLong();
+    }
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the ETag on the response and returns true when the client's copy is
+     * current; the controller then returns without a body and the client gets 304.
+     *
+     * The tag is sent weak: it names the data, not the bytes, and Tomcat only
+     * gzips responses whose ETag is weak.
+     */
+    public boolean notModified(WebRequest request, String endpoint, String tag) {
+        Counters endpointCounters = counters.computeIfAbsent(endpoint, key -> new Counters());
+        endpointCounters.requests.incrementAndGet();
+        if (request.checkNotModified("W/\"" + tag + "\"")) {
+            endpointCounters.notModified.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, ConditionalGetStatsDTO> getStats() {
+        Map<String, ConditionalGetStatsDTO> stats = new TreeMap<>();
+        counters.forEach((endpoint, c) -> {
+            long requests = c.requests.get();
+            long notModified = c.notModified.get();
+            stats.put(endpoint, new ConditionalGetStatsDTO(requests, notModified,
+                    requests > 0 ? (double) notModified / requests : 0));
+        });
+        return stats;
+    }
+}
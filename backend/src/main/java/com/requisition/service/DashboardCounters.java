@@ -0,0 +1,89 @@
+package com.requisition.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which dashboard counters (named after the {@code DashboardStatsDTO} fields) a
+ * requisition counts towards, and how they move when it changes. Used for the
+ * pushed deltas and for the periodic snapshot, so both agree with each other.
+ */
+final class DashboardCounters {
+
+    static final List<String> ALL = List.of("draftCount", "pendingCount", "approvedCount", "paidCount",
+            "rejectedCount", "dispatchedCount", "totalCount");
+
+    private DashboardCounters() {
+    }
+
+    static List<String> of(String approvalStatus, String paymentStatus, String dispatchStatus) {
+        List<String> counters = new ArrayList<>();
+        counters.add("totalCount");
+        if ("PENDING".equals(approvalStatus)) {
+            // Draft mirrors pending, as in DashboardService.getDashboardStats
+            counters.add("draftCount");
+            counters.add("pendingCount");
+        } else if ("APPROVED".equals(approvalStatus)) {
+            counters.add("approvedCount");
+        } else if ("REJECTED".equals(approvalStatus)) {
+            counters.add("rejectedCount");
+        }
+        if ("DONE".equals(paymentStatus)) {
+            counters.add("paidCount");
+        }
+        if ("DISPATCHED".equals(dispatchStatus)) {
+            counters.add("dispatchedCount");
+        }
+        return counters;
+    }
+
+    /**
+     * Counter changes between two {@link RequisitionSnapshots} of one requisition;
+     * {@code null} before means created, {@code null} after means deleted.
+     */
+    static Map<String, Integer> deltas(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        if (before != null) {
+            of(before).forEach(counter -> deltas.merge(counter, -1, Integer::sum));
+        }
+        if (after != null) {
+            of(after).forEach(counter -> deltas.merge(counter, 1, Integer::sum));
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        return deltas;
+    }
+
+    /**
+     * Folds rows of {@code RequisitionRepository.countStatusCombinations} into
+     * counters per type; every type in {@code typeIds} is present, zero if empty.
+     */
+    static Map<Long, Map<String, Long>> fold(Collection<Long> typeIds, List<Object[]> rows) {
+        Map<Long, Map<String, Long>> byType = new LinkedHashMap<>();
+        for (Long typeId : typeIds) {
+            Map<String, Long> counters = new LinkedHashMap<>();
+            ALL.forEach(counter -> counters.put(counter, 0L));
+            byType.put(typeId, counters);
+        }
+        for (Object[] row : rows) {
+            Map<String, Long> counters = byType.get((Long) row[0]);
+            if (counters == null) {
+                continue;
+            }
+            long count = ((Number) row[4]).longValue();
+            of(name(row[1]), name(row[2]), name(row[3])).forEach(counter -> counters.merge(counter, count, Long::sum));
+        }
+        return byType;
+    }
+
+    private static String name(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static List<String> of(Map<String, Object> snapshot) {
+        return of((String) snapshot.get("approvalStatus"), (String) snapshot.get("paymentStatus"),
+                (String) snapshot.get("dispatchStatus"));
+    }
+}
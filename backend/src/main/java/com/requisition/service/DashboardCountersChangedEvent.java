@@ -0,0 +1,18 @@
+package com.requisition.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Dashboard counter deltas of one requisition change, pushed to clients after
+ * the producing transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class DashboardCountersChangedEvent {
+    private final Long organizationId;
+    private final Long typeId;
+    private final Map<String, Integer> deltas;
+}
@@ -6,8 +6,9 @@ import com.requisition.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -21,6 +22,12 @@ public class DashboardService {
         private RequisitionAttachmentRepository attachmentRepository;
         @Autowired
         private ApprovalRepository approvalRepository;
+        @Autowired
+        private AttachmentService attachmentService;
+        @Autowired
+        private RequisitionProjections requisitionProjections;
+        @Autowired
+        private UserRoster userRoster;
 
         public DashboardStatsDTO getDashboardStats(Organization organization, Long requisitionTypeId) {
                 RequisitionType type = typeRepository.findById(requisitionTypeId)
@@ -41,19 +48,47 @@ public class DashboardService {
                 stats.setRejectedCount(
                                 requisitionRepository.countByOrganizationAndTypeAndApprovalStatus(organization, type,
                                                 Requisition.ApprovalStatus.REJECTED));
+                stats.setDispatchedCount(requisitionRepository.countByOrganizationAndTypeAndDispatchStatus(organization,
+                                type, Requisition.DispatchStatus.DISPATCHED));
                 stats.setTotalCount(requisitionRepository.countByOrganizationAndType(organization, type));
 
                 return stats;
         }
 
         public List<RequisitionCardDTO> getRequisitionsByType(Organization organization, Long requisitionTypeId) {
-                RequisitionType type = typeRepository.findById(requisitionTypeId)
-                                .orElseThrow(() -> new RuntimeException("Type not found"));
+                return getRequisitionsByType(organization, requisitionTypeId, 0);
+        }
 
-                return requisitionRepository.findByOrganizationAndTypeOrderByCreatedAtDesc(organization, type)
-                                .stream()
-                                .map(this::convertToCardDTO)
-                                .collect(Collectors.toList());
+        // Newest first, at most limit cards (0 for all); selects only the card columns
+        public List<RequisitionCardDTO> getRequisitionsByType(Organization organization, Long requisitionTypeId,
+                        int limit) {
+                if (!typeRepository.existsById(requisitionTypeId)) {
+                        throw new RuntimeException("Type not found");
+                }
+                return requisitionProjections.cards(organization.getId(), requisitionTypeId, limit);
+        }
+
+        public List<Map<String, Object>> getRequisitionFieldsByType(Organization organization, Long requisitionTypeId,
+                        List<String> fields) {
+                if (!typeRepository.existsById(requisitionTypeId)) {
+                        throw new RuntimeException("Type not found");
+                }
+                return requisitionProjections.select(organization.getId(), requisitionTypeId, fields, 0);
+        }
+
+        /**
+         * Stats for every type from one grouped query, counted the same way as
+         * {@link #getDashboardStats}.
+         */
+        public Map<Long, DashboardStatsDTO> getDashboardStatsByType(Long organizationId, List<Long> typeIds) {
+                Map<Long, DashboardStatsDTO> statsByType = new LinkedHashMap<>();
+                DashboardCounters.fold(typeIds, requisitionRepository.countStatusCombinations(organizationId))
+                                .forEach((typeId, counters) -> statsByType.put(typeId, new DashboardStatsDTO(
+                                                counters.get("draftCount"), counters.get("pendingCount"),
+                                                counters.get("approvedCount"), counters.get("paidCount"),
+                                                counters.get("rejectedCount"), counters.get("totalCount"),
+                                                counters.get("dispatchedCount"))));
+                return statsByType;
         }
 
         public RequisitionDetailDTO getRequisitionDetail(Organization organization, Long requisitionId) {
@@ -113,13 +148,9 @@ public class DashboardService {
                         detail.setDispatchedByName(req.getDispatchedBy().getFullName());
                 }
 
-                // Names for status timeline
-                if (req.getApprovedBy() != null) {
-                        detail.setApprovedByName(req.getApprovedBy().getFullName());
-                }
-                if (req.getPaidBy() != null) {
-                        detail.setPaidByName(req.getPaidBy().getFullName());
-                }
+                // Names for status timeline, from the roster instead of loading each user
+                detail.setApprovedByName(userName(organization, req.getApprovedBy()));
+                detail.setPaidByName(userName(organization, req.getPaidBy()));
 
                 detail.setCreatedAt(req.getCreatedAt());
                 detail.setUpdatedAt(req.getUpdatedAt());
@@ -127,30 +158,16 @@ public class DashboardService {
                 detail.setApprovedAt(req.getApprovedAt());
                 detail.setPaidAt(req.getPaidAt());
                 detail.setDispatchedAt(req.getDispatchedAt());
+                detail.setAttachmentCounts(attachmentService.countByCategory(req.getId()));
 
                 return detail;
         }
 
-        private RequisitionCardDTO convertToCardDTO(Requisition req) {
-                RequisitionCardDTO card = new RequisitionCardDTO();
-                card.setId(req.getId());
-                card.setRequestId(req.getRequestId());
-                card.setType(req.getType().getName());
-                card.setDescription(req.getDescription());
-                card.setDescription(req.getDescription());
-                card.setAmount(req.getAmount());
-                card.setStatus(req.getStatus().toString());
-                card.setStatus(req.getStatus().toString());
-                card.setApprovalStatus(req.getApprovalStatus().toString());
-                card.setPaymentStatus(req.getPaymentStatus().toString());
-                card.setDispatchStatus(req.getDispatchStatus().toString());
-                card.setPriority(req.getPriority().toString());
-                card.setCardSubtitleInfo(req.getCardSubtitleInfo());
-                card.setCreatedByName(req.getCreatedBy().getFullName());
-                card.setCreatedAt(req.getCreatedAt());
-                card.setSiteAddress(req.getSiteAddress());
-                card.setVendorName(req.getVendorName());
-                card.setMaterialDescription(req.getMaterialDescription());
-                return card;
+        private String userName(Organization organization, User user) {
+                if (user == null) {
+                        return null;
+                }
+                UserSummaryDTO summary = userRoster.find(organization.getId(), user.getId());
+                return summary != null ? summary.getFullName() : user.getFullName();
         }
 }
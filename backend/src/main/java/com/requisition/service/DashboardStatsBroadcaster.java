@@ -0,0 +1,95 @@
+package com.requisition.service;
+
+import com.requisition.config.StompDestinations;
+import com.requisition.dto.DashboardStatsUpdateDTO;
+import com.requisition.entity.RequisitionType;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.RequisitionTypeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps dashboard counters current on clients without stats queries: every
+ * status change is pushed as counter deltas, and organizations with a stats
+ * subscriber on this node periodically get a full snapshot that corrects any
+ * drift (missed messages, reconnects).
+ */
+@Component
+public class DashboardStatsBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsBroadcaster.class);
+
+    private static final Pattern STATS_DESTINATION = Pattern.compile("^/topic/org\\.(\\d+)/stats$");
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private RequisitionTypeRepository typeRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCountersChanged(DashboardCountersChangedEvent event) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        event.getDeltas().forEach((counter, delta) -> counters.put(counter, delta.longValue()));
+        try {
+            messagingTemplate.convertAndSend(StompDestinations.stats(event.getOrganizationId()),
+                    new DashboardStatsUpdateDTO(DashboardStatsUpdateDTO.DELTA, event.getTypeId(), counters));
+        } catch (RuntimeException e) {
+            log.warn("Could not push dashboard deltas for organization {}: {}", event.getOrganizationId(),
+                    e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.websocket.stats-snapshot-interval-ms:60000}",
+            fixedDelayString = "${app.websocket.stats-snapshot-interval-ms:60000}")
+    public void pushSnapshots() {
+        Set<Long> organizationIds = subscribedOrganizations();
+        if (organizationIds.isEmpty()) {
+            return;
+        }
+        List<Long> typeIds = typeRepository.findAll().stream().map(RequisitionType::getId).toList();
+        for (Long orgId : organizationIds) {
+            try {
+                Map<Long, Map<String, Long>> byType = DashboardCounters.fold(typeIds,
+                        requisitionRepository.countStatusCombinations(orgId));
+                byType.forEach((typeId, counters) -> messagingTemplate.convertAndSend(StompDestinations.stats(orgId),
+                        new DashboardStatsUpdateDTO(DashboardStatsUpdateDTO.SNAPSHOT, typeId, counters)));
+            } catch (RuntimeException e) {
+                log.warn("Could not push dashboard snapshot for organization {}: {}", orgId, e.getMessage());
+            }
+        }
+    }
+
+    private Set<Long> subscribedOrganizations() {
+        return userRegistry.findSubscriptions(subscription -> STATS_DESTINATION
+                .matcher(subscription.getDestination()).matches())
+                .stream()
+                .map(subscription -> {
+                    Matcher matcher = STATS_DESTINATION.matcher(subscription.getDestination());
+                    matcher.matches();
+                    return Long.valueOf(matcher.group(1));
+                })
+                .collect(Collectors.toSet());
+    }
+}
@@ -1,14 +1,18 @@
 package com.requisition.service;
 
 import com.requisition.entity.Requisition;
+import com.requisition.entity.SyncLog;
 import com.requisition.entity.User;
 import com.requisition.repository.RequisitionRepository;
 import com.requisition.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -20,22 +24,51 @@ public class DispatchService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SyncLogService syncLogService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void markAsDispatched(Long requisitionId, Long userId) {
+        optimisticRetry.run(FieldGroup.DISPATCH, baseline -> {
+            dispatch(requisitionId, userId, baseline);
+            return null;
+        });
+    }
+
+    private void dispatch(Long requisitionId, Long userId, OptimisticRetry.Baseline baseline) {
         User purchaser = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition requisition = requisitionRepository.findByIdAndOrganization(requisitionId,
                 purchaser.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(requisition);
 
         if (purchaser.getRole() != User.UserRole.PURCHASER && purchaser.getRole() != User.UserRole.ADMIN) {
             throw new RuntimeException("Only purchasers or admins can dispatch goods");
         }
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(requisition);
         requisition.setDispatchStatus(Requisition.DispatchStatus.DISPATCHED);
         requisition.setDispatchedBy(purchaser);
         requisition.setDispatchedAt(LocalDateTime.now());
 
-        requisitionRepository.save(requisition);
+        requisitionRepository.saveAndFlush(requisition);
+
+        Map<String, Object> after = RequisitionSnapshots.snapshot(requisition);
+        syncLogService.record(requisition, SyncLog.SyncOperation.UPDATE, RequisitionSnapshots.diff(before, after),
+                purchaser);
+
+        Map<String, Integer> deltas = DashboardCounters.deltas(before, after);
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new DashboardCountersChangedEvent(
+                    purchaser.getOrganization().getId(), requisition.getType().getId(), deltas));
+        }
     }
 }
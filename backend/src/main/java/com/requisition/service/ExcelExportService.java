@@ -9,10 +9,8 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -73,8 +71,7 @@ public class ExcelExportService {
             // Insert Logo
             if (logoUrl != null && !logoUrl.isEmpty()) {
                 try {
-                    Path logoPath = fileStorageService.loadFile(logoUrl);
-                    try (InputStream is = new FileInputStream(logoPath.toFile())) {
+                    try (InputStream is = fileStorageService.openFile(logoUrl)) {
                         byte[] bytes = IOUtils.toByteArray(is);
                         int pictureIdx = workbook.addPicture(bytes, Workbook.PICTURE_TYPE_PNG); // Assuming PNG/JPG, POI
                                                                                                 // handles mostly
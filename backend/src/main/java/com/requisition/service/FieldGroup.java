@@ -0,0 +1,28 @@
+package com.requisition.service;
+
+import java.util.Set;
+
+/**
+ * Requisition fields grouped by the workflow step that owns them, as snapshot
+ * keys (see {@link RequisitionSnapshots}). Steps writing different groups can
+ * be merged when they race; steps writing the same group conflict.
+ */
+public enum FieldGroup {
+    DETAILS("description", "siteAddress", "materialDescription", "quantity", "amount", "poDetails", "requiredFor",
+            "vendorName", "indentNo", "priority", "cardSubtitleInfo"),
+    APPROVAL("status", "approvalStatus", "approvalNotes", "approvedByName", "approvedAt", "submittedAt"),
+    PAYMENT("paymentStatus", "paymentUtrNo", "paymentMode", "paymentDate", "paymentAmount", "paidByName", "paidAt"),
+    RECEIPT("materialReceived", "receiptNotes"),
+    DISPATCH("dispatchStatus", "dispatchedByName", "dispatchedAt"),
+    ATTACHMENTS("paymentPhotoUrl", "materialPhotoUrl", "billPhotoUrl", "vendorPaymentDetailsUrl");
+
+    private final Set<String> fields;
+
+    FieldGroup(String... fields) {
+        this.fields = Set.of(fields);
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+}
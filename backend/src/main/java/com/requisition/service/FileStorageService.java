@@ -1,23 +1,89 @@
 package com.requisition.service;
 
+import com.requisition.dto.DirectUploadDTO;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.StoredFileRepository;
+import com.requisition.storage.StorageBackend;
+import com.requisition.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 public class FileStorageService {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Rendition {
+        THUMBNAIL("_thumb"), // small preview for cards and lists
+        WEB("_web"); // screen-sized copy for detail views
+
+        private final String suffix;
+
+        Rendition(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    // Local scratch space for hashing and resumable uploads, whatever the backend
     private final Path fileStorageLocation;
+    private final Path tempLocation;
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    public FileStorageService() {
-        this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
+    @Value("${app.storage.presign-ttl:PT15M}")
+    private Duration presignTtl;
+
+    public FileStorageService(@Value("${app.uploads.dir:uploads}") String uploadDir) {
+        this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Temp files live under the upload root so the final move is a same-filesystem rename
+        this.tempLocation = this.fileStorageLocation.resolve(".tmp");
         try {
             Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
@@ -27,31 +93,271 @@ public class FileStorageService {
         // Normalize file name
         String originalFileName = org.springframework.util.StringUtils.cleanPath(file.getOriginalFilename());
 
+        // Check if the file's name contains invalid characters
+        if (originalFileName.contains("..")) {
+            throw new RuntimeException("Sorry! Filename contains invalid path sequence " + originalFileName);
+        }
+
+        try (InputStream in = file.getInputStream()) {
+            return storeStream(in, originalFileName);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+        }
+    }
+
+    /**
+     * Streams the content to a temp file while hashing it, then stores it as
+     * {@code <sha256><ext>}. Identical content is stored once; every call marks
+     * the stored file as recently acquired, so the upload collector leaves it alone.
+     */
+    private String storeStream(InputStream in, String originalFileName) throws IOException {
+        Path tempFile = Files.createTempFile(this.tempLocation, "upload-", ".part");
         try {
-            // Check if the file's name contains invalid characters
-            if (originalFileName.contains("..")) {
-                throw new RuntimeException("Sorry! Filename contains invalid path sequence " + originalFileName);
-            }
+            MessageDigest digest = newDigest();
+            long size = 0;
 
-            // Generate unique filename
-            String fileExtension = "";
-            int i = originalFileName.lastIndexOf('.');
-            if (i > 0) {
-                fileExtension = originalFileName.substring(i);
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                    FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        size += target.write(buffer);
+                    }
+                    buffer.clear();
+                }
             }
-            String fileName = UUID.randomUUID().toString() + fileExtension;
 
-            // Copy file to the target location (Replacing existing file with the same name)
-            Path targetLocation = this.fileStorageLocation.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            return commit(tempFile, HexFormat.of().formatHex(digest.digest()), size, originalFileName);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Adds a file that was assembled on disk under the upload root (e.g. a finished
+     * resumable upload) to the store. The file is hashed in place and handed to the
+     * storage backend; it no longer exists at {@code file} afterwards.
+     */
+    public String storeLocalFile(Path file, String originalFileName) {
+        String cleanName = org.springframework.util.StringUtils.cleanPath(originalFileName);
+        if (cleanName.contains("..")) {
+            throw new RuntimeException("Sorry! Filename contains invalid path sequence " + cleanName);
+        }
 
-            return fileName;
+        try {
+            MessageDigest digest = newDigest();
+            long size = 0;
+            try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                int read;
+                while ((read = source.read(buffer)) != -1) {
+                    buffer.flip();
+                    digest.update(buffer);
+                    size += read;
+                    buffer.clear();
+                }
+            }
+            return commit(file, HexFormat.of().formatHex(digest.digest()), size, cleanName);
         } catch (IOException ex) {
-            throw new RuntimeException("Could not store file " + originalFileName + ". Please try again!", ex);
+            throw new RuntimeException("Could not store file " + cleanName + ". Please try again!", ex);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // leftover is collected with stale upload sessions
+            }
         }
     }
 
-    public Path loadFile(String fileName) {
-        return this.fileStorageLocation.resolve(fileName).normalize();
+    private String commit(Path tempFile, String hash, long size, String originalFileName) throws IOException {
+        String fileName = hash + extensionOf(originalFileName);
+
+        // Duplicate content: the stored copy is reused and the temp file is discarded
+        boolean isNew = !storageBackend.exists(fileName);
+        if (isNew) {
+            storageBackend.put(fileName, tempFile, contentTypeOf(fileName));
+        }
+
+        storedFileRepository.acquire(fileName, hash, size);
+        if (isNew) {
+            eventPublisher.publishEvent(new FileStoredEvent(fileName, size));
+        }
+        return fileName;
+    }
+
+    /**
+     * Reserves a key for a client-side upload straight to the storage backend and
+     * returns a presigned PUT URL for it. The server never sees the bytes, so the
+     * key is random rather than a content hash.
+     */
+    public DirectUploadDTO createDirectUpload(String originalFileName) {
+        String cleanName = org.springframework.util.StringUtils.cleanPath(originalFileName);
+        String key = UUID.randomUUID() + extensionOf(cleanName);
+        String contentType = contentTypeOf(key);
+        URI uploadUrl = storageBackend.presignPut(key, contentType, presignTtl)
+                .orElseThrow(() -> new RuntimeException("Direct uploads are not supported by the configured storage"));
+        return new DirectUploadDTO(key, uploadUrl.toString(), contentType, LocalDateTime.now().plus(presignTtl));
+    }
+
+    /**
+     * Records a finished direct upload once the object is visible in the backend.
+     */
+    public String completeDirectUpload(String key) {
+        String fileName = fileNameOf(key);
+        StoredObject object = storageBackend.stat(fileName)
+                .orElseThrow(() -> new RuntimeException("Uploaded object not found: " + fileName));
+
+        storedFileRepository.acquireUnhashed(fileName, object.getSize());
+        eventPublisher.publishEvent(new FileStoredEvent(fileName, object.getSize()));
+        return fileName;
+    }
+
+    public InputStream openFile(String fileNameOrUrl) throws IOException {
+        return storageBackend.open(fileNameOf(fileNameOrUrl));
+    }
+
+    public Optional<StoredObject> statFile(String fileNameOrUrl) {
+        return storageBackend.stat(fileNameOf(fileNameOrUrl));
+    }
+
+    /**
+     * Filesystem path of a stored file when the backend keeps files on this node.
+     */
+    public Optional<Path> localPath(String fileNameOrUrl) {
+        return storageBackend.localPath(fileNameOf(fileNameOrUrl));
+    }
+
+    /**
+     * Short-lived URL for fetching the file straight from the backend, when it
+     * supports presigning.
+     */
+    public Optional<URI> presignedDownloadUrl(String fileNameOrUrl) {
+        return storageBackend.presignGet(fileNameOf(fileNameOrUrl), presignTtl);
+    }
+
+    /**
+     * Directory for partially uploaded files of resumable upload sessions. Lives
+     * under the upload root so finalizing is a rename on local storage.
+     */
+    public Path getSessionDirectory() throws IOException {
+        return Files.createDirectories(this.fileStorageLocation.resolve(".sessions"));
+    }
+
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(this.tempLocation, "rendition-", ".part");
+    }
+
+    /**
+     * Places a finished temp file under {@code fileName} in the store. Used for
+     * derived files (renditions), which have no stored_files row.
+     */
+    public void moveIntoStore(Path tempFile, String fileName) throws IOException {
+        String name = fileNameOf(fileName);
+        storageBackend.put(name, tempFile, contentTypeOf(name));
+    }
+
+    public Stream<StoredObject> listFiles() throws IOException {
+        return storageBackend.list();
+    }
+
+    public boolean isRendition(String fileName) {
+        for (Rendition rendition : Rendition.values()) {
+            if (fileName.endsWith(rendition.suffix + ".jpg")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Permanently removes a stored file together with its renditions and its
+     * stored_files row. Only for files that are no longer referenced.
+     */
+    public void deleteFile(String fileName) throws IOException {
+        String name = fileNameOf(fileName);
+        storageBackend.delete(name);
+        for (Rendition rendition : Rendition.values()) {
+            storageBackend.delete(renditionName(name, rendition));
+        }
+        storedFileRepository.deleteByFileName(name);
+    }
+
+    public String renditionName(String fileName, Rendition rendition) {
+        String name = fileNameOf(fileName);
+        int i = name.lastIndexOf('.');
+        return (i > 0 ? name.substring(0, i) : name) + rendition.suffix + ".jpg";
+    }
+
+    /**
+     * Called by the rendition job once every rendition of the file is stored.
+     * Requisitions showing the file now get a thumbnail URL, so their versions
+     * and their organizations' change counters move on and cached detail and
+     * list responses stop answering 304.
+     */
+    @Transactional
+    public void markRenditionsReady(String fileName) {
+        String name = fileNameOf(fileName);
+        if (storedFileRepository.markRenditions(name) == 0) {
+            return;
+        }
+        List<String> urls = List.of("/uploads/" + name, "/api/v1/uploads/" + name);
+        List<Long> organizationIds = requisitionRepository.findOrganizationIdsReferencing(urls);
+        if (organizationIds.isEmpty()) {
+            return;
+        }
+        // Counters first: requisition writers lock the organization row before their requisition rows commit
+        organizationIds.forEach(organizationRepository::bumpChangeSeq);
+        requisitionRepository.incrementVersionReferencing(urls);
+    }
+
+    /**
+     * Rendition URLs by file URL, for the given files whose renditions have been
+     * generated; others (non-image uploads, or the background job has not run
+     * yet) are absent. One query for the whole list, no storage calls.
+     */
+    public Map<String, String> renditionUrls(Collection<String> fileUrls, Rendition rendition) {
+        Map<String, String> byName = new HashMap<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl != null && !fileUrl.isBlank()) {
+                byName.put(fileNameOf(fileUrl), fileUrl);
+            }
+        }
+        Map<String, String> urls = new HashMap<>();
+        if (byName.isEmpty()) {
+            return urls;
+        }
+        for (String name : storedFileRepository.findWithRenditions(byName.keySet())) {
+            String fileUrl = byName.get(name);
+            urls.put(fileUrl, fileUrl.substring(0, fileUrl.lastIndexOf('/') + 1) + renditionName(name, rendition));
+        }
+        return urls;
+    }
+
+    private String fileNameOf(String nameOrUrl) {
+        String name = nameOrUrl.substring(nameOrUrl.lastIndexOf('/') + 1);
+        if (name.length() < 4 || name.startsWith(".") || name.contains("\\")) {
+            throw new RuntimeException("Invalid file name " + nameOrUrl);
+        }
+        return name;
+    }
+
+    private String extensionOf(String fileName) {
+        int i = fileName.lastIndexOf('.');
+        // Lower-case so IMG.JPG and img.jpg with the same bytes share one file
+        return i > 0 ? fileName.substring(i).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private String contentTypeOf(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
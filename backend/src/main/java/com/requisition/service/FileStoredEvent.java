@@ -0,0 +1,15 @@
+package com.requisition.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link FileStorageService} after new content has been written to
+ * the upload store (not for de-duplicated uploads).
+ */
+@Getter
+@AllArgsConstructor
+public class FileStoredEvent {
+    private final String fileName;
+    private final long fileSize;
+}
@@ -0,0 +1,154 @@
+package com.requisition.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Generates metadata-free JPEG renditions (thumbnail and web size) for uploaded
+ * photos on a bounded background executor.
+ */
+@Service
+public class ImageProcessingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessingService.class);
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    @Qualifier("imageProcessingExecutor")
+    private TaskExecutor imageProcessingExecutor;
+
+    @Value("${app.uploads.renditions.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    @Value("${app.uploads.renditions.web-size:1600}")
+    private int webSize;
+
+    @Value("${app.uploads.renditions.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    // After commit, so the stored_files row is visible when the job marks it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFileStored(FileStoredEvent event) {
+        if (!isImage(event.getFileName())) {
+            return;
+        }
+        imageProcessingExecutor.execute(() -> generateRenditions(event.getFileName()));
+    }
+
+    public void generateRenditions(String fileName) {
+        try {
+            BufferedImage web = readScaled(fileName, webSize);
+            if (web == null) {
+                return; // not decodable by ImageIO
+            }
+            // Re-encoding from pixels drops EXIF/GPS and other metadata from the originals
+            writeJpeg(fitWithin(web, webSize),
+                    fileStorageService.renditionName(fileName, FileStorageService.Rendition.WEB));
+            writeJpeg(fitWithin(web, thumbnailSize),
+                    fileStorageService.renditionName(fileName, FileStorageService.Rendition.THUMBNAIL));
+            fileStorageService.markRenditionsReady(fileName);
+        } catch (Exception e) {
+            log.warn("Could not generate renditions for {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the image with source subsampling so a 12 MP phone photo is never
+     * fully materialised when only a ~{@code maxSize} px copy is needed.
+     */
+    private BufferedImage readScaled(String fileName, int maxSize) throws IOException {
+        try (InputStream source = fileStorageService.openFile(fileName);
+                ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longSide / maxSize);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage fitWithin(BufferedImage image, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // JPEG has no alpha channel; flatten transparent PNGs onto white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, String fileName) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        Path tempFile = fileStorageService.createTempFile();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            fileStorageService.moveIntoStore(tempFile, fileName);
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private boolean isImage(String fileName) {
+        int i = fileName.lastIndexOf('.');
+        return i > 0 && IMAGE_EXTENSIONS.contains(fileName.substring(i).toLowerCase(Locale.ROOT));
+    }
+}
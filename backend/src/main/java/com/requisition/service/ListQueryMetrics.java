@@ -0,0 +1,127 @@
+package com.requisition.service;
+
+import com.requisition.dto.ListQueryStatsDTO;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per list query: rows returned, heap allocated on the request thread while
+ * querying and mapping, and an estimate of the column bytes read from the
+ * database. Compares full-entity lists with projected ones on real data.
+ *
+ * Estimating bytes walks every row and allocates, so it runs after the
+ * allocation is read and only on one call in {@code app.metrics.list-query-byte-sample}
+ * (never by default).
+ */
+@Component
+public class ListQueryMetrics {
+
+    private final com.sun.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean()
+            instanceof com.sun.management.ThreadMXBean bean && bean.isThreadAllocatedMemorySupported() ? bean : null;
+
+    @Value("${app.metrics.list-query-byte-sample:0}")
+    private int byteSample;
+
+    private static class Counters {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong sampledRows = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong allocated = new AtomicLong();
+    }
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    // Bytes allocated by the current thread so far, -1 when the JVM cannot tell
+    public long allocatedBytes() {
+        return threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    // Whether this call should estimate column bytes
+    public boolean sampleBytes() {
+        return byteSample > 0 && ThreadLocalRandom.current().nextInt(byteSample) == 0;
+    }
+
+    // The estimate is only computed for sampled calls, after the allocation has been read
+    public void record(String query, int rows, long allocationStart, LongSupplier estimatedBytes) {
+        long allocated = allocationStart >= 0 ? allocatedBytes() - allocationStart : -1;
+        add(query, rows, allocated, sampleBytes() ? estimatedBytes.getAsLong() : -1);
+    }
+
+    // For callers that decided on sampling up front; -1 when the bytes were not estimated
+    public void record(String query, int rows, long allocationStart, long estimatedBytes) {
+        add(query, rows, allocationStart >= 0 ? allocatedBytes() - allocationStart : -1, estimatedBytes);
+    }
+
+    private void add(String query, int rows, long allocated, long estimatedBytes) {
+        Counters c = counters.computeIfAbsent(query, key -> new Counters());
+        c.calls.incrementAndGet();
+        c.rows.addAndGet(rows);
+        if (allocated >= 0) {
+            c.allocated.addAndGet(allocated);
+        }
+        if (estimatedBytes >= 0) {
+            c.sampledRows.addAndGet(rows);
+            c.bytes.addAndGet(estimatedBytes);
+        }
+    }
+
+    public Map<String, ListQueryStatsDTO> getStats() {
+        Map<String, ListQueryStatsDTO> stats = new TreeMap<>();
+        counters.forEach((query, c) -> {
+            long rows = c.rows.get();
+            long sampledRows = c.sampledRows.get();
+            stats.put(query, new ListQueryStatsDTO(c.calls.get(), rows,
+                    sampledRows > 0 ? c.bytes.get() / sampledRows : 0,
+                    rows > 0 && threads != null ? c.allocated.get() / rows : 0));
+        });
+        return stats;
+    }
+
+    // Column bytes of one value as the database sends it, roughly
+    static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof CharSequence text) {
+            return text.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (value instanceof Enum<?> e) {
+            return e.name().length();
+        }
+        return 8;
+    }
+
+    /**
+     * Column bytes behind one hydrated requisition: its own columns plus each
+     * joined user row.
+     */
+    static long estimateBytes(Requisition req) {
+        long bytes = estimateBytes(req.getRequestId()) + estimateBytes(req.getPaymentDetails())
+                + estimateBytes(req.getModeOfPayment()) + 8 * 6; // ids, version and the untracked timestamps
+        for (Object value : RequisitionSnapshots.snapshot(req).values()) {
+            bytes += estimateBytes(value);
+        }
+        for (User user : new User[] { req.getCreatedBy(), req.getApprovedBy(), req.getPaidBy(),
+                req.getDispatchedBy() }) {
+            if (user != null) {
+                bytes += 8 * 4 + estimateBytes(user.getEmail()) + estimateBytes(user.getFullName())
+                        + estimateBytes(user.getPasswordHash()) + estimateBytes(user.getProfilePhotoUrl())
+                        + estimateBytes(user.getRole()) + estimateBytes(user.getDepartment())
+                        + estimateBytes(user.getDesignation());
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.requisition.service;
+
+import com.requisition.entity.Requisition;
+import com.requisition.exception.ConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs a requisition workflow step against the entity's {@code @Version}
+ * without holding row locks. When another transaction commits first, the step
+ * is run again on fresh state in a new transaction, as long as the concurrent
+ * change left the step's own {@link FieldGroup} alone; otherwise the caller
+ * gets an "Update conflict" error (409).
+ *
+ * Called inside an existing transaction the step runs once: the persistence
+ * context already holds stale state and cannot be retried from here.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.concurrency.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    private final AtomicLong retried = new AtomicLong();
+
+    /**
+     * The field values a step first saw. Each attempt passes the state it loaded
+     * to {@link #check}, before changing anything.
+     */
+    public static class Baseline {
+        private final FieldGroup group;
+        private Map<String, Object> first;
+
+        Baseline(FieldGroup group) {
+            this.group = group;
+        }
+
+        public void check(Requisition loaded) {
+            Map<String, Object> current = RequisitionSnapshots.snapshot(loaded);
+            if (first == null) {
+                first = current;
+                return;
+            }
+            Set<String> overlapping = new TreeSet<>(RequisitionSnapshots.diff(first, current).keySet());
+            overlapping.retainAll(group.getFields());
+            if (!overlapping.isEmpty()) {
+                throw new ConflictException("Update conflict: " + String.join(", ", overlapping)
+                        + " changed concurrently, reload and try again");
+            }
+        }
+    }
+
+    public <T> T run(FieldGroup group, Function<Baseline, T> step) {
+        Baseline baseline = new Baseline(group);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return step.apply(baseline);
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1;; attempt++) {
+            try {
+                return transaction.execute(status -> step.apply(baseline));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConflictException("Update conflict: requisition kept changing, reload and try again");
+                }
+                retried.incrementAndGet();
+                log.debug("Retrying {} update after concurrent change (attempt {})", group, attempt + 1);
+                backOff(attempt);
+            }
+        }
+    }
+
+    public long getRetried() {
+        return retried.get();
+    }
+
+    // Short jittered pause so racing writers do not collide again in lockstep
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 5L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Update interrupted", e);
+        }
+    }
+}
@@ -105,7 +105,6 @@ public class OrganizationService {
 
         String fileName = fileStorageService.storeFile(file);
         String fileUrl = "/api/v1/uploads/" + fileName;
-
         org.setLogoUrl(fileUrl);
         Organization updatedOrg = organizationRepository.save(org);
 
@@ -0,0 +1,20 @@
+package com.requisition.service;
+
+import com.requisition.dto.RequisitionChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by {@link RequisitionService} inside the transaction that changed a
+ * requisition; broadcast to clients only after that transaction commits.
+ * Creator and workflow state decide which destinations receive the change.
+ */
+@Getter
+@AllArgsConstructor
+public class RequisitionChangedEvent {
+    private final Long organizationId;
+    private final Long createdById;
+    private final String status;
+    private final String paymentStatus;
+    private final RequisitionChangeEvent change;
+}
@@ -0,0 +1,164 @@
+package com.requisition.service;
+
+import com.requisition.config.StompDestinations;
+import com.requisition.dto.RequisitionChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends requisition change events to STOMP subscribers once the producing
+ * transaction has committed, so rolled-back changes are never broadcast and the
+ * request does not wait for broker dispatch.
+ *
+ * Changes to the same requisition within the coalescing window are merged into
+ * one message: an upload followed by a payment and a receipt confirmation goes
+ * out as a single update carrying the latest version and all changed fields.
+ *
+ * Each change goes only to the sessions that act on it: the creator's user
+ * queue, the per-requisition topic of open detail views, the managers' or
+ * accountants' workflow topic while it is in their stage, and the admin-only
+ * organization feed.
+ *
+ * Attachment updates follow the same rule: sent after commit, off the request
+ * thread.
+ */
+@Component
+public class RequisitionEventBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(RequisitionEventBroadcaster.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${app.websocket.coalesce-window-ms:100}")
+    private long coalesceWindowMillis;
+
+    // Own thread: the shared @Scheduled thread can be busy with long jobs
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "requisition-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private static class Pending {
+        private final Long organizationId;
+        private RequisitionChangedEvent latest;
+        private RequisitionChangeEvent change;
+
+        Pending(RequisitionChangedEvent event) {
+            this.organizationId = event.getOrganizationId();
+            this.latest = event;
+            this.change = event.getChange();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRequisitionChanged(RequisitionChangedEvent event) {
+        Long requisitionId = event.getChange().getRequisitionId();
+        boolean[] first = { false };
+        pending.compute(requisitionId, (id, existing) -> {
+            if (existing == null) {
+                first[0] = true;
+                return new Pending(event);
+            }
+            // Workflow routing follows the newest state, whatever order the commits completed in
+            if (event.getChange().getVersion() >= existing.latest.getChange().getVersion()) {
+                existing.latest = event;
+            }
+            existing.change = merge(existing.change, event.getChange());
+            return existing;
+        });
+        if (first[0]) {
+            scheduler.schedule(() -> flush(requisitionId), coalesceWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttachmentsChanged(AttachmentsChangedEvent event) {
+        scheduler.execute(() -> {
+            try {
+                messagingTemplate.convertAndSend(StompDestinations.attachments(event.getOrganizationId()),
+                        event.getUpdate());
+            } catch (RuntimeException e) {
+                log.warn("Could not broadcast attachments of requisition {}: {}",
+                        event.getUpdate().getRequisitionId(), e.getMessage());
+            }
+        });
+    }
+
+    private void flush(Long requisitionId) {
+        Pending entry = pending.remove(requisitionId);
+        if (entry == null) {
+            return;
+        }
+        try {
+            Long orgId = entry.organizationId;
+            RequisitionChangeEvent change = entry.change;
+            messagingTemplate.convertAndSend(StompDestinations.requisitions(orgId), change);
+            messagingTemplate.convertAndSend(StompDestinations.requisition(orgId, requisitionId), change);
+            if (entry.latest.getCreatedById() != null) {
+                messagingTemplate.convertAndSendToUser(entry.latest.getCreatedById().toString(),
+                        StompDestinations.USER_REQUISITIONS, change);
+            }
+            if (concernsApprovers(entry.latest, change)) {
+                messagingTemplate.convertAndSend(StompDestinations.pendingApproval(orgId), change);
+            }
+            if (concernsAccountants(entry.latest, change)) {
+                messagingTemplate.convertAndSend(StompDestinations.awaitingPayment(orgId), change);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not broadcast change of requisition {}: {}", requisitionId, e.getMessage());
+        }
+    }
+
+    // Waiting for a decision, or a decision that takes it off the managers' list
+    static boolean concernsApprovers(RequisitionChangedEvent state, RequisitionChangeEvent change) {
+        return "SUBMITTED".equals(state.getStatus()) || change.getChanges().containsKey("approvalStatus");
+    }
+
+    // Approved and not fully paid, or a payment update that settles it
+    static boolean concernsAccountants(RequisitionChangedEvent state, RequisitionChangeEvent change) {
+        return ("APPROVED".equals(state.getStatus()) && !"DONE".equals(state.getPaymentStatus()))
+                || change.getChanges().containsKey("paymentStatus");
+    }
+
+    public static RequisitionChangeEvent merge(RequisitionChangeEvent earlier, RequisitionChangeEvent later) {
+        // Commits can complete out of order; the lower version's fields are the ones to overwrite
+        if (earlier.getVersion() > later.getVersion()) {
+            return merge(later, earlier);
+        }
+        if (RequisitionChangeEvent.DELETED.equals(later.getType())) {
+            return later;
+        }
+        Map<String, Object> changes = new LinkedHashMap<>(earlier.getChanges());
+        changes.putAll(later.getChanges());
+        // A requisition created within the window is still new to every client
+        String type = RequisitionChangeEvent.CREATED.equals(earlier.getType())
+                ? RequisitionChangeEvent.CREATED
+                : later.getType();
+        return new RequisitionChangeEvent(later.getRequisitionId(), later.getVersion(), type, changes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        // Deliver whatever is still waiting rather than dropping it
+        pending.keySet().forEach(this::flush);
+    }
+}
@@ -0,0 +1,136 @@
+package com.requisition.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes the organization's requisitions as the usual {@code ApiResponse}
+ * JSON, row by row, while reading them from a database cursor. Each fetched
+ * chunk is converted, written, flushed and dropped from the persistence
+ * context, so memory use does not grow with the organization and the client
+ * gets the first rows before the query has finished.
+ *
+ * The status is sent before the rows, so a failure midway cannot become an
+ * error body. The array and envelope are then left open, so the client gets
+ * JSON that does not parse rather than a well-formed success with part of the
+ * list.
+ */
+@Service
+public class RequisitionListStreamer {
+
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RequisitionService requisitionService;
+    @Autowired
+    private ListQueryMetrics listQueryMetrics;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static class Totals {
+        private final boolean sampled; // estimate column bytes; rows are gone once written
+        private int rows;
+        private long bytes;
+
+        Totals(boolean sampled) {
+            this.sampled = sampled;
+        }
+    }
+
+    // Resolved on the request thread, so an unknown user is still a 404
+    public Long resolveOrganizationId(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return user.getOrganization().getId();
+    }
+
+    public void write(Long organizationId, OutputStream out) throws IOException {
+        long allocationStart = listQueryMetrics.allocatedBytes();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        JsonGenerator json = objectMapper.createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container completes the response
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT); // closing must not complete a partial list
+        json.writeStartObject();
+        json.writeBooleanField("success", true);
+        json.writeStringField("message", "Requisitions retrieved");
+        json.writeArrayFieldStart("data");
+        json.flush();
+        Totals totals;
+        try {
+            totals = transaction.execute(status -> writeRows(organizationId, json));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        json.writeEndArray();
+        json.writeObjectField("timestamp", LocalDateTime.now());
+        json.writeEndObject();
+        json.close(); // only on success
+        listQueryMetrics.record("requisitions.stream", totals.rows, allocationStart,
+                totals.sampled ? totals.bytes : -1);
+    }
+
+    private Totals writeRows(Long organizationId, JsonGenerator json) {
+        Totals totals = new Totals(listQueryMetrics.sampleBytes());
+        List<Requisition> chunk = new ArrayList<>(RequisitionRepository.FETCH_SIZE);
+        try (Stream<Requisition> requisitions = requisitionRepository.streamByOrganizationId(organizationId)) {
+            Iterator<Requisition> cursor = requisitions.iterator();
+            while (cursor.hasNext()) {
+                Requisition req = cursor.next();
+                chunk.add(req);
+                totals.rows++;
+                if (totals.sampled) {
+                    totals.bytes += ListQueryMetrics.estimateBytes(req);
+                }
+                if (chunk.size() == RequisitionRepository.FETCH_SIZE) {
+                    writeChunk(chunk, json);
+                }
+            }
+            writeChunk(chunk, json);
+        }
+        return totals;
+    }
+
+    private void writeChunk(List<Requisition> chunk, JsonGenerator json) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            for (RequisitionDTO dto : requisitionService.convertToDTOs(chunk)) {
+                json.writeObject(dto);
+            }
+            json.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        chunk.clear();
+        entityManager.clear(); // written rows must not pile up in the persistence context
+    }
+}
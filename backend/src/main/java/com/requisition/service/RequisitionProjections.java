@@ -0,0 +1,203 @@
+package com.requisition.service;
+
+import com.requisition.dto.RequisitionCardDTO;
+import com.requisition.entity.Requisition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Requisition list queries that select only the requested columns as a JPA
+ * tuple query, instead of hydrating entities with every TEXT column and joined
+ * user. Field names are the {@code RequisitionDTO} names; related users are
+ * joined only when one of their fields is asked for.
+ */
+@Component
+public class RequisitionProjections {
+
+    public static final String ATTACHMENT_COUNT = "attachmentCount";
+
+    // What a dashboard card shows; backs DashboardService.getRequisitionsByType
+    static final List<String> CARD_FIELDS = List.of("id", "requestId", "type", "description", "amount", "status",
+            "approvalStatus", "paymentStatus", "dispatchStatus", "priority", "cardSubtitleInfo", "createdByName",
+            "createdAt", "siteAddress", "vendorName", "materialDescription");
+
+    private static final Map<String, Function<Source, Expression<?>>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        for (String column : List.of("id", "version", "requestId", "status", "approvalStatus", "paymentStatus",
+                "dispatchStatus", "priority", "description", "siteAddress", "materialDescription", "quantity",
+                "amount", "poDetails", "requiredFor", "vendorName", "indentNo", "cardSubtitleInfo", "paymentUtrNo",
+                "paymentMode", "paymentDate", "paymentAmount", "paymentPhotoUrl", "materialPhotoUrl",
+                "billPhotoUrl", "vendorPaymentDetailsUrl", "approvalNotes", "materialReceived", "receiptNotes",
+                "createdAt", "updatedAt", "submittedAt", "approvedAt", "paidAt", "dispatchedAt")) {
+            FIELDS.put(column, source -> source.root.get(column));
+        }
+        // Foreign key columns need no join
+        FIELDS.put("typeId", source -> source.root.get("type").get("id"));
+        FIELDS.put("createdById", source -> source.root.get("createdBy").get("id"));
+        FIELDS.put("type", source -> source.join("type").get("name"));
+        FIELDS.put("createdByName", source -> source.join("createdBy").get("fullName"));
+        FIELDS.put("approvedByName", source -> source.join("approvedBy").get("fullName"));
+        FIELDS.put("paidByName", source -> source.join("paidBy").get("fullName"));
+        FIELDS.put("dispatchedByName", source -> source.join("dispatchedBy").get("fullName"));
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private ListQueryMetrics listQueryMetrics;
+
+    // One left join per relation, however many of its fields are selected
+    private static class Source {
+        private final Root<Requisition> root;
+        private final Map<String, Join<Requisition, ?>> joins = new HashMap<>();
+
+        Source(Root<Requisition> root) {
+            this.root = root;
+        }
+
+        Join<Requisition, ?> join(String relation) {
+            return joins.computeIfAbsent(relation, name -> root.join(name, JoinType.LEFT));
+        }
+    }
+
+    /**
+     * Parses a {@code fields=} parameter: comma separated, unknown names are
+     * rejected and the id is always included, first.
+     */
+    public static List<String> parseFields(String fields) {
+        Set<String> parsed = new LinkedHashSet<>();
+        parsed.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.containsKey(name) && !ATTACHMENT_COUNT.equals(name)) {
+                throw new RuntimeException("Field not supported: " + name);
+            }
+            parsed.add(name);
+        }
+        return new ArrayList<>(parsed);
+    }
+
+    /**
+     * Requested fields of the organization's requisitions, newest first,
+     * optionally of one type and limited to the first {@code limit} (0 for all).
+     */
+    public List<Map<String, Object>> select(Long organizationId, Long typeId, List<String> fields, int limit) {
+        long allocationStart = listQueryMetrics.allocatedBytes();
+        List<Map<String, Object>> rows = query(organizationId, typeId, fields, limit);
+        if (fields.contains(ATTACHMENT_COUNT)) {
+            Map<Long, Long> counts = attachmentService
+                    .countByRequisitionIds(rows.stream().map(row -> (Long) row.get("id")).toList());
+            rows.forEach(row -> row.put(ATTACHMENT_COUNT, counts.getOrDefault((Long) row.get("id"), 0L)));
+        }
+        listQueryMetrics.record("requisitions.fields", rows.size(), allocationStart, () -> estimateBytes(rows));
+        return rows;
+    }
+
+    public List<RequisitionCardDTO> cards(Long organizationId, Long typeId, int limit) {
+        long allocationStart = listQueryMetrics.allocatedBytes();
+        List<Map<String, Object>> rows = query(organizationId, typeId, CARD_FIELDS, limit);
+        Map<Long, Long> attachmentCounts = attachmentService
+                .countByRequisitionIds(rows.stream().map(row -> (Long) row.get("id")).toList());
+
+        List<RequisitionCardDTO> cards = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            RequisitionCardDTO card = new RequisitionCardDTO();
+            card.setId((Long) row.get("id"));
+            card.setRequestId((String) row.get("requestId"));
+            card.setType((String) row.get("type"));
+            card.setDescription((String) row.get("description"));
+            card.setAmount((BigDecimal) row.get("amount"));
+            card.setStatus((String) row.get("status"));
+            card.setApprovalStatus((String) row.get("approvalStatus"));
+            card.setPaymentStatus((String) row.get("paymentStatus"));
+            card.setDispatchStatus((String) row.get("dispatchStatus"));
+            card.setPriority((String) row.get("priority"));
+            card.setCardSubtitleInfo((String) row.get("cardSubtitleInfo"));
+            card.setCreatedByName((String) row.get("createdByName"));
+            card.setCreatedAt((LocalDateTime) row.get("createdAt"));
+            card.setSiteAddress((String) row.get("siteAddress"));
+            card.setVendorName((String) row.get("vendorName"));
+            card.setMaterialDescription((String) row.get("materialDescription"));
+            card.setAttachmentCount(attachmentCounts.getOrDefault(card.getId(), 0L));
+            cards.add(card);
+        }
+        listQueryMetrics.record("cards.projection", cards.size(), allocationStart, () -> estimateBytes(rows));
+        return cards;
+    }
+
+    private static long estimateBytes(List<Map<String, Object>> rows) {
+        long bytes = 0;
+        for (Map<String, Object> row : rows) {
+            for (Object value : row.values()) {
+                bytes += ListQueryMetrics.estimateBytes(value);
+            }
+        }
+        return bytes;
+    }
+
+    private List<Map<String, Object>> query(Long organizationId, Long typeId, List<String> fields, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Requisition> root = query.from(Requisition.class);
+        Source source = new Source(root);
+
+        List<String> columns = fields.stream().filter(FIELDS::containsKey).toList();
+        query.multiselect(columns.stream()
+                .<Selection<?>>map(field -> FIELDS.get(field).apply(source).alias(field))
+                .toList());
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("organization").get("id"), organizationId));
+        if (typeId != null) {
+            where.add(cb.equal(root.get("type").get("id"), typeId));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("id")));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typed.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : columns) {
+                Object value = tuple.get(field);
+                row.put(field, value instanceof Enum<?> e ? e.name() : value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,15 +1,22 @@
 package com.requisition.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.requisition.dto.*;
 import com.requisition.entity.*;
 import com.requisition.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @Transactional
@@ -24,9 +31,28 @@ public class RequisitionService {
     @Autowired
     private ApprovalRepository approvalRepository;
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ApplicationEventPublisher eventPublisher;
     @Autowired
     private FileStorageService fileStorageService;
+    @Autowired
+    private AttachmentService attachmentService;
+    @Autowired
+    private SyncLogService syncLogService;
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    @Autowired
+    private RequisitionProjections requisitionProjections;
+    @Autowired
+    private ListQueryMetrics listQueryMetrics;
+    @Autowired
+    private UserRoster userRoster;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static final Map<String, SyncLog.SyncOperation> SYNC_OPERATIONS = Map.of(
+            RequisitionChangeEvent.CREATED, SyncLog.SyncOperation.CREATE,
+            RequisitionChangeEvent.UPDATED, SyncLog.SyncOperation.UPDATE,
+            RequisitionChangeEvent.DELETED, SyncLog.SyncOperation.DELETE);
 
     public RequisitionDTO createRequisition(Long userId, CreateRequisitionRequest request) {
         User user = userRepository.findById(userId)
@@ -60,23 +86,111 @@ public class RequisitionService {
         requisition.generateCardSubtitle();
 
         requisitionRepository.save(requisition);
-        RequisitionDTO dto = convertToDTO(requisition);
+        publishChange(requisition, RequisitionChangeEvent.CREATED, RequisitionSnapshots.created(requisition), user);
+        publishCounters(requisition, null, RequisitionSnapshots.snapshot(requisition));
+        return convertToDTO(requisition, 0, Collections.emptyMap()); // new, so no attachments or photos yet
+    }
 
-        // Notify subscribers (scoped by organization)
-        Long orgId = requisition.getOrganization() != null ? requisition.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
+    public List<RequisitionDTO> getAllRequisitions(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return dto;
+        long allocationStart = listQueryMetrics.allocatedBytes();
+        List<Requisition> requisitions = requisitionRepository
+                .findByOrganizationOrderByCreatedAtDesc(user.getOrganization());
+        List<RequisitionDTO> dtos = convertToDTOs(requisitions);
+        listQueryMetrics.record("requisitions.entity", requisitions.size(), allocationStart,
+                () -> requisitions.stream().mapToLong(ListQueryMetrics::estimateBytes).sum());
+        return dtos;
     }
 
-    public List<RequisitionDTO> getAllRequisitions(Long userId) {
+    // Sparse fieldset of the organization's requisitions, see RequisitionProjections.parseFields
+    public List<Map<String, Object>> getAllRequisitionFields(Long userId, List<String> fields) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        return requisitionProjections.select(user.getOrganization().getId(), null, fields, 0);
+    }
 
-        return requisitionRepository.findByOrganizationOrderByCreatedAtDesc(user.getOrganization()).stream()
-                .map(this::convertToDTO)
+    /**
+     * The organization's requisitions with users referenced by id and each
+     * user sent once in the side-loaded map, instead of embedded in every row.
+     */
+    public RequisitionListDTO getAllRequisitionsNormalized(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        long allocationStart = listQueryMetrics.allocatedBytes();
+        List<Requisition> requisitions = requisitionRepository
+                .findByOrganizationOrderByCreatedAtDesc(user.getOrganization());
+        RequisitionListDTO list = normalize(requisitions);
+        listQueryMetrics.record("requisitions.normalized", requisitions.size(), allocationStart,
+                () -> requisitions.stream().mapToLong(ListQueryMetrics::estimateBytes).sum());
+        return list;
+    }
+
+    // JSON size of both list shapes for the organization's current requisitions; serializes the whole list twice
+    public ListPayloadSizesDTO compareListPayloadSizes(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (user.getRole() != User.UserRole.ADMIN) {
+            throw new RuntimeException("Only admins can compare list payload sizes");
+        }
+
+        List<Requisition> requisitions = requisitionRepository
+                .findByOrganizationOrderByCreatedAtDesc(user.getOrganization());
+        RequisitionListDTO normalized = normalize(requisitions);
+        try {
+            return new ListPayloadSizesDTO(requisitions.size(), normalized.getUsers().size(),
+                    objectMapper.writeValueAsBytes(convertToDTOs(requisitions)).length,
+                    objectMapper.writeValueAsBytes(normalized).length);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize requisitions", e);
+        }
+    }
+
+    private RequisitionListDTO normalize(List<Requisition> requisitions) {
+        Map<Long, Long> attachmentCounts = attachmentService
+                .countByRequisitionIds(requisitions.stream().map(Requisition::getId).toList());
+        Map<String, String> thumbnails = thumbnails(requisitions);
+        Map<Long, UserSummaryDTO> users = new TreeMap<>();
+        List<RequisitionRowDTO> rows = new ArrayList<>(requisitions.size());
+        for (Requisition req : requisitions) {
+            RequisitionRowDTO row = convertToDTO(req, attachmentCounts.getOrDefault(req.getId(), 0L), thumbnails,
+                    new RequisitionRowDTO());
+            row.setCreatedById(sideLoad(users, req, req.getCreatedBy()));
+            row.setApprovedById(sideLoad(users, req, req.getApprovedBy()));
+            row.setPaidById(sideLoad(users, req, req.getPaidBy()));
+            row.setDispatchedById(sideLoad(users, req, req.getDispatchedBy()));
+            rows.add(row);
+        }
+        return new RequisitionListDTO(rows, users);
+    }
+
+    private Long sideLoad(Map<Long, UserSummaryDTO> users, Requisition req, User user) {
+        if (user == null) {
+            return null;
+        }
+        users.computeIfAbsent(user.getId(), id -> summary(req, user));
+        return user.getId();
+    }
+
+    // From the organization's roster, so listing does not load every referenced user row
+    private UserSummaryDTO summary(Requisition req, User user) {
+        UserSummaryDTO summary = userRoster.find(req.getOrganization().getId(), user.getId());
+        return summary != null ? summary : UserRoster.summary(user);
+    }
+
+    private String userName(Requisition req, User user) {
+        return user != null ? summary(req, user).getFullName() : null;
+    }
+
+    // Attachment counts and thumbnails for the whole list come from one query each
+    public List<RequisitionDTO> convertToDTOs(List<Requisition> requisitions) {
+        Map<Long, Long> attachmentCounts = attachmentService
+                .countByRequisitionIds(requisitions.stream().map(Requisition::getId).toList());
+        Map<String, String> thumbnails = thumbnails(requisitions);
+        return requisitions.stream()
+                .map(req -> convertToDTO(req, attachmentCounts.getOrDefault(req.getId(), 0L), thumbnails))
                 .toList();
     }
 
@@ -96,12 +210,19 @@ public class RequisitionService {
         return convertToDTO(req);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RequisitionDTO updateRequisition(Long id, Long userId, CreateRequisitionRequest request) {
+        return optimisticRetry.run(FieldGroup.DETAILS, baseline -> applyUpdate(id, userId, request, baseline));
+    }
+
+    private RequisitionDTO applyUpdate(Long id, Long userId, CreateRequisitionRequest request,
+            OptimisticRetry.Baseline baseline) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition req = requisitionRepository.findByIdAndOrganization(id, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(req);
 
         // Only allow updates if status is DRAFT
         if (req.getStatus() != Requisition.RequisitionStatus.DRAFT) {
@@ -115,6 +236,8 @@ public class RequisitionService {
             throw new RuntimeException("Unauthorized to update this requisition");
         }
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
+
         // Update fields
         req.setDescription(request.getDescription());
         req.setSiteAddress(request.getSiteAddress());
@@ -128,16 +251,9 @@ public class RequisitionService {
         req.setPriority(Requisition.Priority.valueOf(request.getPriority()));
         req.generateCardSubtitle();
 
-        requisitionRepository.save(req);
-        RequisitionDTO dto = convertToDTO(req);
-
-        // Notify subscribers (scoped by organization)
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
-
-        return dto;
+        requisitionRepository.saveAndFlush(req);
+        publishUpdate(req, before, user);
+        return convertToDTO(req);
     }
 
     public void deleteRequisition(Long id, Long userId) {
@@ -198,24 +314,29 @@ public class RequisitionService {
 
         requisitionRepository.delete(req);
 
-        // Notify subscribers
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions/deleted", id);
-        }
+        publishChange(req, RequisitionChangeEvent.DELETED, Map.of(), user);
+        publishCounters(req, RequisitionSnapshots.snapshot(req), null);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RequisitionDTO processApproval(Long id, Long userId, ApprovalActionRequest request) {
+        return optimisticRetry.run(FieldGroup.APPROVAL, baseline -> applyApproval(id, userId, request, baseline));
+    }
+
+    private RequisitionDTO applyApproval(Long id, Long userId, ApprovalActionRequest request,
+            OptimisticRetry.Baseline baseline) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition req = requisitionRepository.findByIdAndOrganization(id, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(req);
 
         if (user.getRole() != User.UserRole.MANAGER && user.getRole() != User.UserRole.ADMIN) {
             throw new RuntimeException("Unauthorized: Only Managers can approve requisitions");
         }
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
         Requisition.ApprovalStatus status = Requisition.ApprovalStatus.valueOf(request.getApprovalStatus());
         req.setApprovalStatus(status);
         req.setApprovalNotes(request.getNotes());
@@ -233,21 +354,24 @@ public class RequisitionService {
 
         req.setManagerTime(LocalDateTime.now());
 
-        requisitionRepository.save(req);
-        RequisitionDTO dto = convertToDTO(req);
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
-        return dto;
+        requisitionRepository.saveAndFlush(req);
+        publishUpdate(req, before, user);
+        return convertToDTO(req);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RequisitionDTO updatePayment(Long id, Long userId, PaymentUpdateRequest request) {
+        return optimisticRetry.run(FieldGroup.PAYMENT, baseline -> applyPayment(id, userId, request, baseline));
+    }
+
+    private RequisitionDTO applyPayment(Long id, Long userId, PaymentUpdateRequest request,
+            OptimisticRetry.Baseline baseline) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition req = requisitionRepository.findByIdAndOrganization(id, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(req);
 
         if (req.getStatus() != Requisition.RequisitionStatus.APPROVED) {
             // Depending on workflow, payment might only be allowed if approved.
@@ -258,6 +382,7 @@ public class RequisitionService {
             throw new RuntimeException("Unauthorized: Only Accountants can update payment");
         }
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
         req.setPaymentStatus(Requisition.PaymentStatus.valueOf(request.getPaymentStatus()));
         req.setPaymentUtrNo(request.getUtrNo());
         // Simple mapping for demo if enum doesn't match exactly or use valueOf
@@ -281,21 +406,24 @@ public class RequisitionService {
             // req.setStatus(Requisition.RequisitionStatus.PAID);
         }
 
-        requisitionRepository.save(req);
-        RequisitionDTO dto = convertToDTO(req);
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
-        return dto;
+        requisitionRepository.saveAndFlush(req);
+        publishUpdate(req, before, user);
+        return convertToDTO(req);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RequisitionDTO processMaterialReceipt(Long id, Long userId, MaterialReceiptRequest request) {
+        return optimisticRetry.run(FieldGroup.RECEIPT, baseline -> applyMaterialReceipt(id, userId, request, baseline));
+    }
+
+    private RequisitionDTO applyMaterialReceipt(Long id, Long userId, MaterialReceiptRequest request,
+            OptimisticRetry.Baseline baseline) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition req = requisitionRepository.findByIdAndOrganization(id, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(req);
 
         // Allow creator or Admin or Manager? Usually Purchaser (creator) confirms
         // receipt
@@ -303,27 +431,32 @@ public class RequisitionService {
             // Check role?
         }
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
         req.setMaterialReceived(request.getMaterialReceived());
         req.setReceiptNotes(request.getReceiptNotes());
 
-        requisitionRepository.save(req);
-        RequisitionDTO dto = convertToDTO(req);
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
-        return dto;
+        requisitionRepository.saveAndFlush(req);
+        publishUpdate(req, before, user);
+        return convertToDTO(req);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public RequisitionDTO uploadFile(Long id, Long userId, String fileType, String fileName) {
+        return optimisticRetry.run(FieldGroup.ATTACHMENTS,
+                baseline -> applyFile(id, userId, fileType, fileName, baseline));
+    }
+
+    private RequisitionDTO applyFile(Long id, Long userId, String fileType, String fileName,
+            OptimisticRetry.Baseline baseline) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         Requisition req = requisitionRepository.findByIdAndOrganization(id, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
+        baseline.check(req);
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
         String fileUrl = "/uploads/" + fileName; // Relative URL served by static resource handler
-
         switch (fileType) {
             case "payment":
                 req.setPaymentPhotoUrl(fileUrl);
@@ -339,13 +472,9 @@ public class RequisitionService {
                 break;
         }
 
-        requisitionRepository.save(req);
-        RequisitionDTO dto = convertToDTO(req);
-        Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", dto);
-        }
-        return dto;
+        requisitionRepository.saveAndFlush(req);
+        publishUpdate(req, before, user);
+        return convertToDTO(req);
     }
 
     public String storeFile(MultipartFile file) {
@@ -359,17 +488,50 @@ public class RequisitionService {
         Requisition req = requisitionRepository.findByIdAndOrganization(requisitionId, user.getOrganization())
                 .orElseThrow(() -> new RuntimeException("Requisition not found"));
 
+        Map<String, Object> before = RequisitionSnapshots.snapshot(req);
         req.setStatus(Requisition.RequisitionStatus.SUBMITTED);
         req.setSubmittedAt(LocalDateTime.now());
-        requisitionRepository.save(req);
+        requisitionRepository.saveAndFlush(req);
 
         createApprovalChain(req);
 
-        // Notify subscribers (scoped by organization)
+        publishUpdate(req, before, user);
+    }
+
+    // The version is only bumped on flush, so callers saveAndFlush before publishing
+    private void publishUpdate(Requisition req, Map<String, Object> before, User actor) {
+        Map<String, Object> after = RequisitionSnapshots.snapshot(req);
+        Map<String, Object> changes = RequisitionSnapshots.diff(before, after);
+        if (!changes.isEmpty()) {
+            publishChange(req, RequisitionChangeEvent.UPDATED, changes, actor);
+            publishCounters(req, before, after);
+        }
+    }
+
+    private void publishCounters(Requisition req, Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Integer> deltas = DashboardCounters.deltas(before, after);
+        if (!deltas.isEmpty() && req.getOrganization() != null && req.getType() != null) {
+            eventPublisher.publishEvent(new DashboardCountersChangedEvent(req.getOrganization().getId(),
+                    req.getType().getId(), deltas));
+        }
+    }
+
+    private void publishChange(Requisition req, String type, Map<String, Object> changes, User actor) {
         Long orgId = req.getOrganization() != null ? req.getOrganization().getId() : null;
-        if (orgId != null) {
-            messagingTemplate.convertAndSend("/topic/org." + orgId + "/requisitions", convertToDTO(req));
+        if (orgId == null) {
+            return;
         }
+        syncLogService.record(req, SYNC_OPERATIONS.get(type), changes, actor);
+        // A delete is the last change, one past the final stored version
+        long version = req.getVersion() != null ? req.getVersion() : 0;
+        if (RequisitionChangeEvent.DELETED.equals(type)) {
+            version++;
+        }
+        eventPublisher.publishEvent(new RequisitionChangedEvent(orgId,
+                req.getCreatedBy() != null ? req.getCreatedBy().getId() : null,
+                req.getStatus() != null ? req.getStatus().name() : null,
+                req.getPaymentStatus() != null ? req.getPaymentStatus().name() : null,
+                new RequisitionChangeEvent(req.getId(), version, type, changes)));
     }
 
     private void createApprovalChain(Requisition requisition) {
@@ -452,9 +614,51 @@ public class RequisitionService {
                 .toList(); // Filter in memory for simplicity and security (ensures org check)
     }
 
+    private Map<String, String> thumbnails(List<Requisition> requisitions) {
+        List<String> photoUrls = new ArrayList<>();
+        for (Requisition req : requisitions) {
+            photoUrls.add(req.getPaymentPhotoUrl());
+            photoUrls.add(req.getMaterialPhotoUrl());
+            photoUrls.add(req.getBillPhotoUrl());
+            photoUrls.add(req.getVendorPaymentDetailsUrl());
+        }
+        return fileStorageService.renditionUrls(photoUrls, FileStorageService.Rendition.THUMBNAIL);
+    }
+
+    private String thumbnailUrl(Map<String, String> thumbnails, String fileUrl) {
+        return fileUrl != null ? thumbnails.get(fileUrl) : null;
+    }
+
     private RequisitionDTO convertToDTO(Requisition req) {
-        RequisitionDTO dto = new RequisitionDTO();
+        return convertToDTO(req, attachmentService.countByRequisitionIds(List.of(req.getId()))
+                .getOrDefault(req.getId(), 0L), thumbnails(List.of(req)));
+    }
+
+    private RequisitionDTO convertToDTO(Requisition req, long attachmentCount, Map<String, String> thumbnails) {
+        RequisitionDTO dto = convertToDTO(req, attachmentCount, thumbnails, new RequisitionDTO());
+        dto.setCreatedBy(new UserDTO(
+                req.getCreatedBy().getId(),
+                req.getCreatedBy().getEmail(),
+                req.getCreatedBy().getFullName(),
+                req.getCreatedBy().getRole().toString(),
+                req.getCreatedBy().getDesignation(),
+                req.getCreatedBy().getDepartment(),
+                req.getCreatedBy().getProfilePhotoUrl(),
+                req.getCreatedBy().getOrganization() != null ? req.getCreatedBy().getOrganization().getId() : null,
+                req.getCreatedBy().getOrganization() != null ? req.getCreatedBy().getOrganization().getName() : null,
+                req.getCreatedBy().isActive()));
+        dto.setCreatedByName(req.getCreatedBy().getFullName());
+        dto.setApprovedByName(userName(req, req.getApprovedBy()));
+        dto.setPaidByName(userName(req, req.getPaidBy()));
+        dto.setDispatchedByName(userName(req, req.getDispatchedBy()));
+        return dto;
+    }
+
+    // Everything but the embedded users, which the normalized list side-loads
+    private <T extends RequisitionDTO> T convertToDTO(Requisition req, long attachmentCount,
+            Map<String, String> thumbnails, T dto) {
         dto.setId(req.getId());
+        dto.setVersion(req.getVersion());
         dto.setRequestId(req.getRequestId());
         dto.setType(req.getType().getName());
         dto.setDescription(req.getDescription());
@@ -481,25 +685,15 @@ public class RequisitionService {
         dto.setMaterialPhotoUrl(req.getMaterialPhotoUrl());
         dto.setBillPhotoUrl(req.getBillPhotoUrl());
         dto.setVendorPaymentDetailsUrl(req.getVendorPaymentDetailsUrl());
+        dto.setPaymentPhotoThumbnailUrl(thumbnailUrl(thumbnails, req.getPaymentPhotoUrl()));
+        dto.setMaterialPhotoThumbnailUrl(thumbnailUrl(thumbnails, req.getMaterialPhotoUrl()));
+        dto.setBillPhotoThumbnailUrl(thumbnailUrl(thumbnails, req.getBillPhotoUrl()));
+        dto.setVendorPaymentDetailsThumbnailUrl(thumbnailUrl(thumbnails, req.getVendorPaymentDetailsUrl()));
+        dto.setAttachmentCount(attachmentCount);
         dto.setApprovalNotes(req.getApprovalNotes());
         dto.setMaterialReceived(req.getMaterialReceived());
         dto.setReceiptNotes(req.getReceiptNotes());
 
-        dto.setCreatedBy(new UserDTO(
-                req.getCreatedBy().getId(),
-                req.getCreatedBy().getEmail(),
-                req.getCreatedBy().getFullName(),
-                req.getCreatedBy().getRole().toString(),
-                req.getCreatedBy().getDesignation(),
-                req.getCreatedBy().getDepartment(),
-                req.getCreatedBy().getProfilePhotoUrl(),
-                req.getCreatedBy().getOrganization() != null ? req.getCreatedBy().getOrganization().getId() : null,
-                req.getCreatedBy().getOrganization() != null ? req.getCreatedBy().getOrganization().getName() : null,
-                req.getCreatedBy().isActive()));
-        dto.setCreatedByName(req.getCreatedBy().getFullName());
-        dto.setApprovedByName(req.getApprovedBy() != null ? req.getApprovedBy().getFullName() : null);
-        dto.setPaidByName(req.getPaidBy() != null ? req.getPaidBy().getFullName() : null);
-        dto.setDispatchedByName(req.getDispatchedBy() != null ? req.getDispatchedBy().getFullName() : null);
         dto.setCreatedAt(req.getCreatedAt());
         dto.setUpdatedAt(req.getUpdatedAt());
         dto.setApprovedAt(req.getApprovedAt());
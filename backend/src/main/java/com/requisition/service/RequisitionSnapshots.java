@@ -0,0 +1,91 @@
+package com.requisition.service;
+
+import com.requisition.entity.Requisition;
+import com.requisition.entity.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Flat field maps of a requisition, used to work out which fields a mutation
+ * changed. Only fields clients render are included; related users are reduced
+ * to their names.
+ */
+final class RequisitionSnapshots {
+
+    private RequisitionSnapshots() {
+    }
+
+    static Map<String, Object> snapshot(Requisition req) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", name(req.getStatus()));
+        fields.put("approvalStatus", name(req.getApprovalStatus()));
+        fields.put("paymentStatus", name(req.getPaymentStatus()));
+        fields.put("dispatchStatus", name(req.getDispatchStatus()));
+        fields.put("priority", name(req.getPriority()));
+        fields.put("description", req.getDescription());
+        fields.put("siteAddress", req.getSiteAddress());
+        fields.put("materialDescription", req.getMaterialDescription());
+        fields.put("quantity", req.getQuantity());
+        fields.put("amount", req.getAmount());
+        fields.put("poDetails", req.getPoDetails());
+        fields.put("requiredFor", req.getRequiredFor());
+        fields.put("vendorName", req.getVendorName());
+        fields.put("indentNo", req.getIndentNo());
+        fields.put("cardSubtitleInfo", req.getCardSubtitleInfo());
+        fields.put("paymentUtrNo", req.getPaymentUtrNo());
+        fields.put("paymentMode", req.getPaymentMode());
+        fields.put("paymentDate", req.getPaymentDate());
+        fields.put("paymentAmount", req.getPaymentAmount());
+        fields.put("paymentPhotoUrl", req.getPaymentPhotoUrl());
+        fields.put("materialPhotoUrl", req.getMaterialPhotoUrl());
+        fields.put("billPhotoUrl", req.getBillPhotoUrl());
+        fields.put("vendorPaymentDetailsUrl", req.getVendorPaymentDetailsUrl());
+        fields.put("approvalNotes", req.getApprovalNotes());
+        fields.put("materialReceived", req.getMaterialReceived());
+        fields.put("receiptNotes", req.getReceiptNotes());
+        fields.put("approvedByName", fullName(req.getApprovedBy()));
+        fields.put("paidByName", fullName(req.getPaidBy()));
+        fields.put("dispatchedByName", fullName(req.getDispatchedBy()));
+        fields.put("submittedAt", req.getSubmittedAt());
+        fields.put("approvedAt", req.getApprovedAt());
+        fields.put("paidAt", req.getPaidAt());
+        fields.put("dispatchedAt", req.getDispatchedAt());
+        return fields;
+    }
+
+    /**
+     * Everything a client needs to show a new requisition in a list, without
+     * empty fields.
+     */
+    static Map<String, Object> created(Requisition req) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("requestId", req.getRequestId());
+        fields.put("type", req.getType() != null ? req.getType().getName() : null);
+        fields.put("createdById", req.getCreatedBy() != null ? req.getCreatedBy().getId() : null);
+        fields.put("createdByName", fullName(req.getCreatedBy()));
+        fields.put("createdAt", req.getCreatedAt());
+        fields.putAll(snapshot(req));
+        fields.values().removeIf(Objects::isNull);
+        return fields;
+    }
+
+    static Map<String, Object> diff(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            if (!Objects.equals(before.get(entry.getKey()), entry.getValue())) {
+                changes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changes;
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String fullName(User user) {
+        return user != null ? user.getFullName() : null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.requisition.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.SyncLog;
+import com.requisition.entity.User;
+import com.requisition.repository.SyncLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Writes the server change log behind GET /api/v1/sync and keeps it compact.
+ *
+ * Each entry takes the next value of its organization's change counter inside
+ * the transaction making the change. The counter row stays locked until that
+ * transaction commits, so entries become visible in sequence order and a client
+ * reading up to sequence N never misses an entry below N.
+ */
+@Service
+public class SyncLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncLogService.class);
+
+    public static final String REQUISITION = "REQUISITION";
+
+    @Autowired
+    private SyncLogRepository syncLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.sync.retention:P30D}")
+    private Duration retention;
+
+    @Transactional
+    public void record(Requisition req, SyncLog.SyncOperation operation, Map<String, Object> changes, User actor) {
+        Long orgId = req.getOrganization().getId();
+        // Native UPDATE ... RETURNING: increments and reads in one statement on the JPA connection
+        Long seq = jdbcTemplate.queryForObject(
+                "UPDATE organizations SET change_seq = change_seq + 1 WHERE id = ? RETURNING change_seq",
+                Long.class, orgId);
+
+        SyncLog entry = new SyncLog();
+        entry.setUser(actor);
+        entry.setOrganizationId(orgId);
+        entry.setSeq(seq);
+        entry.setEntityType(REQUISITION);
+        entry.setEntityId(req.getId());
+        entry.setOperation(operation);
+        entry.setPayload(toJson(changes));
+        entry.setSynced(true); // server-side entries never sit in a client outbox
+        entry.setSyncAt(LocalDateTime.now());
+        syncLogRepository.save(entry);
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.compaction-interval-ms:3600000}",
+            fixedDelayString = "${app.sync.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int superseded = syncLogRepository.deleteSuperseded();
+        syncLogRepository.advanceCompactedSeq(cutoff);
+        int expired = syncLogRepository.deleteExpired(cutoff);
+        if (superseded > 0 || expired > 0) {
+            log.info("Sync log compacted: {} superseded and {} expired entries removed", superseded, expired);
+        }
+    }
+
+    private String toJson(Map<String, Object> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
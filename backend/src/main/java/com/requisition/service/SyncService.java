@@ -0,0 +1,97 @@
+package com.requisition.service;
+
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.dto.SyncPageDTO;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.SyncLog;
+import com.requisition.entity.User;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.SyncLogRepository;
+import com.requisition.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for reconnecting clients: what changed in the organization since
+ * a cursor, as current requisition state plus tombstones.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SyncService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private SyncLogRepository syncLogRepository;
+    @Autowired
+    private OrganizationRepository organizationRepository;
+    @Autowired
+    private RequisitionRepository requisitionRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RequisitionService requisitionService;
+
+    public SyncPageDTO getChanges(Long userId, long since, int limit) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Long orgId = user.getOrganization().getId();
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        long current = organizationRepository.findChangeSeq(orgId);
+        long compacted = organizationRepository.findSyncCompactedSeq(orgId);
+        // A client without a cursor has nothing to apply changes to, and requisitions older than the change
+        // log have no entries at all: both start from a full load
+        if (since == 0 || since < compacted || since > current) {
+            return new SyncPageDTO(current, false, true, List.of(), List.of());
+        }
+
+        List<SyncLog> entries = syncLogRepository.findByOrganizationIdAndSeqGreaterThanOrderBySeqAsc(orgId, since,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        if (entries.isEmpty()) {
+            return new SyncPageDTO(since, false, false, List.of(), List.of());
+        }
+
+        // Latest operation per requisition within the page
+        Map<Long, SyncLog.SyncOperation> latest = new LinkedHashMap<>();
+        for (SyncLog entry : entries) {
+            latest.remove(entry.getEntityId());
+            latest.put(entry.getEntityId(), entry.getOperation());
+        }
+        List<Long> upserted = latest.entrySet().stream()
+                .filter(entry -> entry.getValue() != SyncLog.SyncOperation.DELETE)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        List<Requisition> found = requisitionRepository.findAllById(upserted).stream()
+                .filter(req -> req.getOrganization().getId().equals(orgId))
+                .toList();
+        Set<Long> foundIds = found.stream().map(Requisition::getId).collect(Collectors.toSet());
+
+        // Deleted in a later transaction than this page reaches: a tombstone now saves a round trip
+        List<Long> deleted = new ArrayList<>();
+        latest.forEach((id, operation) -> {
+            if (operation == SyncLog.SyncOperation.DELETE || !foundIds.contains(id)) {
+                deleted.add(id);
+            }
+        });
+        List<RequisitionDTO> changed = requisitionService.convertToDTOs(found);
+
+        long cursor = entries.get(entries.size() - 1).getSeq();
+        return new SyncPageDTO(cursor, hasMore, false, changed, deleted);
+    }
+}
@@ -0,0 +1,249 @@
+package com.requisition.service;
+
+import com.requisition.dto.UploadGcReportDTO;
+import com.requisition.entity.QuarantinedUpload;
+import com.requisition.repository.QuarantinedUploadRepository;
+import com.requisition.repository.StoredFileRepository;
+import com.requisition.storage.StoredObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Removes uploads that nothing references any more: files whose requisition
+ * update failed, replaced photos and logos, and files of deleted requisitions.
+ *
+ * Each run streams the store in batches, looks up which names are referenced
+ * with one set query per batch, and quarantines unreferenced files older than
+ * the grace period. Files still unreferenced after the quarantine period are
+ * deleted. Renditions are deleted together with their original.
+ */
+@Service
+public class UploadGarbageCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadGarbageCollector.class);
+
+    // Upload URLs have been stored under both prefixes over time
+    private static final List<String> URL_PREFIXES = List.of("/uploads/", "/api/v1/uploads/");
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private QuarantinedUploadRepository quarantineRepository;
+
+    @Value("${app.uploads.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.uploads.gc.grace-period:PT24H}")
+    private Duration gracePeriod;
+
+    @Value("${app.uploads.gc.quarantine-period:P7D}")
+    private Duration quarantinePeriod;
+
+    @Value("${app.uploads.gc.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.uploads.gc.pause-ms:200}")
+    private long pauseMillis;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile UploadGcReportDTO lastReport;
+
+    @Scheduled(initialDelayString = "${app.uploads.gc.initial-delay-ms:600000}",
+            fixedDelayString = "${app.uploads.gc.interval-ms:21600000}")
+    public void scheduledRun() {
+        if (enabled) {
+            collect();
+        }
+    }
+
+    public UploadGcReportDTO getLastReport() {
+        return lastReport;
+    }
+
+    public UploadGcReportDTO collect() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Upload garbage collection already running, skipping");
+            return lastReport;
+        }
+        UploadGcReportDTO report = new UploadGcReportDTO();
+        report.setStartedAt(LocalDateTime.now());
+        try {
+            sweep(report);
+            purge(report);
+        } catch (IOException e) {
+            log.error("Upload garbage collection aborted", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Upload garbage collection interrupted");
+        } finally {
+            running.set(false);
+        }
+        report.setFinishedAt(LocalDateTime.now());
+        lastReport = report;
+
+        log.info("Upload garbage collection: scanned {}, quarantined {}, restored {}, deleted {} ({} bytes reclaimed)",
+                report.getScannedFiles(), report.getQuarantinedFiles(), report.getRestoredFiles(),
+                report.getDeletedFiles(), report.getReclaimedBytes());
+        return report;
+    }
+
+    /**
+     * Phase 1: find unreferenced files older than the grace period and put them
+     * in quarantine; take files that are referenced again out of it.
+     */
+    private void sweep(UploadGcReportDTO report) throws IOException, InterruptedException {
+        Instant cutoff = Instant.now().minus(gracePeriod);
+        Map<String, Long> batch = new HashMap<>();
+
+        try (Stream<StoredObject> objects = fileStorageService.listFiles()) {
+            Iterator<StoredObject> it = objects.iterator();
+            while (it.hasNext()) {
+                StoredObject object = it.next();
+                report.setScannedFiles(report.getScannedFiles() + 1);
+                if (fileStorageService.isRendition(object.getKey()) || object.getLastModified().isAfter(cutoff)) {
+                    continue;
+                }
+                batch.put(object.getKey(), object.getSize());
+                if (batch.size() >= batchSize) {
+                    quarantineBatch(batch, report);
+                    batch.clear();
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            quarantineBatch(batch, report);
+        }
+    }
+
+    private void quarantineBatch(Map<String, Long> batch, UploadGcReportDTO report) {
+        Set<String> referenced = findReferenced(batch.keySet());
+
+        Set<String> alreadyQuarantined = new HashSet<>();
+        quarantineRepository.findAllById(batch.keySet())
+                .forEach(q -> alreadyQuarantined.add(q.getFileName()));
+
+        List<QuarantinedUpload> toQuarantine = new ArrayList<>();
+        List<String> toRestore = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : batch.entrySet()) {
+            String name = entry.getKey();
+            boolean quarantined = alreadyQuarantined.contains(name);
+            if (referenced.contains(name)) {
+                if (quarantined) {
+                    toRestore.add(name);
+                }
+            } else if (!quarantined) {
+                toQuarantine.add(new QuarantinedUpload(name, entry.getValue(), LocalDateTime.now()));
+            }
+        }
+
+        quarantineRepository.saveAll(toQuarantine);
+        quarantineRepository.deleteAllById(toRestore);
+        report.setQuarantinedFiles(report.getQuarantinedFiles() + toQuarantine.size());
+        report.setRestoredFiles(report.getRestoredFiles() + toRestore.size());
+    }
+
+    /**
+     * Phase 2: delete files that stayed unreferenced for the whole quarantine
+     * period. References are checked once more per batch, and each file's
+     * stored_files row is claimed right before its object is deleted.
+     */
+    private void purge(UploadGcReportDTO report) throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(quarantinePeriod);
+        Set<String> failed = new HashSet<>();
+
+        while (true) {
+            List<QuarantinedUpload> expired = quarantineRepository
+                    .findByQuarantinedAtBeforeOrderByFileName(cutoff, PageRequest.of(0, batchSize + failed.size()))
+                    .stream()
+                    .filter(q -> !failed.contains(q.getFileName()))
+                    .toList();
+            if (expired.isEmpty()) {
+                return;
+            }
+
+            Set<String> referenced = findReferenced(expired.stream().map(QuarantinedUpload::getFileName).toList());
+            for (QuarantinedUpload entry : expired) {
+                String name = entry.getFileName();
+                if (referenced.contains(name)) {
+                    quarantineRepository.deleteById(name);
+                    report.setRestoredFiles(report.getRestoredFiles() + 1);
+                    continue;
+                }
+                if (!claim(name)) {
+                    quarantineRepository.deleteById(name);
+                    report.setRestoredFiles(report.getRestoredFiles() + 1);
+                    continue;
+                }
+                try {
+                    long size = fileStorageService.statFile(name).map(StoredObject::getSize).orElse(0L);
+                    fileStorageService.deleteFile(name);
+                    quarantineRepository.deleteById(name);
+                    report.setDeletedFiles(report.getDeletedFiles() + 1);
+                    report.setReclaimedBytes(report.getReclaimedBytes() + size);
+                } catch (IOException | RuntimeException e) {
+                    failed.add(name);
+                    log.warn("Could not delete orphaned upload {}: {}", name, e.getMessage());
+                }
+            }
+            Thread.sleep(pauseMillis);
+        }
+    }
+
+    /**
+     * Deleting objects of a batch can take a while (S3), and an upload of the same
+     * content in the meantime finds the object, skips storing it and refreshes its
+     * row. The guarded delete loses to that upload. Files without a row predate
+     * stored_files; their names are not content hashes, so no upload can reuse them.
+     */
+    private boolean claim(String name) {
+        return storedFileRepository.deleteIfNotAcquiredSince(name, LocalDateTime.now().minus(gracePeriod)) > 0
+                || !storedFileRepository.existsByFileName(name);
+    }
+
+    /**
+     * Names from {@code fileNames} that are referenced by any requisition,
+     * attachment, profile photo or logo, or were acquired within the grace period
+     * (an upload whose owning update may still be in flight).
+     */
+    private Set<String> findReferenced(Collection<String> fileNames) {
+        Map<String, String> nameByUrl = new HashMap<>();
+        for (String name : fileNames) {
+            for (String prefix : URL_PREFIXES) {
+                nameByUrl.put(prefix + name, name);
+            }
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (String url : storedFileRepository.findReferencedUrls(nameByUrl.keySet())) {
+            referenced.add(nameByUrl.get(url));
+        }
+        referenced.addAll(storedFileRepository.findRecentlyAcquired(fileNames,
+                LocalDateTime.now().minus(gracePeriod)));
+        return referenced;
+    }
+}
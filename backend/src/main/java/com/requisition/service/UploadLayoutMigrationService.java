@@ -0,0 +1,91 @@
+package com.requisition.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import com.requisition.storage.LocalStorageBackend;
+import com.requisition.storage.StorageBackend;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Moves files from the flat upload root into the {@code ab/cd/<name>} fan-out.
+ *
+ * Runs online: {@link LocalStorageBackend} checks both layouts, and each move is
+ * a single rename, so files stay reachable throughout. Start it with
+ * {@code --app.uploads.migrate-layout=true}. Only applies to local storage.
+ */
+@Service
+public class UploadLayoutMigrationService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadLayoutMigrationService.class);
+
+    @Autowired
+    private StorageBackend storageBackend;
+
+    @Value("${app.uploads.migrate-layout:false}")
+    private boolean migrateOnStartup;
+
+    @Value("${app.uploads.migration.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.uploads.migration.pause-ms:1000}")
+    private long pauseMillis;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread worker = new Thread(() -> migrate(batchSize, pauseMillis), "upload-layout-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public int migrate(int batchSize, long pauseMillis) {
+        if (!(storageBackend instanceof LocalStorageBackend local)) {
+            log.info("Upload layout migration skipped: storage backend is not local");
+            return 0;
+        }
+        Path root = local.getRoot();
+        int moved = 0;
+        int failed = 0;
+        int inBatch = 0;
+
+        log.info("Migrating flat uploads in {} to sharded layout", root);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path entry : entries) {
+                try {
+                    if (local.migrateToShard(entry)) {
+                        moved++;
+                        inBatch++;
+                    }
+                } catch (IOException e) {
+                    failed++;
+                    log.warn("Could not migrate upload {}: {}", entry.getFileName(), e.getMessage());
+                }
+
+                if (inBatch >= batchSize) {
+                    inBatch = 0;
+                    log.info("Upload layout migration: {} files moved so far", moved);
+                    Thread.sleep(pauseMillis);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Upload layout migration aborted", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Upload layout migration interrupted after {} files", moved);
+        }
+
+        log.info("Upload layout migration finished: {} moved, {} failed", moved, failed);
+        return moved;
+    }
+}
@@ -0,0 +1,308 @@
+package com.requisition.service;
+
+import com.requisition.dto.CompleteDirectUploadRequest;
+import com.requisition.dto.CreateUploadSessionRequest;
+import com.requisition.dto.DirectUploadDTO;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.dto.UploadSessionDTO;
+import com.requisition.entity.PendingUpload;
+import com.requisition.exception.ConflictException;
+import com.requisition.repository.PendingUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads: a client opens a session, PUTs chunks at explicit offsets,
+ * can ask for the current offset after a dropped connection, and finalizes.
+ *
+ * Chunks are written straight into the session's part file with positional
+ * FileChannel writes; finalizing hashes the part file and renames it into the
+ * content-addressed store. Session state is kept per node, so clients must
+ * resume against the node that created the session.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final Set<String> FILE_TYPES = Set.of("payment", "material", "bill", "vendor_payment");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private RequisitionService requisitionService;
+
+    @Autowired
+    private PendingUploadRepository pendingUploadRepository;
+
+    @Value("${app.uploads.sessions.max-size:52428800}")
+    private long maxSize;
+
+    @Value("${app.uploads.sessions.ttl:PT24H}")
+    private Duration sessionTtl;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    private static class UploadSession {
+        private final String id;
+        private final Long userId;
+        private final Long requisitionId;
+        private final String type;
+        private final String fileName;
+        private final Long totalSize;
+        private final Path partFile;
+        private long offset;
+        private String storedName; // set once finalized, so a retried attach does not store it again
+        private volatile Instant lastActivity = Instant.now();
+
+        UploadSession(String id, Long userId, Long requisitionId, String type, String fileName, Long totalSize,
+                Path partFile) {
+            this.id = id;
+            this.userId = userId;
+            this.requisitionId = requisitionId;
+            this.type = type;
+            this.fileName = fileName;
+            this.totalSize = totalSize;
+            this.partFile = partFile;
+        }
+    }
+
+    public UploadSessionDTO createSession(Long requisitionId, Long userId, CreateUploadSessionRequest request) {
+        if (request.getType() == null || !FILE_TYPES.contains(request.getType())) {
+            throw new RuntimeException("Invalid upload type: " + request.getType());
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new RuntimeException("File name is required");
+        }
+        if (request.getTotalSize() != null && (request.getTotalSize() < 0 || request.getTotalSize() > maxSize)) {
+            throw new RuntimeException("File exceeds the maximum upload size of " + maxSize + " bytes");
+        }
+        // Fail fast on unknown or foreign requisitions rather than at finalize
+        requisitionService.getRequisitionById(requisitionId, userId);
+
+        String id = UUID.randomUUID().toString();
+        try {
+            Path partFile = fileStorageService.getSessionDirectory().resolve(id + ".part");
+            Files.createFile(partFile);
+            UploadSession session = new UploadSession(id, userId, requisitionId, request.getType(),
+                    request.getFileName(), request.getTotalSize(), partFile);
+            sessions.put(id, session);
+            return toDTO(session);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create upload session", e);
+        }
+    }
+
+    public UploadSessionDTO getSession(String sessionId, Long userId) {
+        UploadSession session = findSession(sessionId, userId);
+        synchronized (session) {
+            return toDTO(session);
+        }
+    }
+
+    /**
+     * Writes one chunk at {@code offset}. The offset must equal the bytes already
+     * received, so a retried chunk after a lost response is rejected with the
+     * current offset instead of being appended twice.
+     */
+    public UploadSessionDTO appendChunk(String sessionId, Long userId, long offset, InputStream body) {
+        UploadSession session = findSession(sessionId, userId);
+        synchronized (session) {
+            if (session.storedName != null) {
+                throw new ConflictException("Upload conflict: session is already finalized");
+            }
+            if (offset != session.offset) {
+                throw new ConflictException("Upload offset conflict: expected " + session.offset + " but got " + offset);
+            }
+
+            long position = session.offset;
+            try (ReadableByteChannel source = Channels.newChannel(body);
+                    FileChannel target = FileChannel.open(session.partFile, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    if (position + buffer.remaining() > limitFor(session)) {
+                        throw new RuntimeException("Chunk exceeds the declared upload size");
+                    }
+                    while (buffer.hasRemaining()) {
+                        position += target.write(buffer, position);
+                    }
+                    buffer.clear();
+                }
+            } catch (IOException e) {
+                // Keep whatever reached the disk; the client resumes from the reported offset
+                log.debug("Chunk for upload session {} interrupted at {}: {}", sessionId, position, e.getMessage());
+            } finally {
+                session.offset = position;
+                session.lastActivity = Instant.now();
+            }
+            return toDTO(session);
+        }
+    }
+
+    /**
+     * Stores the finished file and attaches it. The session stays open until the
+     * attach succeeds, so a failed attach (a conflict, say) can be retried with
+     * the file already stored. A file that is never attached is removed by the
+     * upload collector.
+     */
+    public RequisitionDTO completeSession(String sessionId, Long userId) {
+        UploadSession session = findSession(sessionId, userId);
+        synchronized (session) {
+            if (session.storedName == null) {
+                if (session.totalSize != null && session.offset != session.totalSize) {
+                    throw new RuntimeException("Upload incomplete: received " + session.offset + " of "
+                            + session.totalSize + " bytes");
+                }
+                session.storedName = fileStorageService.storeLocalFile(session.partFile, session.fileName);
+            }
+            session.lastActivity = Instant.now();
+            RequisitionDTO requisition = requisitionService.uploadFile(session.requisitionId, userId, session.type,
+                    session.storedName);
+            sessions.remove(sessionId);
+            return requisition;
+        }
+    }
+
+    /**
+     * Direct-to-storage upload: the client PUTs the file to the returned presigned
+     * URL and then calls {@link #completeDirectUpload}. Bytes never pass through
+     * this node, so this flow works against any node behind the load balancer.
+     */
+    public DirectUploadDTO createDirectUpload(Long requisitionId, Long userId, CreateUploadSessionRequest request) {
+        if (request.getType() == null || !FILE_TYPES.contains(request.getType())) {
+            throw new RuntimeException("Invalid upload type: " + request.getType());
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new RuntimeException("File name is required");
+        }
+        requisitionService.getRequisitionById(requisitionId, userId);
+        DirectUploadDTO upload = fileStorageService.createDirectUpload(request.getFileName());
+        LocalDateTime now = LocalDateTime.now();
+        pendingUploadRepository.save(new PendingUpload(upload.getKey(), userId, requisitionId, now,
+                now.plus(sessionTtl)));
+        return upload;
+    }
+
+    public RequisitionDTO completeDirectUpload(Long requisitionId, Long userId, CompleteDirectUploadRequest request) {
+        if (request.getType() == null || !FILE_TYPES.contains(request.getType())) {
+            throw new RuntimeException("Invalid upload type: " + request.getType());
+        }
+        if (request.getKey() == null || request.getKey().isBlank()) {
+            throw new RuntimeException("Upload key is required");
+        }
+        requisitionService.getRequisitionById(requisitionId, userId);
+
+        // Only keys issued by createDirectUpload to this user for this requisition
+        PendingUpload pending = pendingUploadRepository.findById(request.getKey())
+                .filter(p -> p.getUserId().equals(userId) && p.getRequisitionId().equals(requisitionId))
+                .orElseThrow(() -> new RuntimeException("Direct upload not found"));
+        if (pendingUploadRepository.claim(pending.getKey(), userId, requisitionId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Direct upload not found or expired");
+        }
+
+        try {
+            String storedName = fileStorageService.completeDirectUpload(pending.getKey());
+            return requisitionService.uploadFile(requisitionId, userId, request.getType(), storedName);
+        } catch (RuntimeException e) {
+            // Give the key back so the client can retry, e.g. once the object is visible
+            pendingUploadRepository.save(pending);
+            throw e;
+        }
+    }
+
+    public void abortSession(String sessionId, Long userId) {
+        UploadSession session = findSession(sessionId, userId);
+        if (sessions.remove(sessionId, session)) {
+            discard(session);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.uploads.sessions.cleanup-interval-ms:900000}")
+    public void removeStaleSessions() {
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        pendingUploadRepository.deleteExpired(LocalDateTime.now());
+
+        sessions.values().removeIf(session -> {
+            if (session.lastActivity.isBefore(cutoff)) {
+                discard(session);
+                return true;
+            }
+            return false;
+        });
+
+        // Part files left behind by a restart have no in-memory session any more
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(fileStorageService.getSessionDirectory(), "*.part")) {
+            for (Path part : parts) {
+                String id = part.getFileName().toString().replace(".part", "");
+                if (!sessions.containsKey(id) && Files.getLastModifiedTime(part).toInstant().isBefore(cutoff)) {
+                    deletePartFile(part);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep stale upload sessions: {}", e.getMessage());
+        }
+    }
+
+    private UploadSession findSession(String sessionId, Long userId) {
+        UploadSession session = sessions.get(sessionId);
+        if (session == null || !session.userId.equals(userId)) {
+            throw new RuntimeException("Upload session not found");
+        }
+        return session;
+    }
+
+    private long limitFor(UploadSession session) {
+        return session.totalSize != null ? session.totalSize : maxSize;
+    }
+
+    private void discard(UploadSession session) {
+        synchronized (session) {
+            deletePartFile(session.partFile);
+        }
+    }
+
+    private void deletePartFile(Path partFile) {
+        try {
+            Files.deleteIfExists(partFile);
+        } catch (IOException e) {
+            log.warn("Could not delete upload part {}: {}", partFile.getFileName(), e.getMessage());
+        }
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        return new UploadSessionDTO(
+                session.id,
+                session.requisitionId,
+                session.type,
+                session.fileName,
+                session.offset,
+                session.totalSize,
+                LocalDateTime.ofInstant(session.lastActivity.plus(sessionTtl), ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,332 @@
+package com.requisition.service;
+
+import com.requisition.dto.UserImportResultDTO;
+import com.requisition.dto.UserImportRowDTO;
+import com.requisition.entity.User;
+import com.requisition.exception.ConflictException;
+import com.requisition.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates users from an uploaded CSV with the columns email, fullName,
+ * password, role and optionally designation and department, in any order
+ * after a header row.
+ *
+ * Invalid and duplicate rows are reported and skipped; the rest are created.
+ * Existing emails are found with one IN query, passwords are hashed in parallel
+ * on the bounded hashing pool, and the inserts go out as JDBC batches in one
+ * transaction.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("email", "fullname", "password", "role");
+
+    private static final String INSERT_USER = "INSERT INTO users (organization_id, email, full_name, password_hash, "
+            + "role, designation, department, is_active, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, true, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRoster userRoster;
+
+    @Autowired
+    @Qualifier("passwordHashingPool")
+    private ForkJoinPool passwordHashingPool;
+
+    @Value("${app.users.bulk.max-rows:1000}")
+    private int maxRows;
+
+    @Value("${app.users.bulk.batch-size:100}")
+    private int batchSize;
+
+    private static class ImportRow {
+        private final int row;
+        private final Map<String, String> values;
+        private String passwordHash;
+
+        ImportRow(int row, Map<String, String> values) {
+            this.row = row;
+            this.values = values;
+        }
+
+        String get(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    public UserImportResultDTO importUsers(Long adminUserId, MultipartFile file) {
+        User admin = userRepository.findById(adminUserId)
+                .orElseThrow(() -> new RuntimeException("Admin not found"));
+        if (admin.getRole() != User.UserRole.ADMIN) {
+            throw new RuntimeException("Only admins can create users");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Empty user file not supported");
+        }
+
+        List<ImportRow> rows = read(file);
+        Map<Integer, UserImportRowDTO> report = new HashMap<>();
+        List<ImportRow> valid = validate(rows, report);
+
+        hash(valid);
+        insert(admin, valid, report);
+        if (!valid.isEmpty()) {
+            userRoster.changed(admin.getOrganization().getId());
+        }
+
+        List<UserImportRowDTO> results = rows.stream().map(row -> report.get(row.row)).toList();
+        int created = (int) results.stream().filter(r -> UserImportRowDTO.CREATED.equals(r.getStatus())).count();
+        log.info("Imported {} of {} users for organization {}", created, rows.size(),
+                admin.getOrganization().getId());
+        return new UserImportResultDTO(rows.size(), created, rows.size() - created, results);
+    }
+
+    private List<ImportRow> validate(List<ImportRow> rows, Map<Integer, UserImportRowDTO> report) {
+        List<ImportRow> candidates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (ImportRow row : rows) {
+            String error = check(row);
+            if (error == null && !seen.add(row.get("email"))) {
+                error = "Email repeated in file";
+            }
+            if (error != null) {
+                report.put(row.row, failed(row, error));
+            } else {
+                candidates.add(row);
+            }
+        }
+
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : userRepository.findExistingEmails(candidates.stream().map(row -> row.get("email")).toList());
+        List<ImportRow> valid = new ArrayList<>();
+        for (ImportRow row : candidates) {
+            if (existing.contains(row.get("email"))) {
+                report.put(row.row, failed(row, "Email already exists"));
+            } else {
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private String check(ImportRow row) {
+        if (!UserManagementService.isValidEmail(row.get("email"))) {
+            return "Invalid email format";
+        }
+        if (row.get("fullname") == null) {
+            return "Full name is required";
+        }
+        if (!UserManagementService.isValidPassword(row.values.get("password"))) {
+            return "Password must be at least 8 characters long and contain uppercase, lowercase, number, "
+                    + "and special character";
+        }
+        try {
+            User.UserRole.valueOf(String.valueOf(row.get("role")).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return "Role not supported: " + row.get("role");
+        }
+        return null;
+    }
+
+    private void hash(List<ImportRow> rows) {
+        try {
+            passwordHashingPool.submit(() -> rows.parallelStream()
+                    .forEach(row -> row.passwordHash = passwordEncoder.encode(row.values.get("password"))))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("User import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Could not hash passwords", e.getCause());
+        }
+    }
+
+    private void insert(User admin, List<ImportRow> rows, Map<Integer, UserImportRowDTO> report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Long organizationId = admin.getOrganization().getId();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    List<ImportRow> chunk = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                    GeneratedKeyHolder keys = new GeneratedKeyHolder();
+                    jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_USER, new String[] { "id" }),
+                            new BatchPreparedStatementSetter() {
+                                @Override
+                                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                    ImportRow row = chunk.get(i);
+                                    ps.setLong(1, organizationId);
+                                    ps.setString(2, row.get("email"));
+                                    ps.setString(3, row.get("fullname"));
+                                    ps.setString(4, row.passwordHash);
+                                    ps.setString(5, row.get("role").toUpperCase(Locale.ROOT));
+                                    ps.setString(6, row.get("designation"));
+                                    ps.setString(7, row.get("department"));
+                                    ps.setTimestamp(8, createdAt);
+                                }
+
+                                @Override
+                                public int getBatchSize() {
+                                    return chunk.size();
+                                }
+                            }, keys);
+                    List<Map<String, Object>> ids = keys.getKeyList();
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ImportRow row = chunk.get(i);
+                        Long id = i < ids.size() ? ((Number) ids.get(i).get("id")).longValue() : null;
+                        report.put(row.row, new UserImportRowDTO(row.row, row.get("email"),
+                                UserImportRowDTO.CREATED, id, null));
+                    }
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // An email was registered between the duplicate check and the insert
+            throw new ConflictException("User import conflict: an email in the file was just registered, retry");
+        }
+    }
+
+    private List<ImportRow> read(MultipartFile file) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            List<List<String>> records = parseCsv(reader);
+            if (records.isEmpty()) {
+                throw new RuntimeException("Empty user file not supported");
+            }
+            List<String> header = records.get(0).stream()
+                    .map(column -> column.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT))
+                    .toList();
+            for (String column : REQUIRED_COLUMNS) {
+                if (!header.contains(column)) {
+                    throw new RuntimeException("User file without a " + column + " column not supported");
+                }
+            }
+            if (records.size() - 1 > maxRows) {
+                throw new RuntimeException("User files over " + maxRows + " rows are not supported");
+            }
+
+            List<ImportRow> rows = new ArrayList<>();
+            for (int i = 1; i < records.size(); i++) {
+                List<String> record = records.get(i);
+                if (record.stream().allMatch(String::isBlank)) {
+                    continue;
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int c = 0; c < header.size() && c < record.size(); c++) {
+                    values.put(header.get(c), record.get(c));
+                }
+                rows.add(new ImportRow(i, values));
+            }
+            return rows;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read user file", e);
+        }
+    }
+
+    // RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+    static List<List<String>> parseCsv(Reader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            char ch = (char) c;
+            if (records.isEmpty() && record.isEmpty() && field.isEmpty() && ch == '\uFEFF') {
+                continue; // byte order mark from spreadsheet exports
+            }
+            any = true;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                any = false;
+            } else {
+                field.append(ch);
+            }
+        }
+        if (any) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    private UserImportRowDTO failed(ImportRow row, String error) {
+        return new UserImportRowDTO(row.row, row.get("email"), UserImportRowDTO.FAILED, null, error);
+    }
+}
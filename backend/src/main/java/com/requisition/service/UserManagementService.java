@@ -1,16 +1,23 @@
 package com.requisition.service;
 
 import com.requisition.dto.CreateUserRequest;
+import com.requisition.dto.PageResponse;
 import com.requisition.dto.UpdateUserRequest;
 import com.requisition.dto.UserDTO;
+import com.requisition.dto.UserSummaryDTO;
 import com.requisition.entity.User;
 import com.requisition.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +30,11 @@ public class UserManagementService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserRoster userRoster;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
     public UserDTO createUser(Long adminUserId, CreateUserRequest request) {
         User admin = userRepository.findById(adminUserId)
                 .orElseThrow(() -> new RuntimeException("Admin not found"));
@@ -58,6 +70,7 @@ public class UserManagementService {
         newUser.setActive(true);
 
         userRepository.save(newUser);
+        userRoster.changed(admin.getOrganization().getId());
 
         return convertToDTO(newUser);
     }
@@ -66,12 +79,43 @@ public class UserManagementService {
         User admin = userRepository.findById(adminUserId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return userRepository.findAll().stream()
-                .filter(u -> u.getOrganization().getId().equals(admin.getOrganization().getId()))
+        return userRepository.findByOrganizationIdOrderByFullNameAsc(admin.getOrganization().getId()).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PageResponse<UserDTO> searchUsers(Long userId, String query, String role, int page, int size) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        String search = query == null || query.isBlank() ? ""
+                : "%" + query.trim().toLowerCase(Locale.ROOT) + "%";
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("fullName").and(Sort.by("id")));
+        return PageResponse.of(userRepository
+                .searchInOrganization(user.getOrganization().getId(), parseRole(role), search, pageable)
+                .map(this::convertToDTO));
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDTO> getRoster(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return new ArrayList<>(userRoster.list(user.getOrganization().getId()));
+    }
+
+    private User.UserRole parseRole(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        try {
+            return User.UserRole.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Role not supported: " + role);
+        }
+    }
+
     public UserDTO updateUser(Long adminUserId, Long userId, UpdateUserRequest request) {
         // Verify admin privileges
         User admin = userRepository.findById(adminUserId)
@@ -101,6 +145,7 @@ public class UserManagementService {
             user.setActive(request.getIsActive());
 
         userRepository.save(user);
+        userRoster.changed(admin.getOrganization().getId());
         return convertToDTO(user);
     }
 
@@ -128,6 +173,7 @@ public class UserManagementService {
 
         user.setActive(isActive);
         userRepository.save(user);
+        userRoster.changed(admin.getOrganization().getId());
         return convertToDTO(user);
     }
 
@@ -154,6 +200,7 @@ public class UserManagementService {
         }
 
         userRepository.delete(user);
+        userRoster.changed(admin.getOrganization().getId());
     }
 
     public void changePassword(Long userId, com.requisition.dto.ChangePasswordRequest request) {
@@ -180,7 +227,7 @@ public class UserManagementService {
         userRepository.save(user);
     }
 
-    private boolean isValidEmail(String email) {
+    static boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
@@ -188,7 +235,7 @@ public class UserManagementService {
         return email.matches(emailRegex);
     }
 
-    private boolean isValidPassword(String password) {
+    static boolean isValidPassword(String password) {
         if (password == null || password.length() < 8) {
             return false;
         }
@@ -225,9 +272,9 @@ public class UserManagementService {
 
         String fileName = fileStorageService.storeFile(file);
         String fileUrl = "/api/v1/uploads/" + fileName;
-
         user.setProfilePhotoUrl(fileUrl);
         User updatedUser = userRepository.save(user);
+        userRoster.changed(user.getOrganization().getId());
 
         return convertToDTO(updatedUser);
     }
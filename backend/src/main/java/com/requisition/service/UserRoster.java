@@ -0,0 +1,92 @@
+package com.requisition.service;
+
+import com.requisition.dto.UserSummaryDTO;
+import com.requisition.entity.User;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-organization id-to-user lookup for rendering names, kept in memory.
+ *
+ * Local user changes evict the organization's entry (again after commit, so a
+ * read racing the change cannot cache the old rows) and move the organization's
+ * change counter, which list ETags are built from. The TTL bounds how stale
+ * another node's copy can be when running more than one backend instance.
+ */
+@Component
+public class UserRoster {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Value("${app.users.roster-ttl:PT5M}")
+    private Duration ttl;
+
+    private final Map<Long, Entry> rosters = new ConcurrentHashMap<>();
+
+    private record Entry(Map<Long, UserSummaryDTO> users, long loadedAt) {
+    }
+
+    public Map<Long, UserSummaryDTO> get(Long organizationId) {
+        Entry entry = rosters.get(organizationId);
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt() > ttl.toMillis()) {
+            entry = new Entry(load(organizationId), System.currentTimeMillis());
+            rosters.put(organizationId, entry);
+        }
+        return entry.users();
+    }
+
+    public Collection<UserSummaryDTO> list(Long organizationId) {
+        return get(organizationId).values();
+    }
+
+    public UserSummaryDTO find(Long organizationId, Long userId) {
+        return userId != null ? get(organizationId).get(userId) : null;
+    }
+
+    // Names and photos are embedded in cached list responses: those must change with them
+    public void changed(Long organizationId) {
+        organizationRepository.bumpChangeSeq(organizationId);
+        evict(organizationId);
+    }
+
+    public void evict(Long organizationId) {
+        rosters.remove(organizationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rosters.remove(organizationId);
+                }
+            });
+        }
+    }
+
+    private Map<Long, UserSummaryDTO> load(Long organizationId) {
+        Map<Long, UserSummaryDTO> users = new LinkedHashMap<>();
+        for (User user : userRepository.findByOrganizationIdOrderByFullNameAsc(organizationId)) {
+            users.put(user.getId(), summary(user));
+        }
+        return Collections.unmodifiableMap(users);
+    }
+
+    static UserSummaryDTO summary(User user) {
+        return new UserSummaryDTO(user.getId(), user.getFullName(), user.getRole().toString(),
+                user.getDepartment(), user.getProfilePhotoUrl(), user.isActive());
+    }
+}
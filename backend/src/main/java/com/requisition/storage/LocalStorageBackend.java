@@ -0,0 +1,153 @@
+package com.requisition.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stores objects on the local filesystem in a two-level {@code ab/cd/<key>}
+ * fan-out. Files from before sharding are still found in the flat root.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) {
+        this.root = root;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(shardedPath(key)) || Files.exists(legacyPath(key));
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) {
+        Path path = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return Optional.of(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = shardedPath(key);
+        Files.createDirectories(target.getParent());
+        // Same filesystem as the upload temp area, so this is a rename
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(shardedPath(key));
+        Files.deleteIfExists(legacyPath(key));
+    }
+
+    @Override
+    public Stream<StoredObject> list() throws IOException {
+        // Both layouts live under the root; dot directories hold temp and session files
+        return Files.walk(root)
+                .filter(path -> !isHidden(root.relativize(path)))
+                .map(this::toStoredObject)
+                .flatMap(Optional::stream);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public Optional<URI> presignGet(String key, Duration ttl) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> presignPut(String key, String contentType, Duration ttl) {
+        return Optional.empty();
+    }
+
+    /**
+     * Moves a file from the flat root into its shard directory. Returns false when
+     * the entry was left alone (not a regular upload).
+     */
+    public boolean migrateToShard(Path legacyFile) throws IOException {
+        String name = legacyFile.getFileName().toString();
+        if (name.startsWith(".") || name.length() < 4 || !Files.isRegularFile(legacyFile)) {
+            return false;
+        }
+        Path target = shardedPath(name);
+        if (Files.exists(target)) {
+            // Same name means same content (hash) or a UUID that was already copied over
+            Files.delete(legacyFile);
+            return true;
+        }
+        Files.createDirectories(target.getParent());
+        Files.move(legacyFile, target, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    private boolean isHidden(Path relative) {
+        for (Path part : relative) {
+            if (part.toString().startsWith(".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<StoredObject> toStoredObject(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObject(path.getFileName().toString(), attributes.size(),
+                    attributes.lastModifiedTime().toInstant()));
+        } catch (IOException e) {
+            return Optional.empty(); // removed while walking
+        }
+    }
+
+    private Path resolve(String key) {
+        Path sharded = shardedPath(key);
+        if (Files.exists(sharded)) {
+            return sharded;
+        }
+        Path legacy = legacyPath(key);
+        if (Files.exists(legacy)) {
+            return legacy;
+        }
+        // The layout migration may have renamed it between the two checks
+        return sharded;
+    }
+
+    private Path shardedPath(String key) {
+        String shard = key.toLowerCase(Locale.ROOT);
+        return root.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4)).resolve(key);
+    }
+
+    private Path legacyPath(String key) {
+        return root.resolve(key);
+    }
+}
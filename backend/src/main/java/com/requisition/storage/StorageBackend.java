@@ -0,0 +1,49 @@
+package com.requisition.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Where upload bytes live. Keys are the flat public file names used in upload
+ * URLs ({@code /uploads/<key>}); each backend decides the physical layout.
+ */
+public interface StorageBackend {
+
+    boolean exists(String key);
+
+    Optional<StoredObject> stat(String key);
+
+    /**
+     * Stores the content of {@code source} under {@code key}, replacing any existing
+     * object. The caller owns {@code source} and deletes it afterwards if it still
+     * exists (local storage moves it instead of copying).
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Lazily lists every stored object. The stream holds directory handles or
+     * pagination state, so callers must close it.
+     */
+    Stream<StoredObject> list() throws IOException;
+
+    /**
+     * Filesystem path of the object when it is stored on this node, which allows
+     * zero-copy serving. Empty for remote backends.
+     */
+    Optional<Path> localPath(String key);
+
+    /** Presigned URL a client can GET directly. Empty if the backend cannot presign. */
+    Optional<URI> presignGet(String key, Duration ttl);
+
+    /** Presigned URL a client can PUT the object to directly. Empty if unsupported. */
+    Optional<URI> presignPut(String key, String contentType, Duration ttl);
+}
@@ -0,0 +1,261 @@
+package com.requisition.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.config.StompDestinations;
+import com.requisition.dto.RequisitionChangeEvent;
+import com.requisition.dto.WebSocketStatsDTO;
+import com.requisition.service.RequisitionEventBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one slow client from backing up the outbound channel for everyone.
+ *
+ * Per session it counts messages handed to the session against messages
+ * actually written to the socket; the difference is what sits in the session's
+ * send buffer. Once that passes {@code app.websocket.lag-threshold}, requisition
+ * change messages for the session are held back here instead, merged per
+ * subscription and requisition, so the client gets one message with the latest
+ * version and all changed fields when it catches up. Other messages are left to
+ * the transport's send time and buffer limits.
+ */
+@Component
+public class SessionBackpressure implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionBackpressure.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.websocket.lag-threshold:50}")
+    private int lagThreshold;
+
+    private final Map<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong droppedStale = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile MessageChannel outboundChannel;
+
+    private static class SessionState {
+        private final AtomicLong handed = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        // Guarded by the state itself
+        private final Map<String, Parked> parked = new LinkedHashMap<>();
+
+        int depth() {
+            return (int) Math.max(0, handed.get() - written.get());
+        }
+
+        synchronized int parkedCount() {
+            return parked.size();
+        }
+    }
+
+    private static class Parked {
+        private final String key;
+        private MessageHeaders headers;
+        private RequisitionChangeEvent change;
+
+        Parked(String key, MessageHeaders headers, RequisitionChangeEvent change) {
+            this.key = key;
+            this.headers = headers;
+            this.change = change;
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionState state = new SessionState();
+                sessions.put(session.getId(), state);
+                super.afterConnectionEstablished(new MeteredSession(session, state));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private class MeteredSession extends WebSocketSessionDecorator {
+        private final SessionState state;
+
+        MeteredSession(WebSocketSession session, SessionState state) {
+            super(session);
+            this.state = state;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                state.written.incrementAndGet();
+                if (state.depth() <= lagThreshold / 2 && state.parkedCount() > 0) {
+                    release(state);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        outboundChannel = channel;
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SessionState state = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (state == null || accessor.getMessageType() != SimpMessageType.MESSAGE
+                || !(message.getPayload() instanceof byte[] payload)
+                || !StompDestinations.carriesRequisitionChanges(clientDestination(accessor))) {
+            return message;
+        }
+        boolean lagging = state.depth() >= lagThreshold;
+        if (!lagging && state.parkedCount() == 0) {
+            return message;
+        }
+        RequisitionChangeEvent change = read(payload);
+        if (change == null) {
+            return message;
+        }
+
+        String key = accessor.getSubscriptionId() + ":" + change.getRequisitionId();
+        synchronized (state) {
+            Parked existing = state.parked.get(key);
+            if (existing == null && !lagging) {
+                return message;
+            }
+            if (existing != null) {
+                existing.change = RequisitionEventBroadcaster.merge(existing.change, change);
+                existing.headers = message.getHeaders();
+                droppedStale.incrementAndGet();
+            } else {
+                state.parked.put(key, new Parked(key, message.getHeaders(), change));
+            }
+        }
+        if (!lagging) {
+            release(state);
+        }
+        return null;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        SessionState state = sessionState(message);
+        if (state != null) {
+            state.handed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (ex != null && sessionState(message) != null) {
+            rejected.incrementAndGet();
+        }
+    }
+
+    private void release(SessionState state) {
+        List<Parked> ready;
+        synchronized (state) {
+            ready = new ArrayList<>(state.parked.values());
+            state.parked.clear();
+        }
+        MessageChannel channel = outboundChannel;
+        for (int i = 0; i < ready.size(); i++) {
+            Parked entry = ready.get(i);
+            boolean sent;
+            try {
+                sent = channel.send(MessageBuilder.createMessage(objectMapper.writeValueAsBytes(entry.change),
+                        entry.headers));
+            } catch (Exception e) {
+                log.debug("Could not release held update for requisition {}: {}",
+                        entry.change.getRequisitionId(), e.getMessage());
+                sent = false;
+            }
+            if (!sent) {
+                // Outbound pool is full: keep the rest for the next write to this session
+                repark(state, ready.subList(i, ready.size()));
+                return;
+            }
+        }
+    }
+
+    private void repark(SessionState state, List<Parked> entries) {
+        synchronized (state) {
+            for (Parked entry : entries) {
+                Parked newer = state.parked.get(entry.key);
+                if (newer != null) {
+                    newer.change = RequisitionEventBroadcaster.merge(entry.change, newer.change);
+                } else {
+                    state.parked.put(entry.key, entry);
+                }
+            }
+        }
+    }
+
+    public WebSocketStatsDTO getStats() {
+        int lagging = 0;
+        int parked = 0;
+        List<Integer> depths = new ArrayList<>();
+        for (SessionState state : sessions.values()) {
+            int depth = state.depth();
+            if (depth >= lagThreshold) {
+                lagging++;
+            }
+            parked += state.parkedCount();
+            if (depth > 0) {
+                depths.add(depth);
+            }
+        }
+        // Depths only: session ids would let a caller target other users' sessions
+        List<Integer> deepest = depths.stream().sorted(Comparator.reverseOrder()).limit(10).toList();
+        return new WebSocketStatsDTO(sessions.size(), lagging, parked, droppedStale.get(), rejected.get(), deepest);
+    }
+
+    private SessionState sessionState(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    // User destinations are resolved per session; the client subscribed to the original
+    private String clientDestination(SimpMessageHeaderAccessor accessor) {
+        Object original = accessor.getHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION);
+        return original != null ? original.toString() : accessor.getDestination();
+    }
+
+    private RequisitionChangeEvent read(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, RequisitionChangeEvent.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- V10: Attachments are listed per requisition (optionally per category), newest
+-- first, and counted per requisition for list views.
+CREATE INDEX IF NOT EXISTS idx_attachment_requisition_category
+    ON attachments(requisition_id, category, uploaded_at DESC);
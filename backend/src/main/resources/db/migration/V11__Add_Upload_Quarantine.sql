@@ -0,0 +1,9 @@
+-- V11: Unreferenced uploads found by the garbage collector are held here for a
+-- quarantine period before the file is deleted.
+CREATE TABLE upload_quarantine (
+    file_name VARCHAR(255) PRIMARY KEY,
+    file_size BIGINT,
+    quarantined_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_upload_quarantine_quarantined_at ON upload_quarantine(quarantined_at);
@@ -0,0 +1,2 @@
+-- V12: Row version for optimistic locking and ordered change events
+ALTER TABLE requisitions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- V13: sync_logs doubles as the server change log for delta sync. Entries get a
+-- per-organization sequence drawn from organizations.change_seq; the row lock
+-- taken by the increment is held until commit, so sequence order is commit order.
+ALTER TABLE organizations ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE organizations ADD COLUMN sync_compacted_seq BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE sync_logs ADD COLUMN organization_id BIGINT REFERENCES organizations(id);
+ALTER TABLE sync_logs ADD COLUMN seq BIGINT;
+
+CREATE UNIQUE INDEX idx_sync_logs_org_seq ON sync_logs(organization_id, seq);
+CREATE INDEX idx_sync_logs_entity ON sync_logs(organization_id, entity_type, entity_id);
@@ -0,0 +1,11 @@
+-- V14: Operation ids already applied by the batch mutation endpoint, so replays
+-- from offline clients return the original result instead of applying twice.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY, -- user id + ':' + client operation id
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    result TEXT NOT NULL, -- JSON of the operation result
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
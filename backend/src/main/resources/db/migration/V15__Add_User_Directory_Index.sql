@@ -0,0 +1,3 @@
+-- V15: The user directory is always scoped to one organization and usually
+-- filtered by role; name/email/department search runs on what is left.
+CREATE INDEX IF NOT EXISTS idx_users_organization_role ON users(organization_id, role);
@@ -0,0 +1,3 @@
+-- V16: Set by the rendition job once thumbnail and web copies exist, so lists
+-- can build rendition URLs without asking the storage backend per file.
+ALTER TABLE stored_files ADD COLUMN has_renditions BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,12 @@
+-- V17: Keys handed out for direct-to-storage uploads. Completing an upload
+-- consumes its row, so only keys this server issued to that user for that
+-- requisition can be attached.
+CREATE TABLE pending_uploads (
+    upload_key VARCHAR(255) PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    requisition_id BIGINT NOT NULL REFERENCES requisitions(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_pending_uploads_expires_at ON pending_uploads(expires_at);
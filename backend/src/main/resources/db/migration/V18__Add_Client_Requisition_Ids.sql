@@ -0,0 +1,11 @@
+-- V18: Server ids of requisitions created offline, by the client id the
+-- offline client gave them, so later batches can still refer to the client id.
+CREATE TABLE client_requisition_ids (
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    client_id VARCHAR(64) NOT NULL,
+    requisition_id BIGINT NOT NULL REFERENCES requisitions(id) ON DELETE CASCADE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, client_id)
+);
+
+CREATE INDEX idx_client_requisition_ids_requisition_id ON client_requisition_ids(requisition_id);
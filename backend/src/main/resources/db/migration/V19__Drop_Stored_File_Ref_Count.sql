@@ -0,0 +1,4 @@
+-- V19: The reference count was never read; the upload collector decides what is
+-- unused by looking for references in requisitions, attachments, users and
+-- organizations.
+ALTER TABLE stored_files DROP COLUMN ref_count;
@@ -0,0 +1,14 @@
+-- V8: Content-addressed upload store
+-- One row per physical file under uploads/, keyed by its hash-derived name.
+
+CREATE TABLE stored_files (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL UNIQUE,
+    content_hash VARCHAR(64) NOT NULL,
+    file_size BIGINT,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_stored_files_content_hash ON stored_files(content_hash);
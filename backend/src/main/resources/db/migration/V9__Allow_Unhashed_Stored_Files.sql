@@ -0,0 +1,3 @@
+-- V9: Files uploaded straight to object storage are never read by the server,
+-- so their content hash is unknown.
+ALTER TABLE stored_files ALTER COLUMN content_hash DROP NOT NULL;
@@ -0,0 +1,112 @@
+package com.requisition.cluster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes, each with its own broker channel, connected through an in-process
+ * pub/sub hub that behaves like Redis (every subscriber, including the
+ * publisher, receives every message).
+ */
+public class ClusterRelayTest {
+
+    private InMemoryRelayTransport hub;
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        hub = new InMemoryRelayTransport();
+        nodeA = new Node("node-a", hub);
+        nodeB = new Node("node-b", hub);
+    }
+
+    @Test
+    void broadcastOnOneNode_ReachesBothNodesExactlyOnce() {
+        nodeA.template.convertAndSend("/topic/org.1/requisitions", Map.of("id", 42));
+
+        assertEquals(1, nodeA.received.size());
+        assertEquals(1, nodeB.received.size());
+        assertEquals(1, hub.published.size()); // the relayed copy on node B is not published again
+
+        Message<?> relayed = nodeB.received.get(0);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(relayed);
+        assertEquals("/topic/org.1/requisitions", accessor.getDestination());
+        assertEquals("node-a", accessor.getHeader(ClusterRelay.RELAYED_HEADER));
+        assertEquals("application/json", accessor.getContentType().toString());
+        assertEquals("{\"id\":42}", new String((byte[]) relayed.getPayload()));
+    }
+
+    @Test
+    void broadcastsFromBothNodes_AreDeliveredEverywhere() {
+        nodeA.template.convertAndSend("/topic/org.1/requisitions", Map.of("id", 1));
+        nodeB.template.convertAndSend("/topic/org.1/requisitions", Map.of("id", 2));
+
+        assertEquals(2, nodeA.received.size());
+        assertEquals(2, nodeB.received.size());
+        assertEquals(2, hub.published.size());
+    }
+
+    @Test
+    void userDestinations_AreRelayedUnresolved() {
+        // Each node resolves "/user/..." against its own sessions
+        nodeA.template.convertAndSendToUser("7", "/queue/requisitions", Map.of("id", 3));
+
+        assertEquals(1, nodeB.received.size());
+        assertEquals("/user/7/queue/requisitions",
+                SimpMessageHeaderAccessor.wrap(nodeB.received.get(0)).getDestination());
+    }
+
+    @Test
+    void destinationsOutsideOrgTopics_StayLocal() {
+        nodeA.template.convertAndSend("/topic/system", Map.of("ping", true));
+
+        assertEquals(1, nodeA.received.size());
+        assertTrue(nodeB.received.isEmpty());
+        assertTrue(hub.published.isEmpty());
+    }
+
+    private static class Node {
+        final List<Message<?>> received = new CopyOnWriteArrayList<>();
+        final SimpMessagingTemplate template;
+
+        Node(String nodeId, RelayTransport transport) {
+            // Synchronous channel; the subscriber stands in for the local simple broker
+            ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+            ClusterRelay relay = new ClusterRelay(nodeId, transport, "/topic/org.", "/user/");
+            brokerChannel.addInterceptor(relay);
+            brokerChannel.subscribe(received::add);
+            relay.start(brokerChannel);
+            template = new SimpMessagingTemplate(brokerChannel);
+            template.setMessageConverter(new MappingJackson2MessageConverter()); // as the STOMP config does
+        }
+    }
+
+    private static class InMemoryRelayTransport implements RelayTransport {
+        final List<RelayEnvelope> published = new CopyOnWriteArrayList<>();
+        private final List<Consumer<RelayEnvelope>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(RelayEnvelope envelope) {
+            published.add(envelope);
+            listeners.forEach(listener -> listener.accept(envelope));
+        }
+
+        @Override
+        public void subscribe(Consumer<RelayEnvelope> listener) {
+            listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.requisition.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two RedisRelayTransports, each with its own Lettuce connections and listener
+ * container, talking to an in-process server that speaks the RESP2 subset
+ * Redis pub/sub needs (SUBSCRIBE, PUBLISH and the connection handshake).
+ */
+public class RedisRelayTransportTest {
+
+    private static final String CHANNEL = "requisition-relay";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Runnable> cleanup = new ArrayList<>();
+    private FakeRedis redis;
+
+    @BeforeEach
+    void startRedis() throws IOException {
+        redis = new FakeRedis();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        cleanup.forEach(Runnable::run);
+        redis.close();
+    }
+
+    @Test
+    void publishedEnvelope_ReachesEverySubscriberIntact() throws Exception {
+        BlockingQueue<RelayEnvelope> receivedByA = new LinkedBlockingQueue<>();
+        BlockingQueue<RelayEnvelope> receivedByB = new LinkedBlockingQueue<>();
+        RedisRelayTransport nodeA = transport(receivedByA);
+        transport(receivedByB);
+
+        // Not valid UTF-8, so a codec that treats the payload as text would corrupt it
+        byte[] payload = { '{', '"', 'n', '"', ':', 1, (byte) 0xC3, (byte) 0xFF, '}' };
+        nodeA.publish(new RelayEnvelope("node-a", "/topic/org.1/requisitions", "application/json", payload));
+
+        for (BlockingQueue<RelayEnvelope> received : List.of(receivedByA, receivedByB)) {
+            RelayEnvelope envelope = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(envelope);
+            assertEquals("node-a", envelope.getOriginNodeId());
+            assertEquals("/topic/org.1/requisitions", envelope.getDestination());
+            assertEquals("application/json", envelope.getContentType());
+            assertArrayEquals(payload, envelope.getPayload());
+        }
+    }
+
+    @Test
+    void malformedMessages_AreSkipped() throws Exception {
+        BlockingQueue<RelayEnvelope> received = new LinkedBlockingQueue<>();
+        RedisRelayTransport node = transport(received);
+
+        redis.publish(CHANNEL, "not json".getBytes(StandardCharsets.UTF_8));
+        node.publish(new RelayEnvelope("node-a", "/user/7/queue/requisitions", "application/json",
+                "{}".getBytes(StandardCharsets.UTF_8)));
+
+        RelayEnvelope envelope = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(envelope);
+        assertEquals("/user/7/queue/requisitions", envelope.getDestination());
+        assertTrue(received.isEmpty());
+    }
+
+    private RedisRelayTransport transport(BlockingQueue<RelayEnvelope> received) throws InterruptedException {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", redis.getPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+
+        RedisRelayTransport transport = new RedisRelayTransport(template, container, objectMapper, CHANNEL, 100);
+        int subscribers = redis.subscriberCount(CHANNEL);
+        transport.subscribe(received::add);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (redis.subscriberCount(CHANNEL) == subscribers && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(subscribers + 1, redis.subscriberCount(CHANNEL));
+
+        cleanup.add(() -> {
+            transport.shutdown();
+            container.stop();
+            connectionFactory.destroy();
+        });
+        return transport;
+    }
+
+    /** Just enough of the Redis protocol for Lettuce pub/sub. */
+    private static class FakeRedis implements AutoCloseable {
+
+        private final ServerSocket server;
+        private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+        private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+
+        FakeRedis() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "fake-redis");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return server.getLocalPort();
+        }
+
+        int subscriberCount(String channel) {
+            return subscribers.getOrDefault(channel, Set.of()).size();
+        }
+
+        int publish(String channel, byte[] message) {
+            Set<Connection> targets = subscribers.getOrDefault(channel, Set.of());
+            for (Connection target : targets) {
+                target.write(array(bulk("message"), bulk(channel), bulk(message)));
+            }
+            return targets.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    sockets.add(socket);
+                    Connection connection = new Connection(socket);
+                    Thread reader = new Thread(connection::serve, "fake-redis-connection");
+                    reader.setDaemon(true);
+                    reader.start();
+                } catch (IOException e) {
+                    return; // closed
+                }
+            }
+        }
+
+        private class Connection {
+            private final Socket socket;
+            private final OutputStream out;
+            private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+            Connection(Socket socket) throws IOException {
+                this.socket = socket;
+                this.out = socket.getOutputStream();
+            }
+
+            void serve() {
+                try (InputStream in = new BufferedInputStream(socket.getInputStream())) {
+                    List<byte[]> command;
+                    while ((command = readCommand(in)) != null) {
+                        handle(command);
+                    }
+                } catch (IOException e) {
+                    // client went away
+                } finally {
+                    channels.forEach(channel -> subscribers.get(channel).remove(this));
+                }
+            }
+
+            private void handle(List<byte[]> command) {
+                String name = text(command.get(0)).toUpperCase();
+                switch (name) {
+                    case "HELLO" -> write(line("-ERR unknown command 'HELLO'")); // makes Lettuce fall back to RESP2
+                    case "PING" -> write(channels.isEmpty() ? line("+PONG") : array(bulk("pong"), bulk("")));
+                    case "SUBSCRIBE" -> {
+                        for (byte[] channel : command.subList(1, command.size())) {
+                            channels.add(text(channel));
+                            subscribers.computeIfAbsent(text(channel), c -> ConcurrentHashMap.newKeySet()).add(this);
+                            write(array(bulk("subscribe"), bulk(channel), line(":" + channels.size())));
+                        }
+                    }
+                    case "UNSUBSCRIBE" -> {
+                        List<String> targets = command.size() > 1
+                                ? command.subList(1, command.size()).stream().map(this::text).toList()
+                                : List.copyOf(channels);
+                        for (String channel : targets) {
+                            channels.remove(channel);
+                            subscribers.getOrDefault(channel, Set.of()).remove(this);
+                            write(array(bulk("unsubscribe"), bulk(channel), line(":" + channels.size())));
+                        }
+                        if (targets.isEmpty()) {
+                            write(array(bulk("unsubscribe"), line("$-1"), line(":0")));
+                        }
+                    }
+                    case "PUNSUBSCRIBE" -> write(array(bulk("punsubscribe"), line("$-1"), line(":0")));
+                    case "PUBLISH" -> write(line(":" + publish(text(command.get(1)), command.get(2))));
+                    default -> write(line("+OK")); // CLIENT SETINFO, SELECT, QUIT, ...
+                }
+            }
+
+            synchronized void write(byte[] reply) {
+                try {
+                    out.write(reply);
+                    out.flush();
+                } catch (IOException e) {
+                    // the reader thread notices the broken connection
+                }
+            }
+
+            private String text(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+
+        private static List<byte[]> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            if (header.charAt(0) != '*') {
+                throw new IOException("Unexpected inline command " + header);
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<byte[]> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                parts.add(in.readNBytes(length));
+                in.readNBytes(2); // CRLF
+            }
+            return parts;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\r') {
+                    in.read(); // '\n'
+                    return line.toString(StandardCharsets.UTF_8);
+                }
+                line.write(b);
+            }
+            return null;
+        }
+
+        private static byte[] line(String value) {
+            return (value + "\r\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static byte[] bulk(String value) {
+            return bulk(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static byte[] bulk(byte[] value) {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            reply.writeBytes(line("$" + value.length));
+            reply.writeBytes(value);
+            reply.writeBytes(line(""));
+            return reply.toByteArray();
+        }
+
+        private static byte[] array(byte[]... elements) {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            reply.writeBytes(line("*" + elements.length));
+            for (byte[] element : elements) {
+                reply.writeBytes(element);
+            }
+            return reply.toByteArray();
+        }
+    }
+}
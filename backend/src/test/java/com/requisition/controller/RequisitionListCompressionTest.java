@@ -0,0 +1,126 @@
+package com.requisition.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.security.JwtUtil;
+import com.requisition.service.ConditionalGetTracker;
+import com.requisition.service.RequisitionService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * GET /requisitions on an embedded Tomcat connector configured like
+ * server.compression in application.yml: the list is gzipped and its ETag
+ * still answers a conditional GET with 304.
+ */
+public class RequisitionListCompressionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private RequisitionService requisitionService;
+    private Tomcat tomcat;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        requisitionService = mock(RequisitionService.class);
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.extractUserId("token")).thenReturn(1L);
+        OrganizationRepository organizationRepository = mock(OrganizationRepository.class);
+        when(organizationRepository.findChangeSeqForUser(1L)).thenReturn(42L);
+        RequisitionController controller = new RequisitionController();
+        ReflectionTestUtils.setField(controller, "requisitionService", requisitionService);
+        ReflectionTestUtils.setField(controller, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(controller, "organizationRepository", organizationRepository);
+        ReflectionTestUtils.setField(controller, "conditionalGetTracker", new ConditionalGetTracker());
+
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("compression-test-tomcat").toString());
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+        connector.setPort(0);
+        connector.setProperty("compression", "on");
+        connector.setProperty("compressibleMimeType", "application/json");
+        connector.setProperty("compressionMinSize", "2048");
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "requisitions", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                ResponseEntity<?> entity = controller.getAll(request, new ServletWebRequest(request, response));
+                if (entity != null) {
+                    response.setContentType("application/json");
+                    objectMapper.writeValue(response.getOutputStream(), entity.getBody());
+                }
+            }
+        });
+        context.addServletMappingDecoded("/*", "requisitions");
+        tomcat.start();
+        url = "http://localhost:" + connector.getLocalPort() + "/api/v1/requisitions";
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Test
+    void list_IsGzippedAndRevalidatesWithItsETag() throws Exception {
+        when(requisitionService.getAllRequisitions(1L)).thenReturn(requisitions(100));
+
+        HttpURLConnection first = get(null);
+        assertEquals(200, first.getResponseCode());
+        assertEquals("gzip", first.getHeaderField("Content-Encoding"));
+        String etag = first.getHeaderField("ETag");
+        assertEquals("W/\"reqs-42\"", etag);
+        try (InputStream in = new GZIPInputStream(first.getInputStream())) {
+            assertEquals(100, objectMapper.readTree(in).get("data").size());
+        }
+
+        HttpURLConnection repeat = get(etag);
+        assertEquals(304, repeat.getResponseCode());
+        verify(requisitionService, times(1)).getAllRequisitions(1L);
+    }
+
+    private HttpURLConnection get(String ifNoneMatch) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestProperty("Authorization", "Bearer token");
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        if (ifNoneMatch != null) {
+            connection.setRequestProperty("If-None-Match", ifNoneMatch);
+        }
+        return connection;
+    }
+
+    private static List<RequisitionDTO> requisitions(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            RequisitionDTO dto = new RequisitionDTO();
+            dto.setId(id);
+            dto.setDescription("Cement, 40 bags for site " + id);
+            return dto;
+        }).toList();
+    }
+}
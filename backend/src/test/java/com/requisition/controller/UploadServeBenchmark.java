@@ -0,0 +1,148 @@
+package com.requisition.controller;
+
+import com.requisition.service.FileStorageService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.catalina.Context;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Download throughput of UploadController with Tomcat sendfile against the
+ * FileChannel copy fallback, on the same embedded NIO connector with
+ * useSendfile on and off. Not part of the normal test run; run it with
+ *
+ *   mvn test -Dtest=UploadServeBenchmark
+ *
+ * Reports MB/s and server CPU time per request for each mode.
+ */
+public class UploadServeBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadServeBenchmark.class);
+
+    private static final int FILE_SIZE = 8 * 1024 * 1024;
+    private static final int WARMUP = 20;
+    private static final int REQUESTS = 200;
+
+    private static Path file;
+
+    @BeforeAll
+    static void createFile() throws IOException {
+        file = Files.createTempFile("serve-benchmark-", ".jpg");
+        byte[] bytes = new byte[FILE_SIZE];
+        new Random(42).nextBytes(bytes);
+        Files.write(file, bytes);
+    }
+
+    @AfterAll
+    static void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void sendfileVersusCopy() throws Exception {
+        Result copy = run(false);
+        Result sendfile = run(true);
+        log.info("{} x {} MB, stream copy: {} MB/s, {} us server CPU per request",
+                REQUESTS, FILE_SIZE >> 20, copy.megabytesPerSecond(), copy.cpuMicrosPerRequest());
+        log.info("{} x {} MB, sendfile:    {} MB/s, {} us server CPU per request",
+                REQUESTS, FILE_SIZE >> 20, sendfile.megabytesPerSecond(), sendfile.cpuMicrosPerRequest());
+    }
+
+    private record Result(long megabytesPerSecond, long cpuMicrosPerRequest) {
+    }
+
+    private Result run(boolean useSendfile) throws Exception {
+        FileStorageService storage = mock(FileStorageService.class);
+        when(storage.localPath(anyString())).thenReturn(Optional.of(file));
+        UploadController controller = new UploadController();
+        ReflectionTestUtils.setField(controller, "fileStorageService", storage);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("serve-benchmark-tomcat").toString());
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+        connector.setPort(0);
+        connector.setProperty("useSendfile", String.valueOf(useSendfile));
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "uploads", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                controller.serve("photo.jpg", request, response);
+            }
+        });
+        context.addServletMappingDecoded("/*", "uploads");
+        tomcat.start();
+        try {
+            String url = "http://localhost:" + connector.getLocalPort() + "/photo.jpg";
+            for (int i = 0; i < WARMUP; i++) {
+                download(url);
+            }
+            Map<Long, Long> cpuBefore = serverCpuTimes();
+            long started = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                download(url);
+            }
+            long elapsed = System.nanoTime() - started;
+            long cpu = 0;
+            for (Map.Entry<Long, Long> thread : serverCpuTimes().entrySet()) {
+                cpu += thread.getValue() - cpuBefore.getOrDefault(thread.getKey(), 0L);
+            }
+            long megabytes = (long) REQUESTS * FILE_SIZE >> 20;
+            return new Result(megabytes * 1_000_000_000L / elapsed, cpu / 1000 / REQUESTS);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    // CPU time of the connector's threads; Tomcat finishes sendfile on its poller, not the request thread
+    private Map<Long, Long> serverCpuTimes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<Long, Long> times = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("http-nio")) {
+                times.put(thread.getId(), threads.getThreadCpuTime(thread.getId()));
+            }
+        }
+        return times;
+    }
+
+    private void download(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        byte[] buffer = new byte[64 * 1024];
+        long received = 0;
+        try (InputStream in = connection.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                received += read;
+            }
+        }
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(FILE_SIZE, received);
+    }
+}
@@ -0,0 +1,176 @@
+package com.requisition.security;
+
+import com.requisition.config.StompDestinations;
+import com.requisition.entity.Organization;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.security.Principal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StompAuthChannelInterceptorTest {
+
+    private static final Long ORG = 1L;
+    private static final Long OTHER_ORG = 12L;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RequisitionRepository requisitionRepository;
+
+    @Mock
+    private MessageChannel channel;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    @Test
+    void connect_AttachesThePrincipalFromTheBearerToken() {
+        User user = new User();
+        user.setId(7L);
+        user.setRole(User.UserRole.MANAGER);
+        Organization organization = new Organization();
+        organization.setId(ORG);
+        user.setOrganization(organization);
+        when(jwtUtil.isTokenValid("token")).thenReturn(true);
+        when(jwtUtil.extractUserId("token")).thenReturn(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+        accessor.setLeaveMutable(true);
+        Message<?> message = interceptor.preSend(MessageBuilder.createMessage(new byte[0],
+                accessor.getMessageHeaders()), channel);
+
+        StompPrincipal principal = (StompPrincipal) StompHeaderAccessor.wrap(message).getUser();
+        assertEquals(7L, principal.getUserId());
+        assertEquals(ORG, principal.getOrganizationId());
+        assertEquals(User.UserRole.MANAGER, principal.getRole());
+    }
+
+    @Test
+    void connect_WithoutAValidToken_IsRejected() {
+        when(jwtUtil.isTokenValid("expired")).thenReturn(false);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.addNativeHeader("Authorization", "Bearer expired");
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), channel));
+
+        StompHeaderAccessor anonymous = StompHeaderAccessor.create(StompCommand.CONNECT);
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(
+                MessageBuilder.createMessage(new byte[0], anonymous.getMessageHeaders()), channel));
+    }
+
+    @Test
+    void subscribe_WithoutAnAuthenticatedSession_IsRejected() {
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(null, StompDestinations.stats(ORG)), channel));
+    }
+
+    @Test
+    void subscribe_ToAForbiddenDestination_IsRejected() {
+        StompPrincipal purchaser = principal(User.UserRole.PURCHASER);
+
+        assertThrows(MessageDeliveryException.class,
+                () -> interceptor.preSend(subscribe(purchaser, StompDestinations.requisitions(ORG)), channel));
+        assertNotNull(interceptor.preSend(subscribe(purchaser, StompDestinations.stats(ORG)), channel));
+    }
+
+    @Test
+    void userQueues_AreOpenToEverySession() {
+        for (User.UserRole role : User.UserRole.values()) {
+            assertTrue(interceptor.canSubscribe(principal(role), "/user" + StompDestinations.USER_REQUISITIONS));
+        }
+    }
+
+    @Test
+    void organizationFeed_IsAdminOnly() {
+        for (User.UserRole role : User.UserRole.values()) {
+            assertEquals(role == User.UserRole.ADMIN,
+                    interceptor.canSubscribe(principal(role), StompDestinations.requisitions(ORG)), role.name());
+        }
+    }
+
+    @Test
+    void workflowTopics_FollowTheRole() {
+        for (User.UserRole role : User.UserRole.values()) {
+            StompPrincipal principal = principal(role);
+            assertEquals(role == User.UserRole.ADMIN || role == User.UserRole.MANAGER,
+                    interceptor.canSubscribe(principal, StompDestinations.pendingApproval(ORG)), role.name());
+            assertEquals(role == User.UserRole.ADMIN || role == User.UserRole.ACCOUNTANT,
+                    interceptor.canSubscribe(principal, StompDestinations.awaitingPayment(ORG)), role.name());
+        }
+    }
+
+    @Test
+    void otherOrganizations_AreNeverVisible() {
+        StompPrincipal admin = principal(User.UserRole.ADMIN);
+
+        assertFalse(interceptor.canSubscribe(admin, StompDestinations.requisitions(OTHER_ORG)));
+        // "/topic/org.12/..." shares a prefix with organization 1's topics
+        assertFalse(interceptor.canSubscribe(admin, StompDestinations.stats(OTHER_ORG)));
+        assertFalse(interceptor.canSubscribe(admin, StompDestinations.requisition(OTHER_ORG, 100L)));
+        verifyNoInteractions(requisitionRepository);
+    }
+
+    @Test
+    void requisitionTopic_NeedsARequisitionOfTheOrganization() {
+        StompPrincipal purchaser = principal(User.UserRole.PURCHASER);
+        when(requisitionRepository.existsByIdAndOrganizationId(100L, ORG)).thenReturn(true);
+        when(requisitionRepository.existsByIdAndOrganizationId(200L, ORG)).thenReturn(false);
+
+        assertTrue(interceptor.canSubscribe(purchaser, StompDestinations.requisition(ORG, 100L)));
+        assertFalse(interceptor.canSubscribe(purchaser, StompDestinations.requisition(ORG, 200L)));
+        assertFalse(interceptor.canSubscribe(purchaser, "/topic/org.1/requisition.abc"));
+    }
+
+    @Test
+    void sharedOrganizationTopics_AreOpenToMembers() {
+        for (User.UserRole role : User.UserRole.values()) {
+            assertTrue(interceptor.canSubscribe(principal(role), StompDestinations.stats(ORG)));
+            assertTrue(interceptor.canSubscribe(principal(role), StompDestinations.attachments(ORG)));
+        }
+    }
+
+    @Test
+    void destinationsOutsideOrganizationTopics_AreRejected() {
+        StompPrincipal admin = principal(User.UserRole.ADMIN);
+
+        assertFalse(interceptor.canSubscribe(admin, null));
+        assertFalse(interceptor.canSubscribe(admin, "/topic/system"));
+        assertFalse(interceptor.canSubscribe(admin, "/user/7/queue/requisitions"));
+    }
+
+    private StompPrincipal principal(User.UserRole role) {
+        return new StompPrincipal(7L, ORG, role);
+    }
+
+    private Message<byte[]> subscribe(Principal user, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
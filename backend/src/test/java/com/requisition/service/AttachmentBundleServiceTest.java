@@ -0,0 +1,137 @@
+package com.requisition.service;
+
+import com.requisition.dto.AttachmentBundleRequest;
+import com.requisition.entity.Organization;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.RequisitionAttachment;
+import com.requisition.entity.User;
+import com.requisition.repository.RequisitionAttachmentRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.UserRepository;
+import com.requisition.storage.StoredObject;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AttachmentBundleServiceTest {
+
+    @Mock
+    private RequisitionRepository requisitionRepository;
+
+    @Mock
+    private RequisitionAttachmentRepository attachmentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private AttachmentBundleService attachmentBundleService;
+
+    @Test
+    void resolveQuery_RejectsAnUnknownStatus() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user()));
+        AttachmentBundleRequest request = new AttachmentBundleRequest();
+        request.setStatus("ARCHIVED");
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> attachmentBundleService.resolveQuery(1L, request));
+
+        assertTrue(error.getMessage().contains("not supported"));
+    }
+
+    @Test
+    void writeZip_ReadsEachFileOnceAndEndsWithTheManifest() throws IOException {
+        Requisition req = new Requisition();
+        req.setId(7L);
+        req.setRequestId("ORB/25/P00007");
+        req.setBillPhotoUrl("/uploads/bill.jpg");
+        req.setPaymentPhotoUrl("/uploads/gone.jpg");
+        RequisitionAttachment quote = new RequisitionAttachment();
+        quote.setRequisition(req);
+        quote.setFileName("quote.pdf");
+        quote.setFileUrl("/uploads/quote.pdf");
+        quote.setCategory(RequisitionAttachment.AttachmentCategory.ITEM);
+
+        when(requisitionRepository.streamForExportByIds(10L, List.of(7L))).thenReturn(Stream.of(req));
+        when(attachmentRepository.findByRequisitionIds(anyList())).thenReturn(List.of(quote));
+        when(fileStorageService.statFile("/uploads/gone.jpg")).thenReturn(Optional.empty());
+        stored("/uploads/bill.jpg", "jpeg bytes");
+        stored("/uploads/quote.pdf", "pdf bytes");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        attachmentBundleService.writeZip(new AttachmentBundleService.BundleQuery(10L, List.of(7L), null, null,
+                null, null, Set.of()), out);
+
+        Map<String, String> entries = unzip(out.toByteArray());
+        assertEquals(List.of("ORB-25-P00007/bill/bill.jpg", "ORB-25-P00007/item/quote.pdf", "manifest.csv"),
+                List.copyOf(entries.keySet()));
+        assertEquals("jpeg bytes", entries.get("ORB-25-P00007/bill/bill.jpg"));
+        assertEquals("pdf bytes", entries.get("ORB-25-P00007/item/quote.pdf"));
+        assertEquals("request_id,requisition_id,category,path,size_bytes,status\n"
+                + "ORB/25/P00007,7,PAYMENT,ORB-25-P00007/payment/gone.jpg,0,missing\n"
+                + "ORB/25/P00007,7,BILL,ORB-25-P00007/bill/bill.jpg,10,included\n"
+                + "ORB/25/P00007,7,ITEM,ORB-25-P00007/item/quote.pdf,9,included\n", entries.get("manifest.csv"));
+        verify(fileStorageService, times(1)).openFile("/uploads/bill.jpg");
+        verify(fileStorageService, times(1)).openFile("/uploads/quote.pdf");
+        verify(entityManager).clear();
+    }
+
+    private void stored(String url, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        when(fileStorageService.statFile(url))
+                .thenReturn(Optional.of(new StoredObject(url, bytes.length, Instant.now())));
+        when(fileStorageService.openFile(url)).thenReturn(new ByteArrayInputStream(bytes));
+    }
+
+    private Map<String, String> unzip(byte[] zip) throws IOException {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private User user() {
+        Organization organization = new Organization();
+        organization.setId(10L);
+        User user = new User();
+        user.setId(1L);
+        user.setOrganization(organization);
+        return user;
+    }
+}
@@ -0,0 +1,134 @@
+package com.requisition.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.dto.BatchMutationRequest;
+import com.requisition.dto.BatchMutationResultDTO;
+import com.requisition.dto.CreateRequisitionRequest;
+import com.requisition.dto.MutationOperation;
+import com.requisition.dto.MutationResultDTO;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchMutationServiceTest {
+
+    private static final Long USER = 1L;
+
+    @Mock
+    private RequisitionService requisitionService;
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BatchMutationService batchMutationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchMutationService, "idempotencyTtl", Duration.ofDays(7));
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(idempotencyKeyRepository.findAllById(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void createdOffline_StoresTheServerIdUnderTheClientId() {
+        CreateRequisitionRequest data = new CreateRequisitionRequest();
+        when(requisitionService.createRequisition(USER, data)).thenReturn(created(100L));
+
+        BatchMutationResultDTO result = batchMutationService.apply(USER, batch(
+                new MutationOperation("op-1", MutationOperation.CREATE, "local-1", null, data)));
+
+        assertTrue(result.isApplied());
+        assertEquals(100L, result.getResults().get(0).getRequisitionId());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO client_requisition_ids"), rows.capture());
+        assertArrayEquals(new Object[] { USER, "local-1", 100L }, rows.getValue().get(0));
+    }
+
+    @Test
+    void clientIdFromAnEarlierBatch_ResolvesToTheStoredServerId() throws Exception {
+        storedServerIds(Map.of("local-1", 100L));
+
+        BatchMutationResultDTO result = batchMutationService.apply(USER, batch(
+                new MutationOperation("op-2", MutationOperation.SUBMIT, "local-1", null, null)));
+
+        assertTrue(result.isApplied());
+        assertEquals(100L, result.getResults().get(0).getRequisitionId());
+        verify(requisitionService).submitRequisition(100L, USER);
+        verify(jdbcTemplate).query(contains("client_id IN (?)"), any(RowCallbackHandler.class),
+                eq(USER), eq("local-1"));
+    }
+
+    @Test
+    void unknownClientId_FailsOnlyThatBatch() throws Exception {
+        storedServerIds(Map.of());
+
+        BatchMutationResultDTO result = batchMutationService.apply(USER, batch(
+                new MutationOperation("op-2", MutationOperation.SUBMIT, "local-9", null, null)));
+
+        assertFalse(result.isApplied());
+        MutationResultDTO failed = result.getResults().get(0);
+        assertEquals(MutationResultDTO.FAILED, failed.getStatus());
+        assertEquals("Requisition not found for client id local-9", failed.getError());
+        verify(requisitionService, never()).submitRequisition(any(), any());
+    }
+
+    private void storedServerIds(Map<String, Long> stored) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<String, Long> entry : stored.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("client_id")).thenReturn(entry.getKey());
+                when(rs.getLong("requisition_id")).thenReturn(entry.getValue());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static BatchMutationRequest batch(MutationOperation... operations) {
+        return new BatchMutationRequest(List.of(operations));
+    }
+
+    private static RequisitionDTO created(Long id) {
+        RequisitionDTO dto = new RequisitionDTO();
+        dto.setId(id);
+        dto.setVersion(0L);
+        return dto;
+    }
+}
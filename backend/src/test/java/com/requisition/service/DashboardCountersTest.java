@@ -0,0 +1,126 @@
+package com.requisition.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardCountersTest {
+
+    private static final Long TYPE = 1L;
+
+    // Requisition id -> current approval, payment and dispatch status
+    private final Map<Long, Map<String, Object>> requisitions = new LinkedHashMap<>();
+    private final Map<String, Long> pushed = new HashMap<>();
+
+    @Test
+    void deltasOfApprovePayDispatchDelete_SumToTheSnapshot() {
+        create(1L);
+        create(2L);
+        create(3L);
+        assertMatchesSnapshot();
+
+        change(1L, "approvalStatus", "APPROVED");
+        change(2L, "approvalStatus", "APPROVED");
+        change(3L, "approvalStatus", "REJECTED");
+        assertMatchesSnapshot();
+
+        change(1L, "paymentStatus", "PARTIAL");
+        change(1L, "paymentStatus", "DONE");
+        change(2L, "paymentStatus", "DONE");
+        assertMatchesSnapshot();
+
+        change(1L, "dispatchStatus", "DISPATCHED");
+        change(1L, "dispatchStatus", "DELIVERED");
+        change(2L, "dispatchStatus", "DISPATCHED");
+        assertMatchesSnapshot();
+
+        delete(2L);
+        delete(3L);
+        assertMatchesSnapshot();
+
+        Map<String, Long> counters = snapshot();
+        assertEquals(1L, counters.get("totalCount"));
+        assertEquals(1L, counters.get("approvedCount"));
+        assertEquals(1L, counters.get("paidCount"));
+        assertEquals(0L, counters.get("dispatchedCount")); // delivered is no longer "dispatched"
+        assertEquals(0L, counters.get("rejectedCount"));
+    }
+
+    @Test
+    void deltas_LeaveOutUnchangedCounters() {
+        Map<String, Object> pending = state("PENDING", "NOT_DONE", "NOT_DISPATCHED");
+
+        assertEquals(Map.of(), DashboardCounters.deltas(pending, new HashMap<>(pending)));
+        assertEquals(Map.of("draftCount", -1, "pendingCount", -1, "approvedCount", 1),
+                DashboardCounters.deltas(pending, state("APPROVED", "NOT_DONE", "NOT_DISPATCHED")));
+    }
+
+    @Test
+    void fold_ListsEveryTypeAndSkipsUnknownOnes() {
+        List<Object[]> rows = List.<Object[]>of(
+                new Object[] { TYPE, "APPROVED", "DONE", "NOT_DISPATCHED", 3L },
+                new Object[] { 9L, "APPROVED", "DONE", "NOT_DISPATCHED", 5L });
+
+        Map<Long, Map<String, Long>> byType = DashboardCounters.fold(List.of(TYPE, 2L), rows);
+
+        assertEquals(List.of(TYPE, 2L), List.copyOf(byType.keySet()));
+        assertEquals(3L, byType.get(TYPE).get("paidCount"));
+        assertEquals(3L, byType.get(TYPE).get("totalCount"));
+        assertTrue(byType.get(2L).values().stream().allMatch(count -> count == 0L));
+    }
+
+    private void create(Long id) {
+        Map<String, Object> state = state("PENDING", "NOT_DONE", "NOT_DISPATCHED");
+        requisitions.put(id, state);
+        push(DashboardCounters.deltas(null, state));
+    }
+
+    private void change(Long id, String field, String value) {
+        Map<String, Object> before = requisitions.get(id);
+        Map<String, Object> after = new HashMap<>(before);
+        after.put(field, value);
+        requisitions.put(id, after);
+        push(DashboardCounters.deltas(before, after));
+    }
+
+    private void delete(Long id) {
+        push(DashboardCounters.deltas(requisitions.remove(id), null));
+    }
+
+    private void push(Map<String, Integer> deltas) {
+        deltas.forEach((counter, delta) -> pushed.merge(counter, (long) delta, Long::sum));
+    }
+
+    // What countStatusCombinations would return for the current requisitions
+    private Map<String, Long> snapshot() {
+        Map<List<Object>, Long> combinations = new LinkedHashMap<>();
+        for (Map<String, Object> state : requisitions.values()) {
+            combinations.merge(List.of(TYPE, state.get("approvalStatus"), state.get("paymentStatus"),
+                    state.get("dispatchStatus")), 1L, Long::sum);
+        }
+        List<Object[]> rows = new ArrayList<>();
+        combinations.forEach((key, count) -> rows.add(new Object[] { key.get(0), key.get(1), key.get(2),
+                key.get(3), count }));
+        return DashboardCounters.fold(List.of(TYPE), rows).get(TYPE);
+    }
+
+    private void assertMatchesSnapshot() {
+        for (Map.Entry<String, Long> counter : snapshot().entrySet()) {
+            assertEquals(counter.getValue(), pushed.getOrDefault(counter.getKey(), 0L), counter.getKey());
+        }
+    }
+
+    private static Map<String, Object> state(String approval, String payment, String dispatch) {
+        Map<String, Object> state = new HashMap<>();
+        state.put("approvalStatus", approval);
+        state.put("paymentStatus", payment);
+        state.put("dispatchStatus", dispatch);
+        return state;
+    }
+}
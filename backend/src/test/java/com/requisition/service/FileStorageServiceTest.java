@@ -0,0 +1,63 @@
+package com.requisition.service;
+
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.StoredFileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class FileStorageServiceTest {
+
+    private static final List<String> URLS = List.of("/uploads/ab12.jpg", "/api/v1/uploads/ab12.jpg");
+
+    @TempDir
+    Path uploadDir;
+
+    private StoredFileRepository storedFileRepository;
+    private RequisitionRepository requisitionRepository;
+    private OrganizationRepository organizationRepository;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        storedFileRepository = mock(StoredFileRepository.class);
+        requisitionRepository = mock(RequisitionRepository.class);
+        organizationRepository = mock(OrganizationRepository.class);
+        fileStorageService = new FileStorageService(uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "storedFileRepository", storedFileRepository);
+        ReflectionTestUtils.setField(fileStorageService, "requisitionRepository", requisitionRepository);
+        ReflectionTestUtils.setField(fileStorageService, "organizationRepository", organizationRepository);
+    }
+
+    @Test
+    void renditionsReady_MoveTheETagsOfRequisitionsShowingTheFile() {
+        when(storedFileRepository.markRenditions("ab12.jpg")).thenReturn(1);
+        when(requisitionRepository.findOrganizationIdsReferencing(URLS)).thenReturn(List.of(10L, 20L));
+
+        fileStorageService.markRenditionsReady("/uploads/ab12.jpg");
+
+        // Detail ETags carry the version, list ETags the organization's change counter
+        verify(requisitionRepository).incrementVersionReferencing(URLS);
+        verify(organizationRepository).bumpChangeSeq(10L);
+        verify(organizationRepository).bumpChangeSeq(20L);
+    }
+
+    @Test
+    void renditionsOfAnUnreferencedFile_ChangeNoETags() {
+        when(storedFileRepository.markRenditions("ab12.jpg")).thenReturn(1);
+        when(requisitionRepository.findOrganizationIdsReferencing(URLS)).thenReturn(List.of());
+
+        fileStorageService.markRenditionsReady("ab12.jpg");
+
+        verifyNoInteractions(organizationRepository);
+        verify(requisitionRepository, never()).incrementVersionReferencing(any());
+    }
+}
@@ -0,0 +1,35 @@
+package com.requisition.service;
+
+import com.requisition.dto.ListQueryStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListQueryMetricsTest {
+
+    private final ListQueryMetrics listQueryMetrics = new ListQueryMetrics();
+
+    @Test
+    void byteEstimates_AreOffByDefault() {
+        listQueryMetrics.record("requisitions.entity", 10, listQueryMetrics.allocatedBytes(), () -> {
+            throw new AssertionError("estimated bytes on an unsampled call");
+        });
+
+        ListQueryStatsDTO stats = listQueryMetrics.getStats().get("requisitions.entity");
+        assertEquals(1, stats.getCalls());
+        assertEquals(10, stats.getRows());
+        assertEquals(0, stats.getEstimatedBytesReadPerRow());
+    }
+
+    @Test
+    void byteEstimates_AreAveragedOverSampledRowsOnly() {
+        listQueryMetrics.record("requisitions.stream", 30, -1, -1L);
+        ReflectionTestUtils.setField(listQueryMetrics, "byteSample", 1);
+        listQueryMetrics.record("requisitions.stream", 10, -1, () -> 5_000L);
+
+        ListQueryStatsDTO stats = listQueryMetrics.getStats().get("requisitions.stream");
+        assertEquals(40, stats.getRows());
+        assertEquals(500, stats.getEstimatedBytesReadPerRow());
+    }
+}
@@ -0,0 +1,302 @@
+package com.requisition.service;
+
+import com.requisition.dto.ApprovalActionRequest;
+import com.requisition.dto.MaterialReceiptRequest;
+import com.requisition.dto.PaymentUpdateRequest;
+import com.requisition.entity.Organization;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.RequisitionType;
+import com.requisition.entity.User;
+import com.requisition.repository.ApprovalRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.RequisitionTypeRepository;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequisitionConcurrencyTest {
+
+    private static final Long REQUISITION_ID = 100L;
+
+    @Mock
+    private RequisitionRepository requisitionRepository;
+
+    @Mock
+    private RequisitionTypeRepository typeRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ApprovalRepository approvalRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private AttachmentService attachmentService;
+
+    @Mock
+    private SyncLogService syncLogService;
+
+    @Mock
+    private UserRoster userRoster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry();
+
+    @InjectMocks
+    private RequisitionService requisitionService;
+
+    @InjectMocks
+    private DispatchService dispatchService;
+
+    private final VersionedRow row = new VersionedRow();
+    private Organization organization;
+    private User purchaser;
+    private User manager;
+    private User accountant;
+
+    /**
+     * One requisitions row with the version check the database does on
+     * UPDATE ... WHERE version = ?. Every load hands out a detached copy.
+     */
+    private static class VersionedRow {
+        private Requisition stored;
+        private Runnable beforeNextSave;
+        private final AtomicInteger conflicts = new AtomicInteger();
+
+        synchronized void reset(Requisition req) {
+            stored = copy(req);
+        }
+
+        Requisition load() {
+            Requisition loaded;
+            synchronized (this) {
+                loaded = copy(stored);
+            }
+            // Give the other writers time to load the same version
+            sleep(2);
+            return loaded;
+        }
+
+        Requisition save(Requisition req) {
+            Runnable hook;
+            synchronized (this) {
+                hook = beforeNextSave;
+                beforeNextSave = null;
+            }
+            if (hook != null) {
+                hook.run();
+            }
+            synchronized (this) {
+                if (!Objects.equals(req.getVersion(), stored.getVersion())) {
+                    conflicts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException(Requisition.class, req.getId());
+                }
+                req.setVersion(req.getVersion() + 1);
+                stored = copy(req);
+                return req;
+            }
+        }
+
+        synchronized Requisition current() {
+            return copy(stored);
+        }
+
+        private static Requisition copy(Requisition source) {
+            Requisition target = new Requisition();
+            BeanUtils.copyProperties(source, target);
+            return target;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(optimisticRetry, "transactionManager", transactionManager);
+
+        organization = new Organization();
+        organization.setId(1L);
+        organization.setName("Test Org");
+        purchaser = user(1L, User.UserRole.PURCHASER);
+        manager = user(2L, User.UserRole.MANAGER);
+        accountant = user(3L, User.UserRole.ACCOUNTANT);
+
+        when(userRepository.findById(any())).thenAnswer(invocation -> {
+            Long id = invocation.getArgument(0);
+            return Optional.of(id == 1L ? purchaser : id == 2L ? manager : accountant);
+        });
+        when(requisitionRepository.findByIdAndOrganization(eq(REQUISITION_ID), any()))
+                .thenAnswer(invocation -> Optional.of(row.load()));
+    }
+
+    @Test
+    void concurrentStepsOnDifferentFieldGroups_LoseNoWrites() throws Exception {
+        when(requisitionRepository.saveAndFlush(any(Requisition.class)))
+                .thenAnswer(invocation -> row.save(invocation.getArgument(0)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try {
+            for (int round = 0; round < 25; round++) {
+                row.reset(submitted());
+                runTogether(pool, List.of(
+                        () -> requisitionService.processApproval(REQUISITION_ID, 2L, approval("APPROVED")),
+                        () -> requisitionService.updatePayment(REQUISITION_ID, 3L, payment()),
+                        () -> requisitionService.processMaterialReceipt(REQUISITION_ID, 1L, receipt()),
+                        () -> requisitionService.uploadFile(REQUISITION_ID, 1L, "bill", "bill.jpg"),
+                        () -> {
+                            dispatchService.markAsDispatched(REQUISITION_ID, 1L);
+                            return null;
+                        }));
+
+                Requisition result = row.current();
+                assertEquals(Requisition.ApprovalStatus.APPROVED, result.getApprovalStatus(), "round " + round);
+                assertEquals(Requisition.RequisitionStatus.APPROVED, result.getStatus(), "round " + round);
+                assertEquals(Requisition.PaymentStatus.DONE, result.getPaymentStatus(), "round " + round);
+                assertEquals("UTR-1", result.getPaymentUtrNo(), "round " + round);
+                assertEquals(Boolean.TRUE, result.getMaterialReceived(), "round " + round);
+                assertEquals("/uploads/bill.jpg", result.getBillPhotoUrl(), "round " + round);
+                assertEquals(Requisition.DispatchStatus.DISPATCHED, result.getDispatchStatus(), "round " + round);
+                assertEquals(5L, result.getVersion(), "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(row.conflicts.get() > 0, "the writers never actually raced");
+        assertEquals(row.conflicts.get(), optimisticRetry.getRetried());
+    }
+
+    @Test
+    void concurrentChangeToTheSameFieldGroup_IsAConflict() {
+        when(requisitionRepository.saveAndFlush(any(Requisition.class)))
+                .thenAnswer(invocation -> row.save(invocation.getArgument(0)));
+        row.reset(submitted());
+
+        // Another manager rejects between this approval's read and its write
+        row.beforeNextSave = () -> {
+            Requisition rejected = row.current();
+            rejected.setApprovalStatus(Requisition.ApprovalStatus.REJECTED);
+            rejected.setStatus(Requisition.RequisitionStatus.REJECTED);
+            row.save(rejected);
+        };
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> requisitionService.processApproval(REQUISITION_ID, 2L, approval("APPROVED")));
+
+        assertTrue(error.getMessage().startsWith("Update conflict"), error.getMessage());
+        assertTrue(error.getMessage().contains("approvalStatus"), error.getMessage());
+        assertEquals(Requisition.ApprovalStatus.REJECTED, row.current().getApprovalStatus());
+        verify(syncLogService, never()).record(any(), any(), any(), any());
+    }
+
+    private void runTogether(ExecutorService pool, List<Callable<Object>> steps) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<Object> step : steps) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return step.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Object> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private Requisition submitted() {
+        RequisitionType type = new RequisitionType();
+        type.setId(1L);
+        type.setName("Purchase");
+
+        Requisition req = new Requisition();
+        req.setId(REQUISITION_ID);
+        req.setVersion(0L);
+        req.setRequestId("TST-0001");
+        req.setType(type);
+        req.setOrganization(organization);
+        req.setCreatedBy(purchaser);
+        req.setDescription("Cement");
+        req.setAmount(BigDecimal.valueOf(5000));
+        req.setStatus(Requisition.RequisitionStatus.SUBMITTED);
+        req.setApprovalStatus(Requisition.ApprovalStatus.PENDING);
+        req.setPaymentStatus(Requisition.PaymentStatus.NOT_DONE);
+        req.setDispatchStatus(Requisition.DispatchStatus.NOT_DISPATCHED);
+        return req;
+    }
+
+    private User user(Long id, User.UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setOrganization(organization);
+        user.setRole(role);
+        user.setFullName(role + " " + id);
+        return user;
+    }
+
+    private ApprovalActionRequest approval(String status) {
+        ApprovalActionRequest request = new ApprovalActionRequest();
+        request.setApprovalStatus(status);
+        request.setNotes("ok");
+        return request;
+    }
+
+    private PaymentUpdateRequest payment() {
+        PaymentUpdateRequest request = new PaymentUpdateRequest();
+        request.setPaymentStatus("DONE");
+        request.setUtrNo("UTR-1");
+        request.setAmount(BigDecimal.valueOf(5000));
+        return request;
+    }
+
+    private MaterialReceiptRequest receipt() {
+        MaterialReceiptRequest request = new MaterialReceiptRequest();
+        request.setMaterialReceived(true);
+        request.setReceiptNotes("all bags received");
+        return request;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.requisition.service;
+
+import com.requisition.config.StompDestinations;
+import com.requisition.dto.RequisitionChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequisitionEventBroadcasterTest {
+
+    private static final long WINDOW_MILLIS = 100;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @InjectMocks
+    private RequisitionEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(broadcaster, "coalesceWindowMillis", WINDOW_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void updatesWithinTheWindow_GoOutAsOneMergedMessage() throws Exception {
+        broadcaster.onRequisitionChanged(changed(100L, 4L, Map.of("description", "Cement, 40 bags")));
+        // Commits can complete out of order; the merged message still carries the highest version
+        broadcaster.onRequisitionChanged(changed(100L, 6L, Map.of("paymentStatus", "DONE")));
+        broadcaster.onRequisitionChanged(changed(100L, 5L, Map.of("billPhotoUrl", "/uploads/ab12.jpg")));
+
+        ArgumentCaptor<RequisitionChangeEvent> sent = ArgumentCaptor.forClass(RequisitionChangeEvent.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(StompDestinations.requisitions(1L)),
+                sent.capture());
+        Thread.sleep(3 * WINDOW_MILLIS);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(StompDestinations.requisitions(1L)),
+                any(RequisitionChangeEvent.class));
+
+        RequisitionChangeEvent merged = sent.getValue();
+        assertEquals(100L, merged.getRequisitionId());
+        assertEquals(6L, merged.getVersion());
+        assertEquals(RequisitionChangeEvent.UPDATED, merged.getType());
+        assertEquals(Map.of("description", "Cement, 40 bags", "paymentStatus", "DONE",
+                "billPhotoUrl", "/uploads/ab12.jpg"), merged.getChanges());
+        verify(messagingTemplate).convertAndSend(eq(StompDestinations.requisition(1L, 100L)), same(merged));
+        verify(messagingTemplate).convertAndSendToUser(eq("5"), eq(StompDestinations.USER_REQUISITIONS),
+                same(merged));
+    }
+
+    @Test
+    void updatesArrivingInReverseOrder_KeepTheNewerValues() {
+        broadcaster.onRequisitionChanged(new RequisitionChangedEvent(1L, 5L, "APPROVED", "DONE",
+                new RequisitionChangeEvent(100L, 7L, RequisitionChangeEvent.UPDATED, Map.of("paymentStatus", "DONE"))));
+        broadcaster.onRequisitionChanged(new RequisitionChangedEvent(1L, 5L, "APPROVED", "PARTIAL",
+                new RequisitionChangeEvent(100L, 6L, RequisitionChangeEvent.UPDATED,
+                        Map.of("paymentStatus", "PARTIAL", "description", "Cement, 40 bags"))));
+
+        ArgumentCaptor<RequisitionChangeEvent> sent = ArgumentCaptor.forClass(RequisitionChangeEvent.class);
+        verify(messagingTemplate, timeout(2000)).convertAndSend(eq(StompDestinations.requisitions(1L)),
+                sent.capture());
+
+        RequisitionChangeEvent merged = sent.getValue();
+        assertEquals(7L, merged.getVersion());
+        assertEquals(Map.of("paymentStatus", "DONE", "description", "Cement, 40 bags"), merged.getChanges());
+    }
+
+    @Test
+    void updatesToDifferentRequisitions_AreNotMerged() {
+        broadcaster.onRequisitionChanged(changed(100L, 4L, Map.of("description", "Cement, 40 bags")));
+        broadcaster.onRequisitionChanged(changed(101L, 9L, Map.of("description", "Steel rods")));
+
+        verify(messagingTemplate, timeout(2000).times(2)).convertAndSend(eq(StompDestinations.requisitions(1L)),
+                any(RequisitionChangeEvent.class));
+        verify(messagingTemplate, times(2)).convertAndSendToUser(anyString(), anyString(),
+                any(RequisitionChangeEvent.class));
+    }
+
+    private RequisitionChangedEvent changed(Long requisitionId, Long version, Map<String, Object> changes) {
+        return new RequisitionChangedEvent(1L, 5L, "APPROVED", "PENDING",
+                new RequisitionChangeEvent(requisitionId, version, RequisitionChangeEvent.UPDATED, changes));
+    }
+}
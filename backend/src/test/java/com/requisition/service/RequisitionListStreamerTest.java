@@ -0,0 +1,115 @@
+package com.requisition.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.entity.Requisition;
+import com.requisition.repository.RequisitionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RequisitionListStreamerTest {
+
+    @Mock
+    private RequisitionRepository requisitionRepository;
+
+    @Mock
+    private RequisitionService requisitionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ListQueryMetrics listQueryMetrics = new ListQueryMetrics();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private RequisitionListStreamer requisitionListStreamer;
+
+    @Test
+    void write_StreamsTheEnvelopeInChunks() throws Exception {
+        when(requisitionRepository.streamByOrganizationId(1L)).thenReturn(LongStream.rangeClosed(1, 450)
+                .mapToObj(id -> {
+                    Requisition req = new Requisition();
+                    req.setId(id);
+                    req.setRequestId("TST-" + id);
+                    return req;
+                }));
+        List<Integer> chunkSizes = new ArrayList<>();
+        when(requisitionService.convertToDTOs(anyList())).thenAnswer(invocation -> {
+            List<Requisition> chunk = invocation.getArgument(0);
+            chunkSizes.add(chunk.size());
+            return chunk.stream().map(req -> {
+                RequisitionDTO dto = new RequisitionDTO();
+                dto.setId(req.getId());
+                dto.setRequestId(req.getRequestId());
+                return dto;
+            }).toList();
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        requisitionListStreamer.write(1L, out);
+
+        JsonNode body = objectMapper.readTree(out.toByteArray());
+        assertTrue(body.get("success").asBoolean());
+        assertEquals("Requisitions retrieved", body.get("message").asText());
+        assertTrue(body.hasNonNull("timestamp"));
+        assertEquals(450, body.get("data").size());
+        assertEquals("TST-450", body.get("data").get(449).get("requestId").asText());
+        assertEquals(List.of(200, 200, 50), chunkSizes);
+        verify(entityManager, times(3)).clear();
+        assertEquals(450, listQueryMetrics.getStats().get("requisitions.stream").getRows());
+    }
+
+    @Test
+    void write_FailingMidway_LeavesTheListUnterminated() throws Exception {
+        when(requisitionRepository.streamByOrganizationId(1L)).thenReturn(LongStream.rangeClosed(1, 450)
+                .mapToObj(id -> {
+                    Requisition req = new Requisition();
+                    req.setId(id);
+                    return req;
+                }));
+        when(requisitionService.convertToDTOs(anyList())).thenAnswer(invocation -> {
+            List<Requisition> chunk = invocation.getArgument(0);
+            return chunk.stream().map(req -> {
+                RequisitionDTO dto = new RequisitionDTO();
+                dto.setId(req.getId());
+                return dto;
+            }).toList();
+        }).thenThrow(new IllegalStateException("Connection reset"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IllegalStateException.class, () -> requisitionListStreamer.write(1L, out));
+
+        // The first chunk went out, but the client must not take it for the whole list
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.contains("\"id\":200"), body);
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body));
+        assertNull(listQueryMetrics.getStats().get("requisitions.stream"));
+    }
+}
@@ -1,7 +1,17 @@
 package com.requisition.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.requisition.dto.ApprovalActionRequest;
 import com.requisition.dto.CreateRequisitionRequest;
+import com.requisition.dto.ListPayloadSizesDTO;
+import com.requisition.dto.MaterialReceiptRequest;
+import com.requisition.dto.PaymentUpdateRequest;
+import com.requisition.dto.RequisitionChangeEvent;
 import com.requisition.dto.RequisitionDTO;
+import com.requisition.dto.RequisitionListDTO;
+import com.requisition.dto.UserSummaryDTO;
+import com.requisition.entity.Organization;
 import com.requisition.entity.Requisition;
 import com.requisition.entity.RequisitionType;
 import com.requisition.entity.User;
@@ -12,19 +22,27 @@ import com.requisition.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,7 +61,32 @@ public class RequisitionServiceTest {
     private ApprovalRepository approvalRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private AttachmentService attachmentService;
+
+    @Mock
+    private SyncLogService syncLogService;
+
+    @Mock
+    private UserRoster userRoster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private OptimisticRetry optimisticRetry = new OptimisticRetry();
+
+    @Spy
+    private ListQueryMetrics listQueryMetrics = new ListQueryMetrics();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     @InjectMocks
     private RequisitionService requisitionService;
@@ -53,8 +96,16 @@ public class RequisitionServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(optimisticRetry, "transactionManager", transactionManager);
+
+        Organization organization = new Organization();
+        organization.setId(1L);
+        organization.setName("Test Org");
+        organization.setRequisitionPrefix("TST");
+
         user = new User();
         user.setId(1L);
+        user.setOrganization(organization);
         user.setEmail("test@example.com");
         user.setRole(User.UserRole.PURCHASER);
 
@@ -95,6 +146,157 @@ public class RequisitionServiceTest {
         assertEquals("DRAFT", result.getStatus());
 
         verify(requisitionRepository, times(1)).save(any(Requisition.class));
-        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(RequisitionDTO.class));
+        // Broadcast happens after commit, via the event listener
+        ArgumentCaptor<RequisitionChangedEvent> event = ArgumentCaptor.forClass(RequisitionChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(RequisitionChangeEvent.CREATED, event.getValue().getChange().getType());
+        assertEquals(1L, event.getValue().getOrganizationId());
+    }
+
+    @Test
+    void changeEvents_AreMuchSmallerThanFullDTOs() throws Exception {
+        // A typical lifecycle: create, edit, submit, approve, pay, upload the bill, confirm receipt
+        user.setRole(User.UserRole.ADMIN);
+        user.setFullName("Test Admin");
+        AtomicReference<Requisition> saved = new AtomicReference<>();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(typeRepository.findById(1L)).thenReturn(Optional.of(type));
+        when(requisitionRepository.save(any(Requisition.class))).thenAnswer(invocation -> {
+            Requisition r = invocation.getArgument(0);
+            r.setId(100L);
+            r.setVersion(0L);
+            saved.set(r);
+            return r;
+        });
+        when(requisitionRepository.saveAndFlush(any(Requisition.class))).thenAnswer(invocation -> {
+            Requisition r = invocation.getArgument(0);
+            r.setVersion(r.getVersion() + 1); // what Hibernate does on flush
+            return r;
+        });
+        when(requisitionRepository.findByIdAndOrganization(eq(100L), any()))
+                .thenAnswer(invocation -> Optional.of(saved.get()));
+
+        CreateRequisitionRequest create = new CreateRequisitionRequest();
+        create.setRequisitionTypeId(1L);
+        create.setDescription("Cement bags for block B");
+        create.setAmount(BigDecimal.valueOf(48250.00));
+        create.setPriority("NORMAL");
+        create.setQuantity(120);
+        create.setSiteAddress("Plot 14, Sector 5");
+        create.setMaterialDescription("OPC 53 grade cement");
+        create.setVendorName("Shree Traders");
+
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<RequisitionDTO> fullPayloads = new ArrayList<>();
+
+        requisitionService.createRequisition(1L, create);
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        create.setDescription("Cement bags for block B, second floor");
+        requisitionService.updateRequisition(100L, 1L, create);
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        requisitionService.submitRequisition(100L, 1L);
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        requisitionService.processApproval(100L, 1L, new ApprovalActionRequest("APPROVED", "Within budget"));
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        requisitionService.updatePayment(100L, 1L, new PaymentUpdateRequest("DONE", "UTR123456789", "UPI",
+                LocalDateTime.now(), BigDecimal.valueOf(48250.00)));
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        requisitionService.uploadFile(100L, 1L, "bill",
+                "3f2b9c0d4e5f60718293a4b5c6d7e8f90a1b2c3d4e5f60718293a4b5c6d7e8f9.jpg");
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+        requisitionService.processMaterialReceipt(100L, 1L, new MaterialReceiptRequest(true, "All bags received"));
+        fullPayloads.add(requisitionService.getRequisitionById(100L, 1L));
+
+        ArgumentCaptor<RequisitionChangedEvent> published = ArgumentCaptor.forClass(RequisitionChangedEvent.class);
+        verify(eventPublisher, times(7)).publishEvent(published.capture());
+        List<RequisitionChangeEvent> events = published.getAllValues().stream()
+                .map(RequisitionChangedEvent::getChange).toList();
+
+        long fullBytes = 0;
+        for (RequisitionDTO dto : fullPayloads) {
+            fullBytes += mapper.writeValueAsBytes(dto).length;
+        }
+        long eventBytes = 0;
+        long lastVersion = -1;
+        for (RequisitionChangeEvent event : events) {
+            eventBytes += mapper.writeValueAsBytes(event).length;
+            assertTrue(event.getVersion() > lastVersion, "versions must increase");
+            lastVersion = event.getVersion();
+        }
+
+        assertEquals(Map.of("description", "Cement bags for block B, second floor"),
+                events.get(1).getChanges());
+        assertTrue(eventBytes * 3 < fullBytes, "change events should be less than a third of the full DTOs");
+    }
+
+    @Test
+    void normalizedList_SendsEachUserOnce() throws Exception {
+        // 200 requisitions raised by 20 purchasers, approved and paid by the same admin
+        User admin = member(99L, User.UserRole.ADMIN, "Site Admin");
+        List<Requisition> requisitions = new ArrayList<>();
+        for (long i = 0; i < 200; i++) {
+            Requisition req = new Requisition();
+            req.setId(1000 + i);
+            req.setVersion(2L);
+            req.setRequestId("TST-" + (1000 + i));
+            req.setType(type);
+            req.setOrganization(user.getOrganization());
+            req.setCreatedBy(member(10 + i % 20, User.UserRole.PURCHASER, "Purchaser " + i % 20));
+            req.setApprovedBy(admin);
+            req.setPaidBy(admin);
+            req.setDescription("Cement bags for block " + i);
+            req.setAmount(BigDecimal.valueOf(48250.00));
+            req.setStatus(Requisition.RequisitionStatus.APPROVED);
+            req.setApprovalStatus(Requisition.ApprovalStatus.APPROVED);
+            req.setPaymentStatus(Requisition.PaymentStatus.DONE);
+            req.setDispatchStatus(Requisition.DispatchStatus.NOT_DISPATCHED);
+            req.setPriority(Requisition.Priority.NORMAL);
+            req.setCreatedAt(LocalDateTime.now());
+            requisitions.add(req);
+        }
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(requisitionRepository.findByOrganizationOrderByCreatedAtDesc(user.getOrganization()))
+                .thenReturn(requisitions);
+        // The roster has the admin's current name; purchasers it has not loaded come from the rows
+        when(userRoster.find(eq(1L), any())).thenAnswer(invocation -> 99L == (Long) invocation.getArgument(1)
+                ? new UserSummaryDTO(99L, "Site Admin (Stores)", "ADMIN", "Procurement", null, true)
+                : null);
+
+        RequisitionListDTO list = requisitionService.getAllRequisitionsNormalized(1L);
+        user.setRole(User.UserRole.ADMIN);
+        ListPayloadSizesDTO sizes = requisitionService.compareListPayloadSizes(1L);
+
+        assertEquals(200, list.getRows().size());
+        assertEquals(21, list.getUsers().size());
+        assertEquals(99L, list.getRows().get(0).getApprovedById());
+        assertEquals("Site Admin (Stores)", list.getUsers().get(99L).getFullName());
+        assertEquals("Purchaser 3", list.getUsers().get(list.getRows().get(3).getCreatedById()).getFullName());
+        String row = objectMapper.writeValueAsString(list.getRows().get(0));
+        assertFalse(row.contains("createdByName") || row.contains("\"createdBy\""), row);
+        assertTrue(sizes.getNormalizedBytes() < sizes.getEmbeddedBytes(), "normalized list should be smaller");
+    }
+
+    @Test
+    void payloadSizeComparison_IsForAdminsOnly() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> requisitionService.compareListPayloadSizes(1L));
+
+        assertEquals("Only admins can compare list payload sizes", e.getMessage());
+        verify(requisitionRepository, never()).findByOrganizationOrderByCreatedAtDesc(any());
+    }
+
+    private User member(Long id, User.UserRole role, String fullName) {
+        User member = new User();
+        member.setId(id);
+        member.setOrganization(user.getOrganization());
+        member.setEmail("user" + id + "@example.com");
+        member.setFullName(fullName);
+        member.setRole(role);
+        member.setDepartment("Procurement");
+        return member;
     }
 }
@@ -0,0 +1,43 @@
+package com.requisition.service;
+
+import com.requisition.repository.SyncLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncLogServiceTest {
+
+    @Mock
+    private SyncLogRepository syncLogRepository;
+
+    @InjectMocks
+    private SyncLogService syncLogService;
+
+    @Test
+    void compact_MarksTheCompactedSequenceBeforeDeletingExpiredEntries() {
+        ReflectionTestUtils.setField(syncLogService, "retention", Duration.ofDays(30));
+
+        syncLogService.compact();
+
+        // Otherwise a client could skip entries that were deleted but not yet marked
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        InOrder order = inOrder(syncLogRepository);
+        order.verify(syncLogRepository).deleteSuperseded();
+        order.verify(syncLogRepository).advanceCompactedSeq(cutoff.capture());
+        order.verify(syncLogRepository).deleteExpired(cutoff.getValue());
+        assertEquals(30, ChronoUnit.DAYS.between(cutoff.getValue(), LocalDateTime.now().plusMinutes(1)));
+    }
+}
@@ -0,0 +1,229 @@
+package com.requisition.service;
+
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.dto.SyncPageDTO;
+import com.requisition.entity.Organization;
+import com.requisition.entity.Requisition;
+import com.requisition.entity.SyncLog;
+import com.requisition.entity.User;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.RequisitionRepository;
+import com.requisition.repository.SyncLogRepository;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SyncServiceTest {
+
+    private static final Long ORG = 10L;
+
+    @Mock
+    private SyncLogRepository syncLogRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private RequisitionRepository requisitionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RequisitionService requisitionService;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    private Organization organization;
+
+    @BeforeEach
+    void setUp() {
+        organization = new Organization();
+        organization.setId(ORG);
+        User user = new User();
+        user.setId(1L);
+        user.setOrganization(organization);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        lenient().when(requisitionService.convertToDTOs(anyList())).thenAnswer(invocation -> {
+            List<Requisition> requisitions = invocation.getArgument(0);
+            return requisitions.stream().map(req -> {
+                RequisitionDTO dto = new RequisitionDTO();
+                dto.setId(req.getId());
+                return dto;
+            }).toList();
+        });
+    }
+
+    @Test
+    void cursorBelowTheCompactedSequence_RequiresAReset() {
+        changeSeq(50L, 20L);
+
+        SyncPageDTO page = syncService.getChanges(1L, 19L, 100);
+
+        assertTrue(page.isResetRequired());
+        assertEquals(50L, page.getCursor());
+        assertTrue(page.getChanged().isEmpty());
+        verifyNoInteractions(syncLogRepository);
+    }
+
+    @Test
+    void noCursor_RequiresAReset() {
+        // Nothing compacted yet, but requisitions from before the change log have no entries to replay
+        changeSeq(50L, 0L);
+
+        SyncPageDTO page = syncService.getChanges(1L, 0L, 100);
+
+        assertTrue(page.isResetRequired());
+        assertEquals(50L, page.getCursor());
+        verifyNoInteractions(syncLogRepository);
+    }
+
+    @Test
+    void cursorAheadOfTheServer_RequiresAReset() {
+        // e.g. a cursor kept from another organization or a restored database
+        changeSeq(50L, 0L);
+
+        SyncPageDTO page = syncService.getChanges(1L, 51L, 100);
+
+        assertTrue(page.isResetRequired());
+        assertEquals(50L, page.getCursor());
+    }
+
+    @Test
+    void cursorAtTheCompactedSequence_IsStillServed() {
+        changeSeq(50L, 20L);
+        log(20L, List.of());
+
+        SyncPageDTO page = syncService.getChanges(1L, 20L, 100);
+
+        assertFalse(page.isResetRequired());
+        assertEquals(20L, page.getCursor());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void pages_StopAtTheLimitAndReportMore() {
+        changeSeq(50L, 0L);
+        log(10L, List.of(entry(11L, 100L, SyncLog.SyncOperation.CREATE),
+                entry(12L, 101L, SyncLog.SyncOperation.UPDATE),
+                entry(13L, 102L, SyncLog.SyncOperation.UPDATE)));
+        found(100L, 101L);
+
+        SyncPageDTO page = syncService.getChanges(1L, 10L, 2);
+
+        assertTrue(page.isHasMore());
+        assertEquals(12L, page.getCursor());
+        assertEquals(List.of(100L, 101L), page.getChanged().stream().map(RequisitionDTO::getId).toList());
+        assertTrue(page.getDeleted().isEmpty());
+        verify(syncLogRepository).findByOrganizationIdAndSeqGreaterThanOrderBySeqAsc(ORG, 10L,
+                PageRequest.of(0, 3));
+    }
+
+    @Test
+    void pageSize_IsCapped() {
+        changeSeq(50L, 0L);
+        log(10L, List.of());
+
+        syncService.getChanges(1L, 10L, 1_000_000);
+
+        verify(syncLogRepository).findByOrganizationIdAndSeqGreaterThanOrderBySeqAsc(ORG, 10L,
+                PageRequest.of(0, SyncService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void deletes_BecomeTombstonesAndWinOverEarlierUpdates() {
+        changeSeq(50L, 0L);
+        log(10L, List.of(entry(11L, 100L, SyncLog.SyncOperation.UPDATE),
+                entry(12L, 101L, SyncLog.SyncOperation.UPDATE),
+                entry(13L, 100L, SyncLog.SyncOperation.DELETE),
+                entry(14L, 101L, SyncLog.SyncOperation.UPDATE)));
+        found(101L);
+
+        SyncPageDTO page = syncService.getChanges(1L, 10L, 100);
+
+        assertEquals(List.of(101L), page.getChanged().stream().map(RequisitionDTO::getId).toList());
+        assertEquals(List.of(100L), page.getDeleted());
+        assertEquals(14L, page.getCursor());
+    }
+
+    @Test
+    void requisitionsDeletedAfterThePage_AreSentAsTombstones() {
+        changeSeq(50L, 0L);
+        log(10L, List.of(entry(11L, 100L, SyncLog.SyncOperation.UPDATE)));
+        found();
+
+        SyncPageDTO page = syncService.getChanges(1L, 10L, 100);
+
+        assertTrue(page.getChanged().isEmpty());
+        assertEquals(List.of(100L), page.getDeleted());
+    }
+
+    @Test
+    void requisitionsOfOtherOrganizations_AreNeverSent() {
+        changeSeq(50L, 0L);
+        log(10L, List.of(entry(11L, 100L, SyncLog.SyncOperation.UPDATE)));
+        Organization other = new Organization();
+        other.setId(99L);
+        Requisition foreign = new Requisition();
+        foreign.setId(100L);
+        foreign.setOrganization(other);
+        when(requisitionRepository.findAllById(any())).thenReturn(List.of(foreign));
+
+        SyncPageDTO page = syncService.getChanges(1L, 10L, 100);
+
+        assertTrue(page.getChanged().isEmpty());
+        assertEquals(List.of(100L), page.getDeleted());
+    }
+
+    private void changeSeq(Long current, Long compacted) {
+        when(organizationRepository.findChangeSeq(ORG)).thenReturn(current);
+        when(organizationRepository.findSyncCompactedSeq(ORG)).thenReturn(compacted);
+    }
+
+    private void log(Long since, List<SyncLog> entries) {
+        when(syncLogRepository.findByOrganizationIdAndSeqGreaterThanOrderBySeqAsc(eq(ORG), eq(since), any()))
+                .thenAnswer(invocation -> {
+                    PageRequest page = invocation.getArgument(2);
+                    return entries.subList(0, Math.min(entries.size(), page.getPageSize()));
+                });
+    }
+
+    private void found(Long... ids) {
+        when(requisitionRepository.findAllById(any())).thenAnswer(invocation -> {
+            Collection<Long> requested = invocation.getArgument(0);
+            return List.of(ids).stream().filter(requested::contains).map(id -> {
+                Requisition req = new Requisition();
+                req.setId(id);
+                req.setOrganization(organization);
+                return req;
+            }).toList();
+        });
+    }
+
+    private SyncLog entry(Long seq, Long requisitionId, SyncLog.SyncOperation operation) {
+        SyncLog entry = new SyncLog();
+        entry.setOrganizationId(ORG);
+        entry.setSeq(seq);
+        entry.setEntityType(SyncLogService.REQUISITION);
+        entry.setEntityId(requisitionId);
+        entry.setOperation(operation);
+        return entry;
+    }
+}
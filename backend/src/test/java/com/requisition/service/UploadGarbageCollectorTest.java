@@ -0,0 +1,189 @@
+package com.requisition.service;
+
+import com.requisition.dto.UploadGcReportDTO;
+import com.requisition.entity.QuarantinedUpload;
+import com.requisition.repository.QuarantinedUploadRepository;
+import com.requisition.repository.StoredFileRepository;
+import com.requisition.storage.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UploadGarbageCollectorTest {
+
+    private static final Duration GRACE = Duration.ofHours(24);
+    private static final Duration QUARANTINE = Duration.ofDays(7);
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private QuarantinedUploadRepository quarantineRepository;
+
+    @InjectMocks
+    private UploadGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(collector, "gracePeriod", GRACE);
+        ReflectionTestUtils.setField(collector, "quarantinePeriod", QUARANTINE);
+        ReflectionTestUtils.setField(collector, "batchSize", 500);
+        ReflectionTestUtils.setField(collector, "pauseMillis", 0L);
+        lenient().when(fileStorageService.listFiles()).thenAnswer(invocation -> Stream.of());
+        lenient().when(quarantineRepository.findByQuarantinedAtBeforeOrderByFileName(any(), any()))
+                .thenReturn(List.of());
+    }
+
+    @Test
+    void sweep_QuarantinesOnlyUnreferencedFilesOlderThanTheGracePeriod() throws Exception {
+        Instant old = Instant.now().minus(GRACE).minusSeconds(60);
+        files(new StoredObject("orphan.jpg", 100, old),
+                new StoredObject("referenced.jpg", 200, old),
+                new StoredObject("fresh.jpg", 300, Instant.now()),
+                new StoredObject("orphan_thumb.jpg", 10, old));
+        when(fileStorageService.isRendition(anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).endsWith("_thumb.jpg"));
+        referencedUrls("/api/v1/uploads/referenced.jpg");
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(4, report.getScannedFiles());
+        assertEquals(1, report.getQuarantinedFiles());
+        assertEquals(List.of("orphan.jpg"), saved().stream().map(QuarantinedUpload::getFileName).toList());
+        verify(fileStorageService, never()).deleteFile(any());
+    }
+
+    @Test
+    void sweep_RecentlyAcquiredFile_IsNotQuarantined() throws Exception {
+        files(new StoredObject("dedup.jpg", 100, Instant.now().minus(Duration.ofDays(30))));
+        when(storedFileRepository.findRecentlyAcquired(anyCollection(), any())).thenReturn(List.of("dedup.jpg"));
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(0, report.getQuarantinedFiles());
+        assertTrue(saved().isEmpty());
+    }
+
+    @Test
+    void sweep_ReferencedAgain_IsRestored() throws Exception {
+        files(new StoredObject("photo.jpg", 100, Instant.now().minus(Duration.ofDays(30))));
+        when(quarantineRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new QuarantinedUpload("photo.jpg", 100L, LocalDateTime.now().minusDays(1))));
+        referencedUrls("/uploads/photo.jpg");
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(1, report.getRestoredFiles());
+        verify(quarantineRepository).deleteAllById(List.of("photo.jpg"));
+    }
+
+    @Test
+    void purge_DeletesFilesUnreferencedForTheWholeQuarantine() throws Exception {
+        expired("orphan.jpg");
+        when(storedFileRepository.deleteIfNotAcquiredSince(eq("orphan.jpg"), any())).thenReturn(1);
+        when(fileStorageService.statFile("orphan.jpg"))
+                .thenReturn(Optional.of(new StoredObject("orphan.jpg", 4096, Instant.now())));
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(1, report.getDeletedFiles());
+        assertEquals(4096, report.getReclaimedBytes());
+        verify(fileStorageService).deleteFile("orphan.jpg");
+        verify(quarantineRepository).deleteById("orphan.jpg");
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(quarantineRepository, atLeastOnce()).findByQuarantinedAtBeforeOrderByFileName(cutoff.capture(), any());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minus(QUARANTINE).plusMinutes(1)));
+    }
+
+    @Test
+    void purge_FileAcquiredAgainDuringTheBatch_IsKept() throws Exception {
+        // The batch-wide reference check saw nothing, but an upload of the same content refreshed the row since
+        expired("dedup.jpg");
+        when(storedFileRepository.deleteIfNotAcquiredSince(eq("dedup.jpg"), any())).thenReturn(0);
+        when(storedFileRepository.existsByFileName("dedup.jpg")).thenReturn(true);
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(0, report.getDeletedFiles());
+        assertEquals(1, report.getRestoredFiles());
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(quarantineRepository).deleteById("dedup.jpg");
+    }
+
+    @Test
+    void purge_FileWithoutAStoredFileRow_IsDeleted() throws Exception {
+        expired("legacy-upload.pdf");
+        when(storedFileRepository.deleteIfNotAcquiredSince(eq("legacy-upload.pdf"), any())).thenReturn(0);
+        when(storedFileRepository.existsByFileName("legacy-upload.pdf")).thenReturn(false);
+        when(fileStorageService.statFile("legacy-upload.pdf")).thenReturn(Optional.empty());
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(1, report.getDeletedFiles());
+        verify(fileStorageService).deleteFile("legacy-upload.pdf");
+    }
+
+    @Test
+    void purge_ReferencedAgain_IsRestoredNotDeleted() throws Exception {
+        expired("photo.jpg");
+        referencedUrls("/uploads/photo.jpg");
+
+        UploadGcReportDTO report = collector.collect();
+
+        assertEquals(1, report.getRestoredFiles());
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(storedFileRepository, never()).deleteIfNotAcquiredSince(any(), any());
+    }
+
+    private void files(StoredObject... objects) throws Exception {
+        when(fileStorageService.listFiles()).thenAnswer(invocation -> Stream.of(objects));
+    }
+
+    private void expired(String name) {
+        when(quarantineRepository.findByQuarantinedAtBeforeOrderByFileName(any(), any()))
+                .thenReturn(List.of(new QuarantinedUpload(name, 0L, LocalDateTime.now().minus(QUARANTINE)
+                        .minusDays(1))))
+                .thenReturn(List.of());
+    }
+
+    private void referencedUrls(String... urls) {
+        when(storedFileRepository.findReferencedUrls(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> asked = invocation.getArgument(0);
+            return Stream.of(urls).filter(asked::contains).toList();
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<QuarantinedUpload> saved() {
+        ArgumentCaptor<List<QuarantinedUpload>> saved = ArgumentCaptor.forClass(List.class);
+        verify(quarantineRepository, atLeastOnce()).saveAll(saved.capture());
+        List<QuarantinedUpload> all = new ArrayList<>();
+        saved.getAllValues().forEach(all::addAll);
+        return all;
+    }
+}
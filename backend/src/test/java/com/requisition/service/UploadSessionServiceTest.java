@@ -0,0 +1,146 @@
+package com.requisition.service;
+
+import com.requisition.dto.CompleteDirectUploadRequest;
+import com.requisition.dto.CreateUploadSessionRequest;
+import com.requisition.dto.RequisitionDTO;
+import com.requisition.dto.UploadSessionDTO;
+import com.requisition.entity.PendingUpload;
+import com.requisition.exception.ConflictException;
+import com.requisition.repository.PendingUploadRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UploadSessionServiceTest {
+
+    private static final String STORED_NAME = "ab12.jpg";
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private RequisitionService requisitionService;
+
+    @Mock
+    private PendingUploadRepository pendingUploadRepository;
+
+    @InjectMocks
+    private UploadSessionService uploadSessionService;
+
+    @TempDir
+    Path sessionDirectory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(uploadSessionService, "maxSize", 1024L);
+        ReflectionTestUtils.setField(uploadSessionService, "sessionTtl", Duration.ofHours(1));
+        lenient().when(fileStorageService.getSessionDirectory()).thenReturn(sessionDirectory);
+    }
+
+    @Test
+    void failedAttach_KeepsTheStoredFileForARetry() {
+        String sessionId = uploadedSession();
+        when(fileStorageService.storeLocalFile(any(Path.class), eq("bill.jpg"))).thenReturn(STORED_NAME);
+        when(requisitionService.uploadFile(100L, 1L, "bill", STORED_NAME))
+                .thenThrow(new ConflictException("Update conflict: billPhotoUrl changed concurrently"))
+                .thenReturn(new RequisitionDTO());
+
+        assertThrows(ConflictException.class, () -> uploadSessionService.completeSession(sessionId, 1L));
+        assertNotNull(uploadSessionService.completeSession(sessionId, 1L));
+
+        verify(fileStorageService, times(1)).storeLocalFile(any(Path.class), eq("bill.jpg"));
+        assertThrows(RuntimeException.class, () -> uploadSessionService.getSession(sessionId, 1L));
+    }
+
+    @Test
+    void abortAfterFailedAttach_EndsTheSession() {
+        String sessionId = uploadedSession();
+        when(fileStorageService.storeLocalFile(any(Path.class), eq("bill.jpg"))).thenReturn(STORED_NAME);
+        when(requisitionService.uploadFile(100L, 1L, "bill", STORED_NAME))
+                .thenThrow(new RuntimeException("Requisition not found"));
+
+        assertThrows(RuntimeException.class, () -> uploadSessionService.completeSession(sessionId, 1L));
+        uploadSessionService.abortSession(sessionId, 1L);
+
+        // The stored file is left to the upload collector, which removes unreferenced files
+        assertThrows(RuntimeException.class, () -> uploadSessionService.getSession(sessionId, 1L));
+        assertThrows(RuntimeException.class, () -> uploadSessionService.completeSession(sessionId, 1L));
+    }
+
+    @Test
+    void completeDirectUpload_RejectsKeysIssuedToSomeoneElse() {
+        when(pendingUploadRepository.findById("uploads/ab12.jpg"))
+                .thenReturn(Optional.of(pendingUpload(2L, 100L)));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> uploadSessionService.completeDirectUpload(100L, 1L, directUpload("uploads/ab12.jpg")));
+
+        assertEquals("Direct upload not found", error.getMessage());
+        verify(pendingUploadRepository, never()).claim(any(), any(), any(), any());
+        verify(fileStorageService, never()).completeDirectUpload(any());
+    }
+
+    @Test
+    void completeDirectUpload_RejectsKeysThatWereNeverIssued() {
+        when(pendingUploadRepository.findById("uploads/other-tenant.pdf")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class,
+                () -> uploadSessionService.completeDirectUpload(100L, 1L, directUpload("uploads/other-tenant.pdf")));
+
+        verify(fileStorageService, never()).completeDirectUpload(any());
+    }
+
+    @Test
+    void failedDirectAttach_GivesTheKeyBack() {
+        PendingUpload pending = pendingUpload(1L, 100L);
+        when(pendingUploadRepository.findById("uploads/ab12.jpg")).thenReturn(Optional.of(pending));
+        when(pendingUploadRepository.claim(eq("uploads/ab12.jpg"), eq(1L), eq(100L), any())).thenReturn(1);
+        when(fileStorageService.completeDirectUpload("uploads/ab12.jpg")).thenReturn(STORED_NAME);
+        when(requisitionService.uploadFile(100L, 1L, "bill", STORED_NAME))
+                .thenThrow(new ConflictException("Update conflict: billPhotoUrl changed concurrently"));
+
+        assertThrows(ConflictException.class,
+                () -> uploadSessionService.completeDirectUpload(100L, 1L, directUpload("uploads/ab12.jpg")));
+
+        verify(pendingUploadRepository).save(pending);
+    }
+
+    private PendingUpload pendingUpload(Long userId, Long requisitionId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new PendingUpload("uploads/ab12.jpg", userId, requisitionId, now, now.plusHours(1));
+    }
+
+    private CompleteDirectUploadRequest directUpload(String key) {
+        CompleteDirectUploadRequest request = new CompleteDirectUploadRequest();
+        request.setKey(key);
+        request.setType("bill");
+        return request;
+    }
+
+    private String uploadedSession() {
+        CreateUploadSessionRequest request = new CreateUploadSessionRequest();
+        request.setType("bill");
+        request.setFileName("bill.jpg");
+        request.setTotalSize(4L);
+        UploadSessionDTO session = uploadSessionService.createSession(100L, 1L, request);
+        uploadSessionService.appendChunk(session.getSessionId(), 1L, 0, new ByteArrayInputStream(new byte[4]));
+        return session.getSessionId();
+    }
+}
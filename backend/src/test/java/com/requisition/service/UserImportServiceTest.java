@@ -0,0 +1,181 @@
+package com.requisition.service;
+
+import com.requisition.dto.UserImportResultDTO;
+import com.requisition.dto.UserImportRowDTO;
+import com.requisition.entity.Organization;
+import com.requisition.entity.User;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    private static final String PASSWORD = "Cement@2024";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private UserRoster userRoster;
+
+    @InjectMocks
+    private UserImportService userImportService;
+
+    private final ForkJoinPool passwordHashingPool = new ForkJoinPool(2);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userImportService, "passwordHashingPool", passwordHashingPool);
+        ReflectionTestUtils.setField(userImportService, "maxRows", 1000);
+        ReflectionTestUtils.setField(userImportService, "batchSize", 100);
+
+        Organization organization = new Organization();
+        organization.setId(10L);
+        User admin = new User();
+        admin.setId(1L);
+        admin.setOrganization(organization);
+        admin.setRole(User.UserRole.ADMIN);
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(admin));
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingPool.shutdownNow();
+    }
+
+    @Test
+    void parseCsv_HandlesQuotedCommasQuotesAndLineBreaks() throws Exception {
+        List<List<String>> records = UserImportService.parseCsv(new StringReader(
+                "email,fullName\n\"a@x.com\",\"Rao, Asha\"\nb@x.com,\"Said \"\"hi\"\"\nthen left\"\n"));
+
+        assertEquals(List.of(
+                List.of("email", "fullName"),
+                List.of("a@x.com", "Rao, Asha"),
+                List.of("b@x.com", "Said \"hi\"\nthen left")), records);
+    }
+
+    @Test
+    void parseCsv_HandlesCrlfAndAMissingFinalLineBreak() throws Exception {
+        List<List<String>> records = UserImportService.parseCsv(new StringReader(
+                "email,role\r\na@x.com,ADMIN\r\nb@x.com,"));
+
+        assertEquals(List.of(
+                List.of("email", "role"),
+                List.of("a@x.com", "ADMIN"),
+                List.of("b@x.com", "")), records);
+    }
+
+    @Test
+    void parseCsv_SkipsOnlyALeadingByteOrderMark() throws Exception {
+        List<List<String>> records = UserImportService.parseCsv(new StringReader(
+                "\uFEFFemail\n\uFEFFa@x.com\n"));
+
+        assertEquals(List.of(List.of("email"), List.of("\uFEFFa@x.com")), records);
+    }
+
+    @Test
+    void import_ReportsEveryRowAndCreatesOnlyTheValidOnes() {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@x.com"));
+        when(passwordEncoder.encode(PASSWORD)).thenReturn("hash");
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(GeneratedKeyHolder.class))).thenAnswer(invocation -> {
+                    GeneratedKeyHolder keys = invocation.getArgument(2);
+                    BatchPreparedStatementSetter rows = invocation.getArgument(1);
+                    for (int i = 0; i < rows.getBatchSize(); i++) {
+                        keys.getKeyList().add(Map.of("id", 500L + i));
+                    }
+                    return new int[rows.getBatchSize()];
+                });
+
+        UserImportResultDTO result = userImportService.importUsers(1L, csv(
+                "Email,Full Name,Password,Role\n"
+                        + "asha@x.com,Asha Rao," + PASSWORD + ",purchaser\n"
+                        + "not-an-email,Nobody," + PASSWORD + ",PURCHASER\n"
+                        + "\n"
+                        + "asha@x.com,Asha Again," + PASSWORD + ",PURCHASER\n"
+                        + "taken@x.com,Taken," + PASSWORD + ",MANAGER\n"
+                        + "ravi@x.com,Ravi," + PASSWORD + ",OWNER\n"
+                        + "meena@x.com,Meena," + PASSWORD + ",MANAGER\n"));
+
+        assertEquals(6, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(1, 2, 4, 5, 6, 7), result.getRows().stream().map(UserImportRowDTO::getRow).toList());
+        assertRow(result.getRows().get(0), UserImportRowDTO.CREATED, null);
+        assertEquals(500L, result.getRows().get(0).getUserId());
+        assertRow(result.getRows().get(1), UserImportRowDTO.FAILED, "Invalid email format");
+        assertRow(result.getRows().get(2), UserImportRowDTO.FAILED, "Email repeated in file");
+        assertRow(result.getRows().get(3), UserImportRowDTO.FAILED, "Email already exists");
+        assertRow(result.getRows().get(4), UserImportRowDTO.FAILED, "Role not supported: OWNER");
+        assertRow(result.getRows().get(5), UserImportRowDTO.CREATED, null);
+        assertEquals(501L, result.getRows().get(5).getUserId());
+        verify(userRoster).changed(10L);
+    }
+
+    @Test
+    void import_WithoutValidRows_InsertsNothing() {
+        UserImportResultDTO result = userImportService.importUsers(1L, csv(
+                "email,fullname,password,role\nnot-an-email,Nobody," + PASSWORD + ",PURCHASER\n"));
+
+        assertEquals(0, result.getCreated());
+        verifyNoInteractions(jdbcTemplate, userRoster);
+        verify(userRepository, never()).findExistingEmails(anyCollection());
+    }
+
+    @Test
+    void import_WithoutARequiredColumn_IsNotSupported() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> userImportService.importUsers(1L, csv("email,fullname,role\na@x.com,Asha,ADMIN\n")));
+
+        assertEquals("User file without a password column not supported", e.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    private static void assertRow(UserImportRowDTO row, String status, String error) {
+        assertEquals(status, row.getStatus(), row.toString());
+        assertEquals(error, row.getError(), row.toString());
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "users.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
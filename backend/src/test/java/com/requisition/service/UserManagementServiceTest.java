@@ -0,0 +1,101 @@
+package com.requisition.service;
+
+import com.requisition.dto.PageResponse;
+import com.requisition.dto.UserDTO;
+import com.requisition.dto.UserSummaryDTO;
+import com.requisition.entity.Organization;
+import com.requisition.entity.User;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserManagementServiceTest {
+
+    private static final Long ORG = 10L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserRoster userRoster;
+
+    @InjectMocks
+    private UserManagementService userManagementService;
+
+    private User caller;
+
+    @BeforeEach
+    void setUp() {
+        Organization organization = new Organization();
+        organization.setId(ORG);
+        organization.setName("Test Org");
+        caller = new User();
+        caller.setId(1L);
+        caller.setOrganization(organization);
+        caller.setFullName("Asha Rao");
+        caller.setRole(User.UserRole.MANAGER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(caller));
+    }
+
+    @Test
+    void search_IsScopedToTheCallersOrganization() {
+        when(userRepository.searchInOrganization(eq(ORG), eq(User.UserRole.PURCHASER), eq("%rao%"), any()))
+                .thenReturn(new PageImpl<>(List.of(caller)));
+
+        PageResponse<UserDTO> page = userManagementService.searchUsers(1L, "  Rao ", "purchaser", 0, 1_000);
+
+        assertEquals(List.of(1L), page.getContent().stream().map(UserDTO::getId).toList());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(userRepository).searchInOrganization(eq(ORG), any(), any(), pageable.capture());
+        assertEquals(UserManagementService.MAX_PAGE_SIZE, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    void search_WithoutTextOrRole_ListsTheWholeOrganization() {
+        Page<User> empty = new PageImpl<>(List.of());
+        when(userRepository.searchInOrganization(eq(ORG), isNull(), eq(""), any())).thenReturn(empty);
+
+        PageResponse<UserDTO> page = userManagementService.searchUsers(1L, " ", "", -1, 20);
+
+        assertTrue(page.getContent().isEmpty());
+    }
+
+    @Test
+    void search_WithAnUnknownRole_IsNotSupported() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> userManagementService.searchUsers(1L, null, "superuser", 0, 20));
+
+        assertEquals("Role not supported: superuser", e.getMessage());
+        verify(userRepository, never()).searchInOrganization(any(), any(), any(), any());
+    }
+
+    @Test
+    void roster_IsTheCallersOrganization() {
+        UserSummaryDTO summary = new UserSummaryDTO(1L, "Asha Rao", "MANAGER", null, null, true);
+        when(userRoster.list(ORG)).thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary), userManagementService.getRoster(1L));
+    }
+}
@@ -0,0 +1,111 @@
+package com.requisition.service;
+
+import com.requisition.entity.Organization;
+import com.requisition.entity.User;
+import com.requisition.repository.OrganizationRepository;
+import com.requisition.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserRosterTest {
+
+    private static final Long ORG = 10L;
+    private static final Long OTHER_ORG = 20L;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @InjectMocks
+    private UserRoster userRoster;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userRoster, "ttl", Duration.ofMinutes(5));
+    }
+
+    @Test
+    void userChange_MovesTheChangeCounterAndReloadsTheRoster() {
+        when(userRepository.findByOrganizationIdOrderByFullNameAsc(ORG))
+                .thenReturn(List.of(user(1L, "Asha Rao")))
+                .thenReturn(List.of(user(1L, "Asha Menon")));
+        assertEquals("Asha Rao", userRoster.find(ORG, 1L).getFullName());
+
+        userRoster.changed(ORG);
+
+        // List ETags are built from the counter and embed names, so a rename must change them
+        verify(organizationRepository).bumpChangeSeq(ORG);
+        assertEquals("Asha Menon", userRoster.find(ORG, 1L).getFullName());
+    }
+
+    @Test
+    void roster_IsCachedPerOrganization() {
+        when(userRepository.findByOrganizationIdOrderByFullNameAsc(ORG)).thenReturn(List.of(user(1L, "Asha Rao")));
+        when(userRepository.findByOrganizationIdOrderByFullNameAsc(OTHER_ORG)).thenReturn(List.of());
+
+        userRoster.list(ORG);
+        assertNull(userRoster.find(OTHER_ORG, 1L)); // another organization's user is never found
+        userRoster.evict(OTHER_ORG);
+        userRoster.find(ORG, 1L);
+
+        verify(userRepository, times(1)).findByOrganizationIdOrderByFullNameAsc(ORG);
+    }
+
+    @Test
+    void evict_DropsAgainAfterCommit() {
+        when(userRepository.findByOrganizationIdOrderByFullNameAsc(ORG))
+                .thenReturn(List.of(user(1L, "Asha Rao")))
+                .thenReturn(List.of(user(1L, "Asha Menon")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userRoster.evict(ORG);
+            // A read racing the uncommitted change caches the old row
+            assertEquals("Asha Rao", userRoster.find(ORG, 1L).getFullName());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("Asha Menon", userRoster.find(ORG, 1L).getFullName());
+    }
+
+    @Test
+    void expiredRoster_IsReloaded() {
+        ReflectionTestUtils.setField(userRoster, "ttl", Duration.ofMillis(-1));
+        when(userRepository.findByOrganizationIdOrderByFullNameAsc(ORG)).thenReturn(List.of(user(1L, "Asha Rao")));
+
+        userRoster.list(ORG);
+        userRoster.list(ORG);
+
+        verify(userRepository, times(2)).findByOrganizationIdOrderByFullNameAsc(ORG);
+    }
+
+    private static User user(Long id, String name) {
+        Organization organization = new Organization();
+        organization.setId(ORG);
+        User user = new User();
+        user.setId(id);
+        user.setFullName(name);
+        user.setRole(User.UserRole.PURCHASER);
+        user.setOrganization(organization);
+        user.setActive(true);
+        return user;
+    }
+}
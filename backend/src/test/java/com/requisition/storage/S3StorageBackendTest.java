@@ -0,0 +1,264 @@
+package com.requisition.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs S3StorageBackend through the real AWS SDK against an in-process,
+ * MinIO-style endpoint (path-style addressing, static credentials, plain
+ * HTTP). The endpoint keeps objects in memory and does not check signatures.
+ */
+public class S3StorageBackendTest {
+
+    private static final String BUCKET = "requisitions";
+
+    private final Map<String, byte[]> objects = new ConcurrentSkipListMap<>();
+    private final Map<String, Instant> modified = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private URI endpoint;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void startEndpoint() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        endpoint = URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void stopEndpoint() {
+        server.stop(0);
+    }
+
+    @Test
+    void putStatOpenListDelete_RoundTrip() throws IOException {
+        S3StorageBackend backend = backend();
+        byte[] content = "bill photo".getBytes(StandardCharsets.UTF_8);
+
+        backend.put("ab12.jpg", file(content), "image/jpeg");
+
+        StoredObject stat = backend.stat("ab12.jpg").orElseThrow();
+        assertEquals(content.length, stat.getSize());
+        try (InputStream in = backend.open("ab12.jpg")) {
+            assertArrayEquals(content, in.readAllBytes());
+        }
+        assertEquals(List.of("ab12.jpg"), backend.list().map(StoredObject::getKey).toList());
+
+        backend.delete("ab12.jpg");
+        assertFalse(backend.exists("ab12.jpg"));
+        assertTrue(backend.stat("ab12.jpg").isEmpty());
+    }
+
+    @Test
+    void exists_SeesDeletesMadeByAnotherNode() throws IOException {
+        S3StorageBackend nodeA = backend();
+        S3StorageBackend nodeB = backend();
+
+        nodeA.put("ab12.jpg", file(new byte[16]), "image/jpeg");
+        assertTrue(nodeA.exists("ab12.jpg"));
+
+        nodeB.delete("ab12.jpg");
+
+        assertFalse(nodeA.exists("ab12.jpg"));
+    }
+
+    @Test
+    void presignPut_AcceptsADirectUpload() throws IOException {
+        S3StorageBackend backend = backend();
+        byte[] content = new byte[1024];
+
+        URI url = backend.presignPut("direct/ab12.pdf", "application/pdf", Duration.ofMinutes(5)).orElseThrow();
+        HttpURLConnection connection = (HttpURLConnection) url.toURL().openConnection();
+        connection.setRequestMethod("PUT");
+        connection.setRequestProperty("Content-Type", "application/pdf");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(content);
+        }
+        assertEquals(200, connection.getResponseCode());
+
+        assertEquals(content.length, backend.stat("direct/ab12.pdf").orElseThrow().getSize());
+    }
+
+    private S3StorageBackend backend() {
+        StaticCredentialsProvider credentials =
+                StaticCredentialsProvider.create(AwsBasicCredentials.create("minio", "minio-secret"));
+        S3Configuration pathStyle = S3Configuration.builder().pathStyleAccessEnabled(true).build();
+        S3Client client = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .endpointOverride(endpoint)
+                .build();
+        S3Presigner presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(credentials)
+                .serviceConfiguration(pathStyle)
+                .endpointOverride(endpoint)
+                .build();
+        return new S3StorageBackend(client, presigner, BUCKET);
+    }
+
+    private Path file(byte[] content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "object-", ".bin");
+        return Files.write(file, content);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String prefix = "/" + BUCKET;
+        if (!path.startsWith(prefix)) {
+            respond(exchange, 404, error("NoSuchBucket"));
+            return;
+        }
+        String key = path.length() > prefix.length() + 1 ? path.substring(prefix.length() + 1) : "";
+        switch (exchange.getRequestMethod()) {
+            case "PUT" -> {
+                byte[] body = readBody(exchange);
+                objects.put(key, body);
+                modified.put(key, Instant.now());
+                exchange.getResponseHeaders().set("ETag", etag(body));
+                respond(exchange, 200, new byte[0]);
+            }
+            case "HEAD" -> {
+                byte[] body = objects.get(key);
+                if (body == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                } else {
+                    objectHeaders(exchange, key, body);
+                    exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                exchange.close();
+            }
+            case "GET" -> {
+                if (key.isEmpty()) {
+                    respond(exchange, 200, listing());
+                    return;
+                }
+                byte[] body = objects.get(key);
+                if (body == null) {
+                    respond(exchange, 404, error("NoSuchKey"));
+                } else {
+                    objectHeaders(exchange, key, body);
+                    respond(exchange, 200, body);
+                }
+            }
+            case "DELETE" -> {
+                objects.remove(key);
+                modified.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+            default -> respond(exchange, 405, error("MethodNotAllowed"));
+        }
+    }
+
+    // The SDK signs payloads over plain HTTP, which sends the body in aws-chunked framing
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] raw = exchange.getRequestBody().readAllBytes();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        if (contentSha == null || !contentSha.startsWith("STREAMING-")) {
+            return raw;
+        }
+        ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        int position = 0;
+        while (true) {
+            int lineEnd = indexOfCrlf(raw, position);
+            String header = new String(raw, position, lineEnd - position, StandardCharsets.US_ASCII);
+            int size = Integer.parseInt(header.split(";")[0], 16);
+            if (size == 0) {
+                return decoded.toByteArray();
+            }
+            decoded.write(raw, lineEnd + 2, size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private int indexOfCrlf(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length - 1; i++) {
+            if (bytes[i] == '\r' && bytes[i + 1] == '\n') {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Malformed aws-chunked body");
+    }
+
+    private void objectHeaders(HttpExchange exchange, String key, byte[] body) {
+        exchange.getResponseHeaders().set("ETag", etag(body));
+        exchange.getResponseHeaders().set("Last-Modified",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(modified.get(key).atOffset(ZoneOffset.UTC)));
+    }
+
+    private byte[] listing() {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(BUCKET).append("</Name>")
+                .append("<KeyCount>").append(objects.size()).append("</KeyCount>")
+                .append("<MaxKeys>1000</MaxKeys><IsTruncated>false</IsTruncated>");
+        objects.forEach((key, body) -> xml.append("<Contents>")
+                .append("<Key>").append(key).append("</Key>")
+                .append("<LastModified>").append(modified.get(key)).append("</LastModified>")
+                .append("<ETag>").append(etag(body)).append("</ETag>")
+                .append("<Size>").append(body.length).append("</Size>")
+                .append("</Contents>"));
+        return xml.append("</ListBucketResult>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] error(String code) {
+        return ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Error><Code>" + code + "</Code></Error>")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String etag(byte[] body) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(body)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
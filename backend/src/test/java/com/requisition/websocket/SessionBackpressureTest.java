@@ -0,0 +1,163 @@
+package com.requisition.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.requisition.config.StompDestinations;
+import com.requisition.dto.RequisitionChangeEvent;
+import com.requisition.dto.WebSocketStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SessionBackpressureTest {
+
+    private static final int LAG_THRESHOLD = 4;
+    private static final String SESSION_ID = "s1";
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private SessionBackpressure backpressure;
+
+    @Mock
+    private WebSocketHandler handler;
+
+    @Mock
+    private WebSocketSession rawSession;
+
+    @Mock
+    private MessageChannel outboundChannel;
+
+    @Mock
+    private MessageHandler messageHandler;
+
+    private WebSocketSession session;
+
+    @BeforeEach
+    void connect() throws Exception {
+        ReflectionTestUtils.setField(backpressure, "lagThreshold", LAG_THRESHOLD);
+        when(rawSession.getId()).thenReturn(SESSION_ID);
+        backpressure.decorate(handler).afterConnectionEstablished(rawSession);
+        ArgumentCaptor<WebSocketSession> metered = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(metered.capture());
+        session = metered.getValue();
+    }
+
+    @Test
+    void unwrittenMessages_MarkTheSessionAsLagging() {
+        handOver(LAG_THRESHOLD - 1);
+        assertEquals(0, backpressure.getStats().getLaggingSessions());
+
+        handOver(1);
+
+        WebSocketStatsDTO stats = backpressure.getStats();
+        assertEquals(1, stats.getSessions());
+        assertEquals(1, stats.getLaggingSessions());
+        assertEquals(List.of(LAG_THRESHOLD), stats.getDeepestQueues());
+    }
+
+    @Test
+    void laggingSession_GetsOneMergedUpdateWhenItCatchesUp() throws Exception {
+        when(outboundChannel.send(any())).thenReturn(true);
+        handOver(LAG_THRESHOLD);
+
+        assertNull(backpressure.beforeHandle(change(4L, Map.of("description", "Cement, 40 bags")),
+                outboundChannel, messageHandler));
+        assertNull(backpressure.beforeHandle(change(5L, Map.of("paymentStatus", "DONE")),
+                outboundChannel, messageHandler));
+        Message<byte[]> other = message("/topic/org.1/stats", "{}".getBytes());
+        assertSame(other, backpressure.beforeHandle(other, outboundChannel, messageHandler));
+
+        WebSocketStatsDTO stats = backpressure.getStats();
+        assertEquals(1, stats.getParkedUpdates());
+        assertEquals(1, stats.getDroppedStaleMessages());
+        verify(outboundChannel, never()).send(any());
+
+        write(LAG_THRESHOLD / 2);
+
+        RequisitionChangeEvent released = sentChange();
+        assertEquals(5L, released.getVersion());
+        assertEquals(Map.of("description", "Cement, 40 bags", "paymentStatus", "DONE"), released.getChanges());
+        assertEquals(0, backpressure.getStats().getParkedUpdates());
+    }
+
+    @Test
+    void rejectedRelease_KeepsTheUpdateParked() throws Exception {
+        when(outboundChannel.send(any()))
+                .thenThrow(new MessageDeliveryException("Outbound pool is full"))
+                .thenReturn(true);
+        handOver(LAG_THRESHOLD);
+        backpressure.beforeHandle(change(4L, Map.of("description", "Cement, 40 bags")), outboundChannel,
+                messageHandler);
+
+        write(LAG_THRESHOLD / 2);
+
+        assertEquals(1, backpressure.getStats().getParkedUpdates());
+
+        // A newer change for the same requisition goes out merged with the one that was rejected
+        assertNull(backpressure.beforeHandle(change(6L, Map.of("paymentStatus", "DONE")), outboundChannel,
+                messageHandler));
+
+        RequisitionChangeEvent released = sentChange();
+        assertEquals(6L, released.getVersion());
+        assertEquals(Map.of("description", "Cement, 40 bags", "paymentStatus", "DONE"), released.getChanges());
+        assertEquals(0, backpressure.getStats().getParkedUpdates());
+    }
+
+    private void handOver(int count) {
+        for (int i = 0; i < count; i++) {
+            backpressure.afterMessageHandled(message("/topic/org.1/stats", new byte[0]), outboundChannel,
+                    messageHandler, null);
+        }
+    }
+
+    private void write(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            session.sendMessage(new TextMessage("MESSAGE"));
+        }
+    }
+
+    private RequisitionChangeEvent sentChange() throws Exception {
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(outboundChannel, atLeastOnce()).send(sent.capture());
+        return objectMapper.readValue((byte[]) sent.getValue().getPayload(), RequisitionChangeEvent.class);
+    }
+
+    private Message<byte[]> change(Long version, Map<String, Object> changes) throws Exception {
+        RequisitionChangeEvent event = new RequisitionChangeEvent(100L, version, RequisitionChangeEvent.UPDATED,
+                changes);
+        return message(StompDestinations.requisitions(1L), objectMapper.writeValueAsBytes(event));
+    }
+
+    private Message<byte[]> message(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}
@@ -7,6 +7,7 @@ import AccountCircleIcon from '@mui/icons-material/AccountCircle';
 import { useSelector, useDispatch } from 'react-redux';
 import { RootState } from '../store/store';
 import { logout } from '../store/authSlice';
+import { clearSyncState } from '../services/sync';
 import Sidebar from './Sidebar';
 
 const DRAWER_WIDTH = 260;
@@ -32,6 +33,7 @@ export default function Layout() {
 
     const handleLogout = () => {
         handleCloseUserMenu();
+        clearSyncState().catch((error) => console.error('Could not clear offline data', error));
         dispatch(logout());
         navigate('/login');
     };
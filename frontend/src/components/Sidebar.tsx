@@ -16,6 +16,7 @@ import LogoutIcon from '@mui/icons-material/Logout';
 import { useNavigate, useLocation } from 'react-router-dom';
 import { useDispatch, useSelector } from 'react-redux';
 import { logout } from '../store/authSlice';
+import { clearSyncState } from '../services/sync';
 import { RootState } from '../store/store';
 
 export default function Sidebar({ onClose }: { onClose?: () => void }) {
@@ -30,6 +31,7 @@ export default function Sidebar({ onClose }: { onClose?: () => void }) {
     };
 
     const handleLogout = () => {
+        clearSyncState().catch((error) => console.error('Could not clear offline data', error));
         dispatch(logout());
         navigate('/login');
         if (onClose) onClose();
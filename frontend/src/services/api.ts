@@ -26,7 +26,9 @@ export const authAPI = {
 
 export const dashboardAPI = {
     getStats: (typeId: number) => api.get(`/dashboard/stats/${typeId}`),
-    getRequisitionsByType: (typeId: number) => api.get(`/dashboard/requisitions/${typeId}`),
+    // fields: only these properties per row, e.g. ['requestId', 'status']
+    getRequisitionsByType: (typeId: number, fields?: string[]) =>
+        api.get(`/dashboard/requisitions/${typeId}`, { params: fields ? { fields: fields.join(',') } : undefined }),
     getRequisitionDetail: (id: number) => api.get(`/dashboard/requisitions/${id}/detail`),
     createRequisition: (data: any) => api.post('/dashboard/requisitions/create', data),
     submitRequisition: (id: number) => api.post(`/dashboard/requisitions/${id}/submit`),
@@ -35,12 +37,20 @@ export const dashboardAPI = {
 
 // Backward compatibility (optional, or redirect to dashboardAPI)
 export const requisitionAPI = {
-    getAll: () => api.get('/requisitions'),
+    getAll: (fields?: string[]) =>
+        api.get('/requisitions', { params: fields ? { fields: fields.join(',') } : undefined }),
+    // Rows reference users by id (createdById, approvedById, ...); each user is sent once in data.users
+    getAllNormalized: () => api.get('/requisitions', { params: { shape: 'normalized' } }),
+    getPayloadSizes: () => api.get('/requisitions/payload-sizes'),
+    // Same response as getAll, streamed by the server; the first rows arrive before the query finishes
+    stream: () => api.get('/requisitions/stream'),
     getById: (id: number) => api.get(`/requisitions/${id}`),
     create: (data: any) => api.post('/requisitions', data),
     update: (id: number, data: any) => api.put(`/requisitions/${id}`, data),
     delete: (id: number) => api.delete(`/requisitions/${id}`),
     bulkDelete: (ids: number[]) => api.delete('/requisitions/bulk', { data: ids }),
+    // Ordered offline operations, applied all-or-nothing; replays are deduplicated by operationId
+    applyBatch: (operations: any[]) => api.post('/requisitions/batch', { operations }),
     submit: (id: number) => api.post(`/requisitions/${id}/submit`),
 
     // Approval Workflow
@@ -63,15 +73,61 @@ export const requisitionAPI = {
             },
         });
     },
+
+    // Resumable uploads for large files on unreliable connections
+    uploadAttachments: (id: number, category: string, files: File[]) => {
+        const formData = new FormData();
+        files.forEach((file) => formData.append('files', file));
+        formData.append('category', category);
+        return api.post(`/requisitions/${id}/attachments`, formData, {
+            headers: { 'Content-Type': 'multipart/form-data' },
+        });
+    },
+    getAttachments: (id: number, params?: { category?: string; page?: number; size?: number }) =>
+        api.get(`/requisitions/${id}/attachments`, { params }),
+    deleteAttachment: (id: number, attachmentId: number) =>
+        api.delete(`/requisitions/${id}/attachments/${attachmentId}`),
+    createUploadSession: (id: number, data: { fileName: string; type: string; totalSize?: number }) =>
+        api.post(`/requisitions/${id}/uploads`, data),
+    getUploadSession: (sessionId: string) => api.get(`/requisitions/uploads/${sessionId}`),
+    uploadChunk: (sessionId: string, offset: number, chunk: Blob) =>
+        api.put(`/requisitions/uploads/${sessionId}`, chunk, {
+            params: { offset },
+            headers: { 'Content-Type': 'application/octet-stream' },
+        }),
+    completeUpload: (sessionId: string) => api.post(`/requisitions/uploads/${sessionId}/complete`),
+    createDirectUpload: (id: number, data: { fileName: string; type: string }) =>
+        api.post(`/requisitions/${id}/uploads/presign`, data),
+    completeDirectUpload: (id: number, data: { key: string; type: string }) =>
+        api.post(`/requisitions/${id}/uploads/presign/complete`, data),
+
     dispatch: (id: number) => api.post(`/dashboard/requisitions/${id}/dispatch`),
 
     exportRequisitions: () => api.get('/requisitions/export', { responseType: 'blob' }),
     exportSelectedRequisitions: (ids: number[]) => api.post('/requisitions/export/selected', ids, { responseType: 'blob' }),
+    exportAttachments: (filter: {
+        ids?: number[];
+        requisitionTypeId?: number;
+        status?: string;
+        from?: string;
+        to?: string;
+        categories?: string[];
+    }) => api.post('/requisitions/export/attachments', filter, { responseType: 'blob' }),
 };
 
 export const userManagementAPI = {
     createUser: (data: any) => api.post('/users/create', data),
+    importUsers: (file: File) => {
+        const formData = new FormData();
+        formData.append('file', file);
+        return api.post('/users/bulk', formData, {
+            headers: { 'Content-Type': 'multipart/form-data' },
+        });
+    },
     getAllUsers: () => api.get('/users'),
+    searchUsers: (params: { q?: string; role?: string; page?: number; size?: number }) =>
+        api.get('/users/search', { params }),
+    getRoster: () => api.get('/users/roster'),
     updateUser: (id: number, data: any) => api.put(`/users/${id}`, data),
     deactivateUser: (id: number) => api.post(`/users/${id}/deactivate`),
     activateUser: (id: number) => api.post(`/users/${id}/activate`),
@@ -98,4 +154,14 @@ export const organizationAPI = {
     },
 };
 
+export const syncAPI = {
+    // Requisitions changed or deleted since a cursor; follow `cursor` while `hasMore`
+    getChanges: (since: number, limit = 200) => api.get('/sync', { params: { since, limit } }),
+};
+
+export const bootstrapAPI = {
+    // User, organization, types, stats and newest cards per type in one call
+    load: (cardsPerType?: number) => api.get('/bootstrap', { params: { cardsPerType } }),
+};
+
 export default api;
@@ -33,14 +33,30 @@ export const offlineDB = {
         ]);
     },
 
+    async deleteRequisitions(ids: number[]) {
+        const db = await initDB();
+        const tx = db.transaction('requisitions', 'readwrite');
+        const store = tx.objectStore('requisitions');
+        await Promise.all([
+            ...ids.map(id => store.delete(id)),
+            tx.done
+        ]);
+    },
+
+    async clearRequisitions() {
+        const db = await initDB();
+        await db.clear('requisitions');
+    },
+
     async getRequisitions() {
         const db = await initDB();
         return await db.getAll('requisitions');
     },
 
-    async addToSyncQueue(operation: 'CREATE' | 'UPDATE' | 'DELETE', data: any) {
+    async addToSyncQueue(operation: 'CREATE' | 'UPDATE' | 'SUBMIT' | 'DELETE', data: any) {
         const db = await initDB();
         await db.add('syncQueue', {
+            operationId: crypto.randomUUID(), // lets the server recognise a replayed operation
             operation,
             data,
             timestamp: Date.now(),
@@ -53,6 +69,11 @@ export const offlineDB = {
         return await db.getAll('syncQueue');
     },
 
+    async updateSyncItem(item: any) {
+        const db = await initDB();
+        await db.put('syncQueue', item);
+    },
+
     async removeFromSyncQueue(id: number) {
         const db = await initDB();
         await db.delete('syncQueue', id);
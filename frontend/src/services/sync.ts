@@ -1,29 +1,116 @@
 import { offlineDB } from './indexedDB';
-import { requisitionAPI } from './api';
+import { requisitionAPI, syncAPI } from './api';
+
+// Per user: another account on this browser sees a different organization and role
+function syncCursorKey() {
+    const user = localStorage.getItem('user');
+    return `syncCursor:${user ? JSON.parse(user).id : 'anonymous'}`;
+}
+
+// Brings the local copy up to date with only what changed on the server
+export async function pullServerChanges() {
+    const cursorKey = syncCursorKey();
+    let since = Number(localStorage.getItem(cursorKey) || 0);
+    let hasMore = true;
+
+    while (hasMore) {
+        const response = await syncAPI.getChanges(since);
+        const page = response.data.data;
+
+        if (page.resetRequired) {
+            // First pull, or the server no longer has changes that far back: reload everything
+            const all = await requisitionAPI.getAll();
+            await offlineDB.clearRequisitions();
+            await offlineDB.saveRequisitions(all.data.data);
+        } else {
+            if (page.changed.length > 0) await offlineDB.saveRequisitions(page.changed);
+            if (page.deleted.length > 0) await offlineDB.deleteRequisitions(page.deleted);
+        }
+
+        since = page.cursor;
+        hasMore = page.hasMore;
+        localStorage.setItem(cursorKey, String(since));
+    }
+}
+
+// On logout: the next user starts from a full pull instead of this user's cursor and rows
+export async function clearSyncState() {
+    localStorage.removeItem(syncCursorKey());
+    localStorage.removeItem('syncCursor'); // unscoped key from older versions
+    await offlineDB.clearRequisitions();
+}
+
+// An item that keeps failing is parked after this many tries so the rest of the queue still syncs
+const MAX_SYNC_ATTEMPTS = 3;
 
 export async function syncOfflineChanges() {
-    const queue = await offlineDB.getSyncQueue();
+    const waiting = (await offlineDB.getSyncQueue()).filter((item: any) => !item.synced);
+    // Changes to a requisition whose offline create is parked could only fail in turn
+    const parkedCreates = new Set(waiting
+        .filter((item: any) => item.parked && item.operation === 'CREATE')
+        .map((item: any) => item.data?.id));
+    const queue = waiting.filter((item: any) => !item.parked && !parkedCreates.has(item.data?.id));
 
     if (queue.length === 0) return;
     console.log(`Syncing ${queue.length} offline changes...`);
 
+    const operations = [];
     for (const item of queue) {
-        if (item.synced) continue;
+        if (!item.operationId) {
+            // Queued before operation ids existed; persist one so a retry reuses it
+            item.operationId = crypto.randomUUID();
+            await offlineDB.updateSyncItem(item);
+        }
+        const { id, ...data } = item.data ?? {};
+        const isLocal = typeof id === 'string'; // created offline, not yet known to the server
+        operations.push({
+            operationId: item.operationId,
+            type: item.operation,
+            clientId: isLocal ? id : undefined,
+            requisitionId: isLocal ? undefined : id,
+            data: item.operation === 'CREATE' || item.operation === 'UPDATE' ? data : undefined,
+        });
+    }
+
+    try {
+        const response = await requisitionAPI.applyBatch(operations);
+        const { applied, results } = response.data.data;
 
-        try {
-            if (item.operation === 'CREATE') {
-                const { id, ...dataToSync } = item.data; // Exclude local ID if strictly generating on server
-                // Ideally we handle ID mapping, for now assume server generates ID
-                await requisitionAPI.create(dataToSync);
+        // Creates the server has committed, even when the rest of this batch was rolled back
+        const serverIds = new Map<string, number>();
+        for (const result of results) {
+            if (result?.clientId && result.requisitionId && (applied || result.status === 'DUPLICATE')) {
+                serverIds.set(result.clientId, result.requisitionId);
             }
-            // Handle UPDATE, DELETE similarly
+        }
 
-            // Remove from queue after successful sync
-            await offlineDB.removeFromSyncQueue(item.id);
-        } catch (error) {
-            console.error('Sync failed for item', item, error);
-            // Optional: Logic to retry later or mark as error
+        // Duplicates were applied by an earlier attempt whose response got lost
+        for (let i = 0; i < queue.length; i++) {
+            const item = queue[i];
+            const status = results[i]?.status;
+            if (applied || status === 'DUPLICATE') {
+                await offlineDB.removeFromSyncQueue(item.id);
+                continue;
+            }
+            let changed = false;
+            const serverId = serverIds.get(item.data?.id);
+            if (serverId !== undefined) {
+                // Retried changes refer to the server id from now on
+                item.data = { ...item.data, id: serverId };
+                changed = true;
+            }
+            if (status === 'FAILED') {
+                item.attempts = (item.attempts ?? 0) + 1;
+                item.error = results[i].error;
+                item.parked = item.attempts >= MAX_SYNC_ATTEMPTS;
+                changed = true;
+                console.error(item.parked ? 'Sync item parked after repeated failures' : 'Sync failed for item',
+                    item, item.error);
+            }
+            if (changed) await offlineDB.updateSyncItem(item);
         }
+    } catch (error) {
+        console.error('Sync failed, will retry', error);
     }
 }
 
@@ -31,7 +118,7 @@ export function initSync() {
     window.addEventListener('online', () => {
         console.log('App is online. Syncing...');
         // Show toast?
-        syncOfflineChanges();
+        syncOfflineChanges().then(pullServerChanges);
     });
 
     window.addEventListener('offline', () => {
@@ -41,6 +128,6 @@ export function initSync() {
 
     // Initial sync check
     if (navigator.onLine) {
-        syncOfflineChanges();
+        syncOfflineChanges().then(pullServerChanges);
     }
 }
@@ -12,6 +12,11 @@ class WebSocketService {
             reconnectDelay: 5000,
             heartbeatIncoming: 4000,
             heartbeatOutgoing: 4000,
+            // The server authenticates STOMP CONNECT with the same JWT as the REST API
+            beforeConnect: () => {
+                const token = localStorage.getItem('token');
+                this.client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+            },
         });
 
         this.client.onConnect = () => {